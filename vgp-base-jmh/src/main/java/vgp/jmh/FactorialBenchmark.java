@@ -0,0 +1,110 @@
+package vgp.jmh;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vgp.math.Factorial;
+
+/**
+ * Benchmarks of cold and warm lookups of {@link Factorial}.
+ * <p>
+ * A cold lookup creates a new object, so its cache is empty, and a far value of n is
+ * calculated by the prime swing algorithm. A warm lookup reuses an object whose cache
+ * already holds n!. Unlike {@link Factorial#main(String[])}, nothing is formatted. Run with
+ * {@code -prof gc} to profile allocation as well.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class FactorialBenchmark {
+
+    /**
+     * The value of n.
+     */
+    @Param({"100", "1000", "10000", "100000"})
+    public int n;
+
+    /**
+     * An object whose cache holds n!.
+     */
+    private Factorial warmFactorial;
+
+    /**
+     * Creates {@link #warmFactorial} and fills its cache up to n.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        warmFactorial = new Factorial();
+        warmFactorial.getRange(0, n + 1);
+    }
+
+    /**
+     * Disposes of {@link #warmFactorial}.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        warmFactorial.dispose();
+    }
+
+    /**
+     * Looks up n! in a new object.
+     *
+     * @return n!
+     */
+    @Benchmark
+    public BigInteger cold() {
+        final Factorial factorial = new Factorial();
+        try {
+            return factorial.getFactorialOfN(n);
+        } finally {
+            factorial.dispose();
+        }
+    }
+
+    /**
+     * Looks up n! in an object whose cache holds it.
+     *
+     * @return n!
+     */
+    @Benchmark
+    public BigInteger warm() {
+        return warmFactorial.getFactorialOfN(n);
+    }
+
+    /**
+     * Calculates every factorial up to n in a new object.
+     *
+     * @return the factorials of 0 to n
+     */
+    @Benchmark
+    public List<BigInteger> range() {
+        final Factorial factorial = new Factorial();
+        try {
+            return factorial.getRange(0, n + 1);
+        } finally {
+            factorial.dispose();
+        }
+    }
+}
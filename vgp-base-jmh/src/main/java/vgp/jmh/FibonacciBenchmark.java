@@ -0,0 +1,108 @@
+package vgp.jmh;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vgp.math.Fibonacci;
+
+/**
+ * Benchmarks of cold and warm lookups of {@link Fibonacci}.
+ * <p>
+ * A cold lookup uses an object without a cache, so the number is calculated by fast
+ * doubling. A warm lookup reuses an object whose cache already holds it. Unlike
+ * {@link Fibonacci#main(String[])}, nothing is formatted. Run with {@code -prof gc} to
+ * profile allocation as well.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class FibonacciBenchmark {
+
+    /**
+     * The value of n.
+     */
+    @Param({"100", "1000", "10000", "1000000"})
+    public int n;
+
+    /**
+     * An object without a cache.
+     */
+    private Fibonacci coldFibonacci;
+
+    /**
+     * An object whose cache holds the nth number.
+     */
+    private Fibonacci warmFibonacci;
+
+    /**
+     * Creates {@link #coldFibonacci} and {@link #warmFibonacci}, and fills the latter's
+     * cache.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        coldFibonacci = new Fibonacci(false);
+        warmFibonacci = new Fibonacci();
+        warmFibonacci.getNthNumber(n);
+    }
+
+    /**
+     * Disposes of {@link #coldFibonacci} and {@link #warmFibonacci}.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        coldFibonacci.dispose();
+        warmFibonacci.dispose();
+    }
+
+    /**
+     * Calculates the nth number.
+     *
+     * @return the nth number
+     */
+    @Benchmark
+    public BigInteger cold() {
+        return coldFibonacci.getNthNumber(n);
+    }
+
+    /**
+     * Looks up the nth number in an object whose cache holds it.
+     *
+     * @return the nth number
+     */
+    @Benchmark
+    public BigInteger warm() {
+        return warmFibonacci.getNthNumber(n);
+    }
+
+    /**
+     * Calculates every number up to the nth, unless n is too large for that.
+     *
+     * @return the 0th to nth numbers
+     */
+    @Benchmark
+    public List<BigInteger> range() {
+        return coldFibonacci.getRange(0, Math.min(n, 100_000) + 1);
+    }
+}
@@ -0,0 +1,171 @@
+package vgp.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vgp.list.LazyRAMList;
+
+/**
+ * Benchmarks of {@link LazyRAMList} against {@link ArrayList}, for batches of write requests
+ * that a {@code LazyRAMList} enqueues, each followed by a read that makes it apply its
+ * enqueued changes. Both implementations receive the same calls.
+ * <p>
+ * Each batch keeps the list's size constant, and its indices come from a seeded
+ * {@link Random}, so every run performs the same operations. Run with {@code -prof gc} to
+ * profile allocation as well.
+ *
+ * @author [...]
+ * @version 2.5
+ * @since 2.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class LazyRAMListBenchmark {
+
+	/**
+	 * The number of precomputed random values, which is a power of 2.
+	 */
+	private static final int RANDOM_COUNT = 1 << 16;
+
+	/**
+	 * The list's size before and after each batch.
+	 */
+	@Param({"1000", "100000"})
+	public int size;
+
+	/**
+	 * The number of elements that each batch writes one request at a time, before a single
+	 * request restores the list's size.
+	 */
+	@Param({"1", "16", "256"})
+	public int writesPerFlush;
+
+	/**
+	 * The list implementation: {@code LazyRAMList} or {@code ArrayList}.
+	 */
+	@Param({"LazyRAMList", "ArrayList"})
+	public String implementation;
+
+	/**
+	 * The list being benchmarked.
+	 */
+	private List<Integer> list;
+
+	/**
+	 * Random values from 0 (inclusive) to {@link #size} (exclusive).
+	 */
+	private int[] randoms;
+
+	/**
+	 * The index of the next value of {@link #randoms} to use.
+	 */
+	private int cursor;
+
+	/**
+	 * {@link #writesPerFlush} elements to append in a single request.
+	 */
+	private List<Integer> refill;
+
+	/**
+	 * Fills the list with {@link #size} elements, and precomputes the random values.
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() {
+		list = "LazyRAMList".equals(implementation) ? new LazyRAMList<>(size) : new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(i);
+		}
+		list.get(0);
+		final Random random = new Random(size * 31L + writesPerFlush);
+		randoms = new int[RANDOM_COUNT];
+		for (int i = 0; i < RANDOM_COUNT; i++) {
+			randoms[i] = random.nextInt(size);
+		}
+		cursor = 0;
+		refill = new ArrayList<>(writesPerFlush);
+		for (int i = 0; i < writesPerFlush; i++) {
+			refill.add(-i - 1);
+		}
+	}
+
+	/**
+	 * Returns the next random value from 0 (inclusive) to {@link #size} (exclusive).
+	 *
+	 * @return a random index of the list
+	 */
+	private int nextIndex() {
+		return randoms[cursor++ & (RANDOM_COUNT - 1)];
+	}
+
+	/**
+	 * Appends {@link #writesPerFlush} elements, reads the last one, and then removes the
+	 * appended elements, which the next batch applies along with its own.
+	 *
+	 * @return the element read
+	 */
+	@Benchmark
+	public Integer appendThenRead() {
+		final List<Integer> list = this.list;
+		final int writesPerFlush = this.writesPerFlush;
+		for (int i = 0; i < writesPerFlush; i++) {
+			list.add(i);
+		}
+		final Integer element = list.get(size + writesPerFlush - 1);
+		list.subList(size, size + writesPerFlush).clear();
+		return element;
+	}
+
+	/**
+	 * Inserts {@link #writesPerFlush} elements at random indices, removes as many from the
+	 * end of the list, and then reads the last element.
+	 *
+	 * @return the element read
+	 */
+	@Benchmark
+	public Integer insertThenRead() {
+		final List<Integer> list = this.list;
+		final int writesPerFlush = this.writesPerFlush;
+		for (int i = 0; i < writesPerFlush; i++) {
+			list.add(nextIndex(), i);
+		}
+		list.subList(size, size + writesPerFlush).clear();
+		return list.get(size - 1);
+	}
+
+	/**
+	 * Removes {@link #writesPerFlush} elements at random indices, appends as many in a single
+	 * request, and then searches the list for an element that it does not contain.
+	 *
+	 * @return whether the list contains the element searched for
+	 */
+	@Benchmark
+	public boolean removeThenContains() {
+		final List<Integer> list = this.list;
+		final int writesPerFlush = this.writesPerFlush;
+		for (int i = 0; i < writesPerFlush; i++) {
+			final int index = nextIndex() % (size - i);
+			list.subList(index, index + 1).clear();
+		}
+		list.addAll(refill);
+		return list.contains(size);
+	}
+}
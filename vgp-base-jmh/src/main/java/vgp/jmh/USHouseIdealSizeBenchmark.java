@@ -0,0 +1,116 @@
+package vgp.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import vgp.misc.USHouseIdealSize;
+
+/**
+ * Benchmarks of apportionment sweeps of {@link USHouseIdealSize}, which calculate the
+ * max-min quotient of each House size from {@value #MIN_SIZE} up to a maximum.
+ * <p>
+ * A cold sweep creates a new object, so its caches are empty; a warm sweep reuses one whose
+ * caches already hold every size. Run with {@code -prof gc} to profile allocation as
+ * well.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class USHouseIdealSizeBenchmark {
+
+    /**
+     * The smallest House size, which gives each state one Representative.
+     */
+    private static final int MIN_SIZE = 50;
+
+    /**
+     * The largest House size in each sweep.
+     */
+    @Param({"435", "1000", "2000"})
+    public int maxSize;
+
+    /**
+     * An object whose caches hold every size up to {@link #maxSize}.
+     */
+    private USHouseIdealSize warmUSHouseIdealSize;
+
+    /**
+     * Creates {@link #warmUSHouseIdealSize} and sweeps it once.
+     *
+     * @throws IOException if the table of state populations cannot be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        warmUSHouseIdealSize = USHouseIdealSize.newInstance();
+        sweep(warmUSHouseIdealSize);
+    }
+
+    /**
+     * Disposes of {@link #warmUSHouseIdealSize}.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        warmUSHouseIdealSize.dispose();
+    }
+
+    /**
+     * Sweeps the given object from {@value #MIN_SIZE} up to {@link #maxSize}.
+     *
+     * @param usHouseIdealSize the object to sweep
+     * @return the sum of the quotients, so that none of them is dead code
+     */
+    private double sweep(USHouseIdealSize usHouseIdealSize) {
+        double sum = 0;
+        for (double quotient : usHouseIdealSize.getMaxMinQuotients(MIN_SIZE, maxSize + 1)) {
+            sum += quotient;
+        }
+        return sum;
+    }
+
+    /**
+     * Sweeps a new object, including reading its table of state populations.
+     *
+     * @return the sum of the quotients
+     * @throws IOException if the table of state populations cannot be read
+     */
+    @Benchmark
+    public double cold() throws IOException {
+        final USHouseIdealSize usHouseIdealSize = USHouseIdealSize.newInstance();
+        try {
+            return sweep(usHouseIdealSize);
+        } finally {
+            usHouseIdealSize.dispose();
+        }
+    }
+
+    /**
+     * Sweeps an object whose caches hold every size.
+     *
+     * @return the sum of the quotients
+     */
+    @Benchmark
+    public double warm() {
+        return sweep(warmUSHouseIdealSize);
+    }
+}
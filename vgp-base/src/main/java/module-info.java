@@ -105,14 +105,68 @@
  *     <li>Class {@code vgp.math.Fibonacci} created
  *     <li>Class {@code vgp.math.Factorial} created
  *     </ul>
+ * <li>Version 2.5
+ *     <ul>
+ *     <li>Class {@code vgp.list.LazyRAMList} edited to coalesce adjacent changes
+ *     <li>Class {@code vgp.list.ChangeJournal} created
+ *     <li>Class {@code vgp.list.ConcurrentLazyRAMList} created
+ *     <li>Class {@code vgp.list.LazyFlushPolicy} created
+ *     <li>Class {@code vgp.list.ScheduledLazyRAMList} created
+ *     <li>Class {@code vgp.list.LazyRAMList} edited to share elements between clones
+ *     <li>Class {@code vgp.list.LazyIntList} created
+ *     <li>Class {@code vgp.list.LazyLongList} created
+ *     <li>Class {@code vgp.list.LazyDoubleList} created
+ *     <li>Class {@code vgp.list.LazyPrimitiveList} created to hold the change queue shared
+ *     by {@code LazyIntList}, {@code LazyLongList} and {@code LazyDoubleList}
+ *     <li>Class {@code vgp.list.LazyRAMListMetrics} created
+ *     <li>Interface {@code vgp.list.LazyRAMListMetricsMXBean} created
+ *     <li>Interface {@code vgp.list.LazyFlushListener} created
+ *     <li>Class {@code vgp.list.LazyRAMList} edited to report metrics
+ *     <li>Interface {@code vgp.list.ElementCodec} created
+ *     <li>Enum {@code vgp.list.StandardCodec} created
+ *     <li>Class {@code vgp.list.WriteAheadLog} created
+ *     <li>Class {@code vgp.list.LazyRAMList} edited to serialize compactly and to record
+ *         write requests to a write-ahead log
+ *     <li>Class {@code vgp.list.LazyRAMList} edited to defer and fuse {@code replaceAll},
+ *         {@code removeIf}, and {@code sort}
+ *     <li>Class {@code vgp.list.ScheduledLazyRAMList} edited to schedule deferred bulk
+ *         transforms
+ *     <li>Class {@code vgp.list.ChunkedArrayList} created
+ *     <li>Class {@code vgp.list.LazyRAMListSnapshot} created
+ *     <li>Class {@code vgp.list.LazyRAMList} edited to take versioned snapshots
+ *     <li>Package {@code vgp.map} created
+ *     <li>Class {@code vgp.map.LazyRAMMap} created
+ *     <li>Class {@code vgp.math.Fibonacci} edited to calculate by fast doubling
+ *     <li>Class {@code vgp.math.Factorial} edited to cache factorials in an array
+ *     <li>Class {@code vgp.math.PrimeSieve} created
+ *     <li>Class {@code vgp.math.ProductTree} created
+ *     <li>Class {@code vgp.math.Factorial} edited to calculate large factorials by the
+ *         prime swing algorithm, and keep them in a sparse cache
+ *     <li>Class {@code vgp.math.FutureCache} created
+ *     <li>Class {@code vgp.math.ConcurrentFactorial} created
+ *     <li>Class {@code vgp.math.ConcurrentFibonacci} created
+ *     <li>Class {@code vgp.math.ModularArithmetic} created
+ *     <li>Class {@code vgp.math.ModularFibonacci} created
+ *     <li>Class {@code vgp.math.ModularFactorial} created
+ *     <li>Classes {@code vgp.math.Factorial} and {@code vgp.math.Fibonacci} edited to
+ *         return ranges and streams of consecutive values
+ *     <li>Class {@code vgp.math.CheckpointCache} created
+ *     <li>Class {@code vgp.misc.USHouseIdealSize} edited to create objects and sweep
+ *         House sizes via public methods
+ *     <li>Class {@code vgp.math.Binomial} created
+ *     </ul>
  * </ol>
  * 
  * @author [...]
  * @see "The library module java.base"
+ * @see "The library module java.management"
  * @see "The custom module vgp.fx.base"
  */
 module vgp.base {
+	requires java.management;
+
 	exports vgp.clone;
 	exports vgp.list;
+	exports vgp.map;
 	exports vgp.dispose;
 }
\ No newline at end of file
@@ -0,0 +1,739 @@
+package vgp.list;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A compact, reusable queue of a {@link LazyRAMList}'s write requests.
+ * <p>
+ * Each enqueued change is an entry of four {@code int}s: an opcode followed by up to three
+ * operands. Elements to append or insert, as well as the functions of {@link #RUN},
+ * {@link #TRANSFORM}, {@link #FILTER}, and {@link #SORT} entries, are stored contiguously in
+ * a separate {@code Object} array. Both arrays are reused after the journal is drained, so
+ * that enqueuing a change costs an array store, not an allocation.
+ * <p>
+ * Apart from sorts, only the last entry in this journal is ever coalesced with a newly
+ * enqueued change:
+ * <ul>
+ * <li>consecutive appends are merged into one bulk append, and consecutive positional
+ *     inserts that continue one another are merged into one bulk insert;
+ * <li>{@link #clear()} discards every entry enqueued before it, back to the last
+ *     {@link #RUN} entry;
+ * <li>consecutive range removals whose ranges overlap or touch are merged into one range;
+ * <li>consecutive capacity changes are collapsed into the last effective one.
+ * </ul>
+ * In addition, a sort discards an earlier sort with the same comparator, if only appends,
+ * filters, and capacity changes were enqueued in between: since sorting is stable, sorting
+ * once at the end has the same effect.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author [...]
+ * @version 2.5
+ * @since 2.5
+ */
+final class ChangeJournal {
+
+	/**
+	 * Appends {@link #count} elements, starting at {@link #argumentStart}, to the end of
+	 * the list.
+	 */
+	static final int APPEND = 0;
+
+	/**
+	 * Inserts {@link #count} elements, starting at {@link #argumentStart}, at
+	 * {@link #from}.
+	 */
+	static final int INSERT = 1;
+
+	/**
+	 * Removes the range from {@link #from}, inclusive, to {@link #to}, exclusive.
+	 */
+	static final int REMOVE_RANGE = 2;
+
+	/**
+	 * Removes every element.
+	 */
+	static final int CLEAR = 3;
+
+	/**
+	 * Ensures a capacity of at least {@link #from}.
+	 */
+	static final int ENSURE_CAPACITY = 4;
+
+	/**
+	 * Trims the capacity to the size.
+	 */
+	static final int TRIM_TO_SIZE = 5;
+
+	/**
+	 * Runs the {@link Runnable} at {@link #argumentStart}, which cannot be coalesced with
+	 * anything.
+	 */
+	static final int RUN = 6;
+
+	/**
+	 * Replaces each element with the result of the {@link UnaryOperator} at
+	 * {@link #argumentStart}.
+	 */
+	static final int TRANSFORM = 7;
+
+	/**
+	 * Removes each element that satisfies the {@link Predicate} at {@link #argumentStart}.
+	 */
+	static final int FILTER = 8;
+
+	/**
+	 * Sorts the elements with the {@link Comparator} at {@link #argumentStart}, which is
+	 * {@code null} for the natural ordering.
+	 */
+	static final int SORT = 9;
+
+	/**
+	 * How many {@code int}s each entry occupies in {@link #codes}.
+	 */
+	private static final int STRIDE = 4;
+
+	/**
+	 * How many entries and arguments a new journal has room for.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Each entry's opcode and operands, {@link #STRIDE} {@code int}s per entry.
+	 */
+	private int[] codes = new int[INITIAL_CAPACITY * STRIDE];
+
+	/**
+	 * Elements to append or insert, and {@link Runnable}s to run.
+	 */
+	private Object[] arguments = new Object[INITIAL_CAPACITY];
+
+	/**
+	 * The index of the next entry to dequeue.
+	 */
+	private int head;
+
+	/**
+	 * The number of entries enqueued since this journal was last drained.
+	 */
+	private int length;
+
+	/**
+	 * The number of slots of {@link #arguments} in use.
+	 */
+	private int argumentCount;
+
+	/**
+	 * The number of times this journal has been modified, which is used to detect that the
+	 * list has changed while being traversed.
+	 */
+	private int modifications;
+
+	/**
+	 * Constructs a new, empty {@code ChangeJournal}.
+	 */
+	ChangeJournal() {
+		super();
+	}
+
+	/**
+	 * Returns whether this journal has no entries left to dequeue.
+	 *
+	 * @return {@code true} if there is nothing left to dequeue; {@code false} otherwise
+	 */
+	boolean isEmpty() {
+		return head == length;
+	}
+
+	/**
+	 * Returns the number of entries left to dequeue.
+	 *
+	 * @return a nonnegative integer
+	 */
+	int pendingCount() {
+		return length - head;
+	}
+
+	/**
+	 * Returns the number of entries left to dequeue plus the number of arguments they carry,
+	 * which approximates how much work dequeuing all of them would be.
+	 *
+	 * @return a nonnegative integer
+	 */
+	int pendingWork() {
+		if (isEmpty()) {
+			return 0;
+		}
+		return (length - head) + (argumentCount - argumentStart(head));
+	}
+
+	/**
+	 * Returns whether any entry left to dequeue calls a function supplied by the client,
+	 * which might fail.
+	 *
+	 * @return {@code true} if a {@link #RUN}, {@link #TRANSFORM}, {@link #FILTER}, or
+	 *         {@link #SORT} entry is left to dequeue; {@code false} otherwise
+	 */
+	boolean callsBack() {
+		for (int entry = head; entry < length; entry++) {
+			if (kind(entry) >= RUN) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether every entry left to dequeue is an append or a capacity change, in
+	 * which case the elements to append occupy {@link #pendingArgumentStart()}, inclusive,
+	 * to {@link #argumentEnd()}, exclusive, of {@link #arguments()}, in order.
+	 *
+	 * @return {@code true} if dequeuing every entry would only append elements;
+	 *         {@code false} otherwise
+	 */
+	boolean isAppendOnly() {
+		for (int entry = head; entry < length; entry++) {
+			final int kind = kind(entry);
+			if (kind != APPEND && kind != ENSURE_CAPACITY && kind != TRIM_TO_SIZE) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the array holding the elements to append or insert.
+	 * <p>
+	 * A later change may replace this array, but never modifies the part of it that
+	 * {@link #pendingArgumentStart()} and {@link #argumentEnd()} currently delimit, until
+	 * this journal is drained or cleared.
+	 *
+	 * @return this journal's argument array, which must not be modified
+	 */
+	Object[] arguments() {
+		return arguments;
+	}
+
+	/**
+	 * Returns where the arguments of the entries left to dequeue start.
+	 *
+	 * @return an index into {@link #arguments()}
+	 */
+	int pendingArgumentStart() {
+		return isEmpty() ? argumentCount : argumentStart(head);
+	}
+
+	/**
+	 * Returns where the arguments of the entries left to dequeue end.
+	 *
+	 * @return an index into {@link #arguments()}, exclusive
+	 */
+	int argumentEnd() {
+		return argumentCount;
+	}
+
+	/**
+	 * Returns the number of times this journal has been modified.
+	 *
+	 * @return a counter that changes whenever an entry is enqueued, dequeued, or discarded
+	 */
+	int modifications() {
+		return modifications;
+	}
+
+	/**
+	 * Enqueues an append of the parameter.
+	 *
+	 * @param e  the element to append
+	 */
+	void append(Object e) {
+		if (isEmpty() || kind(length - 1) != APPEND) {
+			newEntry(APPEND, 0, 0);
+		}
+		addArgument(e);
+		codes[(length - 1) * STRIDE + 2]++;
+		modifications++;
+	}
+
+	/**
+	 * Enqueues an append of the parameter's elements.
+	 *
+	 * @param a  the elements to append, which this journal must not keep a reference to
+	 */
+	void appendAll(Object[] a) {
+		if (isEmpty() || kind(length - 1) != APPEND) {
+			newEntry(APPEND, 0, 0);
+		}
+		addArguments(a);
+		codes[(length - 1) * STRIDE + 2] += a.length;
+		modifications++;
+	}
+
+	/**
+	 * Enqueues an insert of the parameter at the specified index.
+	 *
+	 * @param index  a nonnegative integer
+	 * @param e      the element to insert
+	 */
+	void insert(int index, Object e) {
+		if (!continuesLastInsert(index)) {
+			newEntry(INSERT, index, 0);
+		}
+		addArgument(e);
+		codes[(length - 1) * STRIDE + 2]++;
+		modifications++;
+	}
+
+	/**
+	 * Enqueues an insert of the parameter's elements at the specified index.
+	 * <p>
+	 * Even if the array is empty, an entry is enqueued, so that the index is still validated.
+	 *
+	 * @param index  a nonnegative integer
+	 * @param a      the elements to insert, which this journal must not keep a reference to
+	 */
+	void insertAll(int index, Object[] a) {
+		if (!continuesLastInsert(index)) {
+			newEntry(INSERT, index, 0);
+		}
+		addArguments(a);
+		codes[(length - 1) * STRIDE + 2] += a.length;
+		modifications++;
+	}
+
+	/**
+	 * Returns whether an insert at the specified index would continue the last entry.
+	 *
+	 * @param index  a nonnegative integer
+	 * @return {@code true} if the last entry is an insert that ends at the index
+	 */
+	private boolean continuesLastInsert(int index) {
+		if (isEmpty()) {
+			return false;
+		}
+		final int last = length - 1;
+		return kind(last) == INSERT && from(last) + count(last) == index;
+	}
+
+	/**
+	 * Enqueues a removal of the specified range.
+	 *
+	 * @param fromIndex  the nonnegative start of the range, inclusive
+	 * @param toIndex    the end of the range, exclusive, which is at least {@code fromIndex}
+	 */
+	void removeRange(int fromIndex, int toIndex) {
+		if (!isEmpty()) {
+			final int last = (length - 1) * STRIDE;
+			final int lastFrom = codes[last + 1];
+			final int lastTo = codes[last + 2];
+			if (codes[last] == REMOVE_RANGE && fromIndex <= lastFrom && lastFrom <= toIndex
+					&& (long) toIndex + (lastTo - lastFrom) <= Integer.MAX_VALUE) {
+				// After the last range is removed, this range touches or overlaps where the last
+				// range used to be, so both ranges together form one range of the original list.
+				codes[last + 1] = fromIndex;
+				codes[last + 2] = toIndex + (lastTo - lastFrom);
+				modifications++;
+				return;
+			}
+		}
+		newEntry(REMOVE_RANGE, fromIndex, toIndex);
+	}
+
+	/**
+	 * Enqueues a removal of every element, discarding every entry enqueued before it, back
+	 * to the last {@link #RUN} entry.
+	 */
+	void clear() {
+		int newLength = length;
+		int newArgumentCount = argumentCount;
+		while (newLength > head && kind(newLength - 1) != RUN) {
+			newLength--;
+			newArgumentCount = argumentStart(newLength);
+		}
+		Arrays.fill(arguments, newArgumentCount, argumentCount, null);
+		length = newLength;
+		argumentCount = newArgumentCount;
+		newEntry(CLEAR, 0, 0);
+	}
+
+	/**
+	 * Enqueues a change that only affects the list's capacity, collapsing it into the last
+	 * entry if that one also only affects the list's capacity.
+	 *
+	 * @param kind         {@link #ENSURE_CAPACITY} or {@link #TRIM_TO_SIZE}
+	 * @param minCapacity  the desired minimum capacity, if ensuring a capacity
+	 */
+	void changeCapacity(int kind, int minCapacity) {
+		if (!isEmpty()) {
+			final int last = length - 1;
+			final int lastKind = kind(last);
+			if (lastKind == ENSURE_CAPACITY && kind == ENSURE_CAPACITY) {
+				codes[last * STRIDE + 1] = Math.max(from(last), minCapacity);
+				modifications++;
+				return;
+			}
+			if (lastKind == ENSURE_CAPACITY || lastKind == TRIM_TO_SIZE) {
+				// The last entry would be overridden by this one anyway.
+				codes[last * STRIDE] = kind;
+				codes[last * STRIDE + 1] = minCapacity;
+				modifications++;
+				return;
+			}
+		}
+		newEntry(kind, minCapacity, 0);
+	}
+
+	/**
+	 * Enqueues a run of the parameter.
+	 *
+	 * @param change  the write request whose execution to postpone
+	 */
+	void run(Runnable change) {
+		newEntry(RUN, 0, 0);
+		addArgument(change);
+	}
+
+	/**
+	 * Enqueues a replacement of each element with the result of the parameter.
+	 *
+	 * @param operator  the operator to apply to each element
+	 */
+	void transform(UnaryOperator<?> operator) {
+		newEntry(TRANSFORM, 0, 0);
+		addArgument(operator);
+	}
+
+	/**
+	 * Enqueues a removal of each element that satisfies the parameter.
+	 *
+	 * @param filter  the predicate that returns {@code true} for elements to remove
+	 */
+	void filter(Predicate<?> filter) {
+		newEntry(FILTER, 0, 0);
+		addArgument(filter);
+	}
+
+	/**
+	 * Enqueues a stable sort, discarding an earlier sort with the same comparator if only
+	 * appends, filters, and capacity changes were enqueued since.
+	 *
+	 * @param c  the comparator, or {@code null} for the natural ordering
+	 */
+	void sort(Comparator<?> c) {
+		for (int entry = length - 1; entry >= head; entry--) {
+			final int kind = kind(entry);
+			if (kind == SORT && arguments[argumentStart(entry)] == c) {
+				removeEntry(entry);
+				break;
+			}
+			if (kind != APPEND && kind != FILTER && kind != ENSURE_CAPACITY && kind != TRIM_TO_SIZE) {
+				break;
+			}
+		}
+		newEntry(SORT, 0, 0);
+		addArgument(c);
+	}
+
+	/**
+	 * Dequeues the next entry.
+	 * <p>
+	 * The returned entry's operands and arguments stay valid until the next call to this
+	 * method. Once there is nothing left to dequeue, this journal is reset for reuse.
+	 *
+	 * @return the dequeued entry, or {@code -1} if there was nothing left to dequeue
+	 */
+	int poll() {
+		if (head < length) {
+			modifications++;
+			return head++;
+		}
+		reset();
+		return -1;
+	}
+
+	/**
+	 * Returns the entry after the last one enqueued, so that the entries left to dequeue can
+	 * be inspected without dequeuing them.
+	 *
+	 * @return the number of entries enqueued since this journal was last drained
+	 */
+	int end() {
+		return length;
+	}
+
+	/**
+	 * Dequeues every entry before the specified one, which the caller has already applied.
+	 *
+	 * @param entry  an entry that has not been dequeued yet, or {@link #end()}
+	 */
+	void skipTo(int entry) {
+		head = entry;
+		modifications++;
+	}
+
+	/**
+	 * Returns the largest size that the list reaches while every entry left to dequeue is
+	 * applied, up to the first {@link #RUN} entry, provided that every entry is valid.
+	 *
+	 * @param size  the list's size before any entry is applied
+	 * @return at least the parameter
+	 */
+	int peakSize(int size) {
+		long current = size;
+		long peak = size;
+		for (int entry = head; entry < length; entry++) {
+			switch (kind(entry)) {
+			case APPEND:
+			case INSERT:
+				current += count(entry);
+				peak = Math.max(peak, current);
+				break;
+			case REMOVE_RANGE:
+				current -= to(entry) - from(entry);
+				break;
+			case CLEAR:
+				current = 0;
+				break;
+			case RUN:
+				return (int) Math.min(peak, Integer.MAX_VALUE);
+			default:
+				break;
+			}
+		}
+		return (int) Math.min(peak, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the opcode of the specified entry.
+	 *
+	 * @param entry  an entry of this journal
+	 * @return one of the opcodes declared above
+	 */
+	int kind(int entry) {
+		return codes[entry * STRIDE];
+	}
+
+	/**
+	 * Returns the index or capacity of the specified entry.
+	 *
+	 * @param entry  an entry of this journal
+	 * @return the entry's first operand
+	 */
+	int from(int entry) {
+		return codes[entry * STRIDE + 1];
+	}
+
+	/**
+	 * Returns the end of the range to remove for the specified entry.
+	 *
+	 * @param entry  a {@link #REMOVE_RANGE} entry of this journal
+	 * @return the entry's second operand
+	 */
+	int to(int entry) {
+		return codes[entry * STRIDE + 2];
+	}
+
+	/**
+	 * Returns the number of elements to append or insert for the specified entry.
+	 *
+	 * @param entry  an {@link #APPEND} or {@link #INSERT} entry of this journal
+	 * @return the entry's second operand
+	 */
+	int count(int entry) {
+		return codes[entry * STRIDE + 2];
+	}
+
+	/**
+	 * Returns where the specified entry's arguments start.
+	 *
+	 * @param entry  an entry of this journal
+	 * @return the entry's third operand
+	 */
+	private int argumentStart(int entry) {
+		return codes[entry * STRIDE + 3];
+	}
+
+	/**
+	 * Returns the elements to append or insert for the specified entry.
+	 *
+	 * @param entry  an {@link #APPEND} or {@link #INSERT} entry of this journal
+	 * @return a fixed-size view of the entry's elements
+	 */
+	List<Object> elements(int entry) {
+		final int start = argumentStart(entry);
+		return new ArraySlice(arguments, start, start + count(entry));
+	}
+
+	/**
+	 * Returns the function of the specified entry.
+	 *
+	 * @param entry  a {@link #TRANSFORM}, {@link #FILTER}, or {@link #SORT} entry of this
+	 *               journal
+	 * @return the operator, predicate, or comparator that was enqueued
+	 */
+	Object function(int entry) {
+		return arguments[argumentStart(entry)];
+	}
+
+	/**
+	 * Returns the {@link Runnable} to run for the specified entry.
+	 *
+	 * @param entry  a {@link #RUN} entry of this journal
+	 * @return the write request whose execution was postponed
+	 */
+	Runnable action(int entry) {
+		return (Runnable) arguments[argumentStart(entry)];
+	}
+
+	/**
+	 * Returns a view of the parameter whose {@link List#toArray()} returns the parameter
+	 * itself instead of a copy.
+	 * <p>
+	 * Only pass the view to methods that copy what {@link List#toArray()} returns, such as
+	 * {@link java.util.ArrayList#addAll(java.util.Collection)}.
+	 *
+	 * @param array  the array to hand off
+	 * @return a fixed-size view of the parameter
+	 */
+	static List<Object> handOff(Object[] array) {
+		return new ArraySlice(array, 0, array.length) {
+			@Override
+			public Object[] toArray() {
+				return array;
+			}
+		};
+	}
+
+	/**
+	 * Discards every entry, keeping this journal's arrays for reuse.
+	 */
+	private void reset() {
+		Arrays.fill(arguments, 0, argumentCount, null);
+		head = 0;
+		length = 0;
+		argumentCount = 0;
+	}
+
+	/**
+	 * Enqueues a new entry whose arguments, if any, start at the end of {@link #arguments}.
+	 *
+	 * @param kind    one of the opcodes declared above
+	 * @param first   the entry's first operand
+	 * @param second  the entry's second operand
+	 */
+	private void newEntry(int kind, int first, int second) {
+		final int i = length * STRIDE;
+		if (i == codes.length) {
+			codes = Arrays.copyOf(codes, (length + (length >> 1)) * STRIDE);
+		}
+		codes[i] = kind;
+		codes[i + 1] = first;
+		codes[i + 2] = second;
+		codes[i + 3] = argumentCount;
+		length++;
+		modifications++;
+	}
+
+	/**
+	 * Removes the specified entry, which carries exactly one argument, from the middle of
+	 * this journal.
+	 *
+	 * @param entry  an entry that has not been dequeued yet
+	 */
+	private void removeEntry(int entry) {
+		final int argument = argumentStart(entry);
+		System.arraycopy(codes, (entry + 1) * STRIDE, codes, entry * STRIDE, (length - entry - 1) * STRIDE);
+		System.arraycopy(arguments, argument + 1, arguments, argument, argumentCount - argument - 1);
+		length--;
+		arguments[--argumentCount] = null;
+		for (int i = entry; i < length; i++) {
+			codes[i * STRIDE + 3]--;
+		}
+		modifications++;
+	}
+
+	/**
+	 * Adds the parameter to the end of {@link #arguments}.
+	 *
+	 * @param argument  the argument to add
+	 */
+	private void addArgument(Object argument) {
+		if (argumentCount == arguments.length) {
+			arguments = Arrays.copyOf(arguments, argumentCount + (argumentCount >> 1));
+		}
+		arguments[argumentCount++] = argument;
+	}
+
+	/**
+	 * Adds the parameter's elements to the end of {@link #arguments}.
+	 *
+	 * @param a  the arguments to add
+	 */
+	private void addArguments(Object[] a) {
+		final int newCount = argumentCount + a.length;
+		if (newCount > arguments.length) {
+			arguments = Arrays.copyOf(arguments, Math.max(newCount, argumentCount + (argumentCount >> 1)));
+		}
+		System.arraycopy(a, 0, arguments, argumentCount, a.length);
+		argumentCount = newCount;
+	}
+
+	/**
+	 * A fixed-size view of part of an array, whose {@link #toArray()} is a single copy.
+	 *
+	 * @version 2.5
+	 * @since 2.5
+	 */
+	private static class ArraySlice extends AbstractList<Object> implements RandomAccess {
+
+		/**
+		 * The backing array.
+		 */
+		private final Object[] array;
+
+		/**
+		 * The start of this slice, inclusive.
+		 */
+		private final int from;
+
+		/**
+		 * The end of this slice, exclusive.
+		 */
+		private final int to;
+
+		/**
+		 * Constructs a new {@code ArraySlice} of the specified part of the array.
+		 *
+		 * @param array  the backing array
+		 * @param from   the start of the slice, inclusive
+		 * @param to     the end of the slice, exclusive
+		 */
+		ArraySlice(Object[] array, int from, int to) {
+			this.array = array;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Object get(int index) {
+			return array[from + Objects.checkIndex(index, to - from)];
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+
+		@Override
+		public Object[] toArray() {
+			return Arrays.copyOfRange(array, from, to);
+		}
+	}
+}
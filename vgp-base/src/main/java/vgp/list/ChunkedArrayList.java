@@ -0,0 +1,802 @@
+package vgp.list;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import vgp.clone.CloneableBase;
+
+/**
+ * A list whose elements are stored in a sequence of bounded chunks, so that inserting or
+ * removing an element in the middle of a large list only shifts the elements of one chunk.
+ * <p>
+ * Each chunk holds at most {@value #MAX_CHUNK} elements. A Fenwick tree over the chunks'
+ * sizes finds the chunk containing any index in {@code O(log c)} time, where {@code c} is
+ * the number of chunks. Therefore:
+ * <ul>
+ * <li>{@link #get(int)} and {@link #set(int, Object)} take {@code O(log c)} time;
+ * <li>{@link #add(int, Object)} and {@link #remove(int)} take {@code O(log c)} time plus
+ *     the time to shift at most {@value #MAX_CHUNK} elements, except when a chunk has to
+ *     be split, merged, or removed, which also takes {@code O(c)} time;
+ * <li>{@link #add(Object)} takes amortized constant time.
+ * </ul>
+ * <p>
+ * {@link #insertAll(int[], List)} applies a whole batch of positional inserts, sorted by
+ * index, in a single merge that only rebuilds the chunks receiving new elements.
+ * <p>
+ * Unlike {@link LazyRAMList}, which stays an {@link java.util.ArrayList}, this list does not
+ * postpone its write requests: it is meant for lists that are mostly written to in the
+ * middle, where an array-backed list would shift millions of elements per insert.
+ * <p>
+ * Like those of {@link java.util.ArrayList}, this list's iterators are fail-fast.
+ * This list is not thread-safe.
+ *
+ * @author [...]
+ * @version 2.5
+ * @param <E> a type shared by each element in this list
+ * @since 2.5
+ */
+public class ChunkedArrayList<E> extends AbstractList<E> implements CloneableBase {
+
+	/**
+	 * The largest number of elements in a chunk.
+	 */
+	private static final int MAX_CHUNK = 1024;
+
+	/**
+	 * The number of elements that a chunk built by a bulk operation receives, which leaves
+	 * room for later inserts before the chunk has to be split.
+	 */
+	private static final int FILL = MAX_CHUNK * 3 / 4;
+
+	/**
+	 * The capacity of a chunk's array when the chunk is started by an append.
+	 */
+	private static final int INITIAL_CHUNK_CAPACITY = 16;
+
+	/**
+	 * This list's chunks, of which only the first {@link #chunkCount} are used.
+	 * <p>
+	 * Every used chunk holds at least one element.
+	 */
+	private Object[][] chunks;
+
+	/**
+	 * The number of elements in each used chunk.
+	 */
+	private int[] counts;
+
+	/**
+	 * The number of used chunks.
+	 */
+	private int chunkCount;
+
+	/**
+	 * The number of elements in this list.
+	 */
+	private int size;
+
+	/**
+	 * The Fenwick tree over {@link #counts}, indexed from {@code 1}: {@code tree[j]} is the
+	 * sum of {@code counts[j - (j & -j)]} through {@code counts[j - 1]}. Its length is always
+	 * {@code chunks.length + 1}.
+	 */
+	private int[] tree;
+
+	/**
+	 * The chunk found by the last call to {@link #locate(int)}.
+	 */
+	private int locatedChunk;
+
+	/**
+	 * The offset within {@link #locatedChunk} found by the last call to
+	 * {@link #locate(int)}.
+	 */
+	private int locatedOffset;
+
+	/**
+	 * Constructs a new, empty {@code ChunkedArrayList}.
+	 */
+	public ChunkedArrayList() {
+		super();
+		chunks = new Object[4][];
+		counts = new int[4];
+		tree = new int[5];
+	}
+
+	/**
+	 * Constructs a new {@code ChunkedArrayList} whose initial elements are copied from the
+	 * parameter.
+	 *
+	 * @param c  the collection to copy
+	 *
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	public ChunkedArrayList(Collection<? extends E> c) {
+		this();
+		if (c == null) {
+			throw new NullPointerException("Null collection parameter: " + c);
+		}
+		final Object[] a = c.toArray();
+		replaceChunks(0, 0, a, 0, a.length);
+	}
+
+	@Override
+	public boolean add(E e) {
+		if (chunkCount == 0 || counts[chunkCount - 1] == MAX_CHUNK) {
+			insertChunk(chunkCount, new Object[INITIAL_CHUNK_CAPACITY], 0);
+		}
+		final int k = chunkCount - 1;
+		insertInChunk(k, counts[k], e);
+		treeAdd(k, 1);
+		size++;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public void add(int index, E element) {
+		checkPosition(index);
+		if (index == size) {
+			add(element);
+			return;
+		}
+		locate(index);
+		int k = locatedChunk;
+		int offset = locatedOffset;
+		if (counts[k] == MAX_CHUNK) {
+			splitChunk(k);
+			if (offset >= counts[k]) {
+				offset -= counts[k];
+				k++;
+			}
+		}
+		insertInChunk(k, offset, element);
+		treeAdd(k, 1);
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		return addAll(size, c);
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		checkPosition(index);
+		if (c == null) {
+			throw new NullPointerException("Null collection parameter: " + c);
+		}
+		final Object[] a = c.toArray();
+		if (a.length == 0) {
+			return false;
+		}
+		if (a.length <= MAX_CHUNK - FILL) {
+			for (int i = 0; i < a.length; i++) {
+				add(index + i, elementOf(a[i]));
+			}
+			return true;
+		}
+		// Rebuild the chunk at the index, with the new elements, as fresh chunks.
+		if (index == size) {
+			replaceChunks(chunkCount, chunkCount, a, 0, a.length);
+		} else {
+			locate(index);
+			final int k = locatedChunk;
+			final int offset = locatedOffset;
+			final Object[] merged = new Object[counts[k] + a.length];
+			System.arraycopy(chunks[k], 0, merged, 0, offset);
+			System.arraycopy(a, 0, merged, offset, a.length);
+			System.arraycopy(chunks[k], offset, merged, offset + a.length, counts[k] - offset);
+			replaceChunks(k, k + 1, merged, 0, merged.length);
+		}
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Inserts each specified element at the corresponding index, where every index refers
+	 * to a position in this list <em>before</em> any of the elements is inserted.
+	 * <p>
+	 * Elements whose indices are equal are inserted in the order in which they are
+	 * specified. For instance, inserting {@code [x, y, z]} at {@code [0, 2, 2]} into
+	 * {@code [a, b, c]} results in {@code [x, a, b, y, z, c]}.
+	 * <p>
+	 * This is done in one merge, which only rebuilds the chunks that receive new elements:
+	 * {@code k} inserts into a list of {@code c} chunks take {@code O(k + c)} time, plus
+	 * {@code O(}{@value #MAX_CHUNK}{@code )} time per chunk receiving new elements.
+	 *
+	 * @param indices   the nondecreasing indices at which to insert the elements
+	 * @param elements  the elements to insert, one per index
+	 *
+	 * @throws IllegalArgumentException  if the indices are not nondecreasing, or if there are
+	 *                                   not as many indices as elements
+	 * @throws IndexOutOfBoundsException if an index is negative or greater than
+	 *                                   {@link #size()}
+	 * @throws NullPointerException      if either parameter is {@code null}
+	 */
+	public void insertAll(int[] indices, List<? extends E> elements) {
+		if (indices == null) {
+			throw new NullPointerException("Null indices parameter: " + indices);
+		}
+		if (elements == null) {
+			throw new NullPointerException("Null elements parameter: " + elements);
+		}
+		final Object[] a = elements.toArray();
+		if (indices.length != a.length) {
+			throw new IllegalArgumentException("indices parameter (length " + indices.length
+					+ ") and elements parameter (size " + a.length + ") must have the same length.");
+		}
+		for (int i = 0; i < indices.length; i++) {
+			checkPosition(indices[i]);
+			if (i > 0 && indices[i] < indices[i - 1]) {
+				throw new IllegalArgumentException("indices parameter must be nondecreasing, but index "
+						+ indices[i] + " follows " + indices[i - 1] + ".");
+			}
+		}
+		if (a.length == 0) {
+			return;
+		}
+		if (chunkCount == 0) {
+			replaceChunks(0, 0, a, 0, a.length);
+			modCount++;
+			return;
+		}
+		// Each chunk receiving inserts becomes at most one chunk more than its share of FILL.
+		final int capacity = 2 * chunkCount + (size + a.length) / FILL + 1;
+		final Object[][] built = new Object[capacity][];
+		final int[] builtCounts = new int[capacity];
+		int builtCount = 0;
+		int next = 0;
+		int chunkStart = 0;
+		for (int k = 0; k < chunkCount; k++) {
+			final Object[] chunk = chunks[k];
+			final int chunkSize = counts[k];
+			final int chunkEnd = chunkStart + chunkSize;
+			// Inserts at the end of this list go to the last chunk.
+			int end = next;
+			while (end < a.length && (indices[end] < chunkEnd || k == chunkCount - 1)) {
+				end++;
+			}
+			if (end == next) {
+				built[builtCount] = chunk;
+				builtCounts[builtCount++] = chunkSize;
+			} else {
+				final Object[] merged = new Object[chunkSize + end - next];
+				int from = 0;
+				int to = 0;
+				for (int i = next; i < end; i++) {
+					final int n = indices[i] - chunkStart - from;
+					System.arraycopy(chunk, from, merged, to, n);
+					from += n;
+					to += n;
+					merged[to++] = a[i];
+				}
+				System.arraycopy(chunk, from, merged, to, chunkSize - from);
+				for (int i = 0; i < merged.length; i += FILL) {
+					final int count = Math.min(FILL, merged.length - i);
+					built[builtCount] = newChunk(merged, i, count);
+					builtCounts[builtCount++] = count;
+				}
+				next = end;
+			}
+			chunkStart = chunkEnd;
+		}
+		chunks = built;
+		counts = builtCounts;
+		chunkCount = builtCount;
+		size += a.length;
+		rebuildTree();
+		modCount++;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(chunks, 0, chunkCount, null);
+		chunkCount = 0;
+		size = 0;
+		rebuildTree();
+		modCount++;
+	}
+
+	/**
+	 * Returns a copy of this list, which shares its elements but not its chunks.
+	 */
+	@Override
+	public ChunkedArrayList<E> clone() {
+		final ChunkedArrayList<E> clone = new ChunkedArrayList<>();
+		clone.chunks = new Object[Math.max(4, chunkCount)][];
+		for (int k = 0; k < chunkCount; k++) {
+			clone.chunks[k] = chunks[k].clone();
+		}
+		clone.counts = Arrays.copyOf(counts, clone.chunks.length);
+		clone.chunkCount = chunkCount;
+		clone.size = size;
+		clone.rebuildTree();
+		return clone;
+	}
+
+	@Override
+	public void forEach(Consumer<? super E> action) {
+		if (action == null) {
+			throw new NullPointerException("Null action parameter: " + action);
+		}
+		final int expectedModCount = modCount;
+		for (int k = 0; k < chunkCount; k++) {
+			final Object[] chunk = chunks[k];
+			for (int i = 0, n = counts[k]; i < n; i++) {
+				action.accept(elementOf(chunk[i]));
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	@Override
+	public E get(int index) {
+		checkIndex(index);
+		locate(index);
+		return elementOf(chunks[locatedChunk][locatedOffset]);
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			/**
+			 * The chunk of the next element.
+			 */
+			private int chunk;
+
+			/**
+			 * The offset of the next element within {@link #chunk}.
+			 */
+			private int offset;
+
+			/**
+			 * The index of the next element.
+			 */
+			private int cursor;
+
+			/**
+			 * The index of the last element returned, or {@code -1} if there is none.
+			 */
+			private int lastReturned = -1;
+
+			/**
+			 * The value of {@link #modCount} that this iterator expects.
+			 */
+			private int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < size;
+			}
+
+			@Override
+			public E next() {
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				if (cursor >= size) {
+					throw new NoSuchElementException();
+				}
+				while (offset >= counts[chunk]) {
+					chunk++;
+					offset = 0;
+				}
+				lastReturned = cursor++;
+				return elementOf(chunks[chunk][offset++]);
+			}
+
+			@Override
+			public void remove() {
+				if (lastReturned < 0) {
+					throw new IllegalStateException();
+				}
+				if (modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				ChunkedArrayList.this.remove(lastReturned);
+				cursor = lastReturned;
+				lastReturned = -1;
+				expectedModCount = modCount;
+				if (cursor < size) {
+					locate(cursor);
+					chunk = locatedChunk;
+					offset = locatedOffset;
+				}
+			}
+		};
+	}
+
+	@Override
+	public E remove(int index) {
+		checkIndex(index);
+		locate(index);
+		final int k = locatedChunk;
+		final int offset = locatedOffset;
+		final Object[] chunk = chunks[k];
+		final E previous = elementOf(chunk[offset]);
+		System.arraycopy(chunk, offset + 1, chunk, offset, counts[k] - offset - 1);
+		chunk[--counts[k]] = null;
+		size--;
+		modCount++;
+		if (counts[k] == 0) {
+			removeChunks(k, k + 1);
+		} else if (k + 1 < chunkCount && counts[k] + counts[k + 1] <= MAX_CHUNK / 2) {
+			mergeWithNext(k);
+		} else if (k > 0 && counts[k - 1] + counts[k] <= MAX_CHUNK / 2) {
+			mergeWithNext(k - 1);
+		} else {
+			treeAdd(k, -1);
+		}
+		return previous;
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex < 0) {
+			throw new IndexOutOfBoundsException("Negative fromIndex parameter: " + fromIndex);
+		}
+		if (toIndex > size) {
+			throw new IndexOutOfBoundsException("toIndex parameter (" + toIndex
+					+ ") cannot exceed size (" + size + ").");
+		}
+		if (toIndex < fromIndex) {
+			throw new IndexOutOfBoundsException("fromIndex parameter (" + fromIndex
+					+ ") cannot exceed toIndex parameter (" + toIndex + ").");
+		}
+		if (fromIndex == toIndex) {
+			return;
+		}
+		locate(fromIndex);
+		final int first = locatedChunk;
+		final int firstOffset = locatedOffset;
+		locate(toIndex - 1);
+		final int last = locatedChunk;
+		final int lastEnd = locatedOffset + 1;
+		// Keep what precedes the range in the first chunk and what follows it in the last.
+		final int kept = firstOffset + counts[last] - lastEnd;
+		final Object[] merged = new Object[kept];
+		System.arraycopy(chunks[first], 0, merged, 0, firstOffset);
+		System.arraycopy(chunks[last], lastEnd, merged, firstOffset, counts[last] - lastEnd);
+		replaceChunks(first, last + 1, merged, 0, kept);
+		modCount++;
+	}
+
+	@Override
+	public E set(int index, E element) {
+		checkIndex(index);
+		locate(index);
+		final Object[] chunk = chunks[locatedChunk];
+		final E previous = elementOf(chunk[locatedOffset]);
+		chunk[locatedOffset] = element;
+		return previous;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Object[] toArray() {
+		final Object[] a = new Object[size];
+		int i = 0;
+		for (int k = 0; k < chunkCount; k++) {
+			System.arraycopy(chunks[k], 0, a, i, counts[k]);
+			i += counts[k];
+		}
+		return a;
+	}
+
+	/**
+	 * Find the chunk containing the specified index, and the index's offset within it,
+	 * storing them in {@link #locatedChunk} and {@link #locatedOffset}.
+	 *
+	 * @param index  a nonnegative integer less than {@link #size}
+	 */
+	private void locate(int index) {
+		final int lastStart = size - counts[chunkCount - 1];
+		if (index >= lastStart) {
+			locatedChunk = chunkCount - 1;
+			locatedOffset = index - lastStart;
+			return;
+		}
+		int position = 0;
+		int remaining = index;
+		for (int step = Integer.highestOneBit(chunkCount); step > 0; step >>= 1) {
+			final int next = position + step;
+			if (next <= chunkCount && tree[next] <= remaining) {
+				position = next;
+				remaining -= tree[next];
+			}
+		}
+		locatedChunk = position;
+		locatedOffset = remaining;
+	}
+
+	/**
+	 * Insert the specified element at the specified offset of the specified chunk, which is
+	 * not full, growing the chunk's array if needed. The Fenwick tree is not updated.
+	 *
+	 * @param k        the chunk
+	 * @param offset   the offset at which to insert the element
+	 * @param element  the element to insert
+	 */
+	private void insertInChunk(int k, int offset, Object element) {
+		Object[] chunk = chunks[k];
+		final int count = counts[k];
+		if (count == chunk.length) {
+			chunk = chunks[k] = Arrays.copyOf(chunk, Math.min(MAX_CHUNK, count * 2));
+		}
+		System.arraycopy(chunk, offset, chunk, offset + 1, count - offset);
+		chunk[offset] = element;
+		counts[k] = count + 1;
+	}
+
+	/**
+	 * Split the specified full chunk into two halves.
+	 *
+	 * @param k  the chunk to split
+	 */
+	private void splitChunk(int k) {
+		final Object[] chunk = chunks[k];
+		final int half = counts[k] / 2;
+		final Object[] upper = Arrays.copyOfRange(chunk, half, MAX_CHUNK);
+		Arrays.fill(chunk, half, counts[k], null);
+		final int upperCount = counts[k] - half;
+		counts[k] = half;
+		insertChunk(k + 1, upper, upperCount);
+		rebuildTree();
+	}
+
+	/**
+	 * Merge the specified chunk with the next one, whose elements fit in a single chunk.
+	 *
+	 * @param k  the chunk to merge with the next one
+	 */
+	private void mergeWithNext(int k) {
+		final int count = counts[k] + counts[k + 1];
+		final Object[] merged = Arrays.copyOf(chunks[k], Math.max(count, Math.min(MAX_CHUNK, count * 2)));
+		System.arraycopy(chunks[k + 1], 0, merged, counts[k], counts[k + 1]);
+		chunks[k] = merged;
+		counts[k] = count;
+		removeChunks(k + 1, k + 2);
+	}
+
+	/**
+	 * Make room for, and store, a new chunk at the specified position.
+	 * <p>
+	 * If the chunk is appended, the Fenwick tree is extended; otherwise, the caller must
+	 * rebuild it.
+	 *
+	 * @param k      the position of the new chunk
+	 * @param chunk  the new chunk's array
+	 * @param count  the number of elements in the new chunk
+	 */
+	private void insertChunk(int k, Object[] chunk, int count) {
+		if (chunkCount == chunks.length) {
+			final int capacity = chunkCount + (chunkCount >> 1) + 1;
+			chunks = Arrays.copyOf(chunks, capacity);
+			counts = Arrays.copyOf(counts, capacity);
+			tree = Arrays.copyOf(tree, capacity + 1);
+		}
+		System.arraycopy(chunks, k, chunks, k + 1, chunkCount - k);
+		System.arraycopy(counts, k, counts, k + 1, chunkCount - k);
+		chunks[k] = chunk;
+		counts[k] = count;
+		chunkCount++;
+		if (k == chunkCount - 1) {
+			// tree[j] covers counts[j - (j & -j)] through counts[j - 1].
+			final int j = chunkCount;
+			tree[j] = count + prefix(j - 1) - prefix(j - (j & -j));
+		}
+	}
+
+	/**
+	 * Remove the chunks in the specified range, and rebuild the Fenwick tree.
+	 *
+	 * @param from  the first chunk to remove
+	 * @param to    the chunk after the last one to remove
+	 */
+	private void removeChunks(int from, int to) {
+		System.arraycopy(chunks, to, chunks, from, chunkCount - to);
+		System.arraycopy(counts, to, counts, from, chunkCount - to);
+		Arrays.fill(chunks, chunkCount - (to - from), chunkCount, null);
+		chunkCount -= to - from;
+		rebuildTree();
+	}
+
+	/**
+	 * Replace the chunks in the specified range with new chunks holding a range of the
+	 * specified array, each filled to {@link #FILL} elements, and rebuild the Fenwick tree.
+	 * <p>
+	 * {@link #size} is updated by the difference between the number of new elements and the
+	 * number of replaced ones.
+	 *
+	 * @param from      the first chunk to replace
+	 * @param to        the chunk after the last one to replace
+	 * @param a         the array holding the new chunks' elements
+	 * @param offset    the index in the array of the first element
+	 * @param length    the number of elements
+	 */
+	private void replaceChunks(int from, int to, Object[] a, int offset, int length) {
+		int replaced = 0;
+		for (int k = from; k < to; k++) {
+			replaced += counts[k];
+		}
+		final int n = (length + FILL - 1) / FILL;
+		final int newChunkCount = chunkCount - (to - from) + n;
+		if (newChunkCount > chunks.length) {
+			final int capacity = Math.max(newChunkCount, chunkCount + (chunkCount >> 1) + 1);
+			chunks = Arrays.copyOf(chunks, capacity);
+			counts = Arrays.copyOf(counts, capacity);
+		}
+		System.arraycopy(chunks, to, chunks, from + n, chunkCount - to);
+		System.arraycopy(counts, to, counts, from + n, chunkCount - to);
+		if (newChunkCount < chunkCount) {
+			Arrays.fill(chunks, newChunkCount, chunkCount, null);
+		}
+		for (int i = 0; i < n; i++) {
+			final int start = offset + i * FILL;
+			final int count = Math.min(FILL, offset + length - start);
+			chunks[from + i] = newChunk(a, start, count);
+			counts[from + i] = count;
+		}
+		chunkCount = newChunkCount;
+		size += length - replaced;
+		rebuildTree();
+	}
+
+	/**
+	 * Returns a new chunk's array, with room for {@link #MAX_CHUNK} elements, holding a range
+	 * of the specified array.
+	 * <p>
+	 * Only the range is copied, so that the new chunk does not keep any other element of the
+	 * array reachable.
+	 *
+	 * @param a      the array holding the new chunk's elements
+	 * @param from   the index in the array of the first element
+	 * @param count  the number of elements
+	 * @return a new array of length {@link #MAX_CHUNK}
+	 */
+	private static Object[] newChunk(Object[] a, int from, int count) {
+		final Object[] chunk = new Object[MAX_CHUNK];
+		System.arraycopy(a, from, chunk, 0, count);
+		return chunk;
+	}
+
+	/**
+	 * Rebuild the Fenwick tree from {@link #counts} in linear time.
+	 * <p>
+	 * The tree is also reallocated if {@link #chunks} was replaced by an array of another
+	 * length, since {@link #insertChunk} only grows the tree along with {@link #chunks}.
+	 */
+	private void rebuildTree() {
+		if (tree.length != chunks.length + 1) {
+			tree = new int[chunks.length + 1];
+		}
+		for (int j = 1; j <= chunkCount; j++) {
+			tree[j] = counts[j - 1];
+		}
+		for (int j = 1; j <= chunkCount; j++) {
+			final int parent = j + (j & -j);
+			if (parent <= chunkCount) {
+				tree[parent] += tree[j];
+			}
+		}
+	}
+
+	/**
+	 * Add the specified amount to the specified chunk's entry in the Fenwick tree.
+	 *
+	 * @param k      the chunk
+	 * @param delta  the change in the chunk's size
+	 */
+	private void treeAdd(int k, int delta) {
+		for (int j = k + 1; j <= chunkCount; j += j & -j) {
+			tree[j] += delta;
+		}
+	}
+
+	/**
+	 * Returns the number of elements in the specified number of leading chunks.
+	 *
+	 * @param k  the number of chunks
+	 * @return the sum of {@code counts[0]} through {@code counts[k - 1]}
+	 */
+	private int prefix(int k) {
+		int sum = 0;
+		for (int j = k; j > 0; j -= j & -j) {
+			sum += tree[j];
+		}
+		return sum;
+	}
+
+	/**
+	 * Throws an exception unless the specified index refers to an element.
+	 *
+	 * @param index  the index to check
+	 *
+	 * @throws IndexOutOfBoundsException if the index is negative or not less than
+	 *                                   {@link #size()}
+	 */
+	private void checkIndex(int index) {
+		if (index < 0) {
+			throw new IndexOutOfBoundsException("Negative index parameter: " + index);
+		}
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("index parameter (" + index
+					+ ") must be less than size (" + size + ").");
+		}
+	}
+
+	/**
+	 * Throws an exception unless the specified index is a position at which elements can be
+	 * inserted.
+	 *
+	 * @param index  the index to check
+	 *
+	 * @throws IndexOutOfBoundsException if the index is negative or greater than
+	 *                                   {@link #size()}
+	 */
+	private void checkPosition(int index) {
+		if (index < 0) {
+			throw new IndexOutOfBoundsException("Negative index parameter: " + index);
+		}
+		if (index > size) {
+			throw new IndexOutOfBoundsException("index parameter (" + index
+					+ ") cannot exceed size (" + size + ").");
+		}
+	}
+
+	/**
+	 * Returns the parameter, cast to this list's element type.
+	 *
+	 * @param e  an element of this list
+	 * @return the parameter
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> E elementOf(Object e) {
+		return (E) e;
+	}
+
+	/**
+	 * The entry point for this class to be run from the command line.
+	 * 
+	 * @param args the string array passed from the command line
+	 */
+	public static void main(String[] args) {
+		final int n = 2_000_000;
+		final int inserts = 100_000;
+		final Random random = new Random(0);
+		final List<Integer> chunked = new ChunkedArrayList<>();
+		for (int i = 0; i < n; i++) {
+			chunked.add(i);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < inserts; i++) {
+			chunked.add(random.nextInt(chunked.size() + 1), -i);
+		}
+		System.out.println(inserts + " random inserts into " + n + " elements: "
+				+ (System.nanoTime() - start) / 1_000_000 + " ms");
+		final int[] indices = random.ints(inserts, 0, n + 1).sorted().toArray();
+		final Integer[] elements = new Integer[inserts];
+		Arrays.fill(elements, -1);
+		start = System.nanoTime();
+		((ChunkedArrayList<Integer>) chunked).insertAll(indices, Arrays.asList(elements));
+		System.out.println(inserts + " sorted inserts in one merge: "
+				+ (System.nanoTime() - start) / 1_000_000 + " ms");
+	}
+
+}
@@ -0,0 +1,931 @@
+package vgp.list;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import vgp.clone.CloneableBase;
+
+/**
+ * A thread-safe, random-access list that uses lazy evaluation to postpone its write
+ * requests, like {@link LazyRAMList}.
+ * <p>
+ * Any number of threads may enqueue write requests via {@link #add(Object)},
+ * {@link #add(int, Object)}, {@link #addAll(Collection)}, {@link #addAll(int, Collection)},
+ * and {@link #clear()} at the same time. Those write requests are enqueued on a lock-free
+ * queue, so producers never block one another or any reader.
+ * <p>
+ * When a read request is made, the thread making it takes this list's write lock, empties
+ * the queue, and applies each change in the order in which it was enqueued. If nothing is
+ * enqueued, {@link #get(int)}, {@link #size()}, and {@link #isEmpty()} are answered with an
+ * optimistic read, which takes no lock at all; other read requests share a read lock.
+ * <p>
+ * Write requests that must return information about this list's elements, such as
+ * {@link #set(int, Object)} and {@link #remove(int)}, are applied immediately, under the
+ * write lock.
+ * <p>
+ * {@link #iterator()} and {@link #listIterator()} are weakly consistent: they traverse a
+ * copy of this list's elements taken when they are created, so they never throw
+ * {@link java.util.ConcurrentModificationException}, and changes made afterward other than
+ * through them do not show. Their {@code remove}, {@code set}, and {@code add} requests are
+ * applied to this list under the write lock, where the element last returned is found; if a
+ * concurrent change moved that element, it is looked for by identity, and if it is no longer
+ * in this list, {@code remove} and {@code set} leave this list unchanged.
+ * <p>
+ * {@link #subList(int, int)} returns a view whose requests go through this list's methods,
+ * so that writing to it takes the write lock or enqueues a change just like writing to this
+ * list does. Its indices are offsets into this list's current elements, and its size only
+ * follows the changes made through it. Its iterators are weakly consistent too.
+ * <p>
+ * <em>
+ * It should be stressed that parameter validations dependent on information about this
+ * list's elements are postponed until changes' dequeuement.
+ * This means that whether an index parameter is out-of-bounds is calculated when the change
+ * queue is being emptied, which may happen on a thread other than the one that enqueued the
+ * change.
+ * (However, if said index is negative, that validation is not postponed.)
+ * </em>
+ *
+ * @author [...]
+ * @version 2.5
+ * @param <E> a type shared by each element in this list
+ * @since 2.5
+ */
+public class ConcurrentLazyRAMList<E> extends AbstractList<E> implements RandomAccess, CloneableBase {
+
+	/**
+	 * A write request waiting in a {@link ConcurrentLazyRAMList}'s change queue.
+	 *
+	 * @version 2.5
+	 * @since 2.5
+	 */
+	private static final class Change {
+
+		/**
+		 * Appends {@link #elements} to the end of the list.
+		 */
+		static final int APPEND = 0;
+
+		/**
+		 * Inserts {@link #elements} at {@link #index}.
+		 */
+		static final int INSERT = 1;
+
+		/**
+		 * Removes every element.
+		 */
+		static final int CLEAR = 2;
+
+		/**
+		 * One of the constants declared above.
+		 */
+		final int kind;
+
+		/**
+		 * Where to insert {@link #elements}, if {@link #kind} is {@link #INSERT}.
+		 */
+		final int index;
+
+		/**
+		 * The elements to append or insert.
+		 */
+		final Object[] elements;
+
+		/**
+		 * Constructs a new {@code Change} with the specified characteristics.
+		 *
+		 * @param kind      one of the constants declared above
+		 * @param index     where to insert the elements, if inserting
+		 * @param elements  the elements to append or insert, if appending or inserting
+		 */
+		Change(int kind, int index, Object[] elements) {
+			this.kind = kind;
+			this.index = index;
+			this.elements = elements;
+		}
+	}
+
+	/**
+	 * A weakly consistent iterator over a copy of part of a {@link ConcurrentLazyRAMList},
+	 * which applies its write requests to the list as well as to the copy.
+	 *
+	 * @version 2.5
+	 * @since 2.5
+	 */
+	private final class Itr implements ListIterator<E> {
+
+		/**
+		 * The view being iterated over, or {@code null} if it is the list itself.
+		 */
+		private final SubList view;
+
+		/**
+		 * The index in the list of the copy's first element.
+		 */
+		private final int offset;
+
+		/**
+		 * The copy, which this iterator's write requests also modify.
+		 */
+		private final List<E> copy;
+
+		/**
+		 * The index in {@link #copy} of the next element to return.
+		 */
+		private int cursor;
+
+		/**
+		 * The index in {@link #copy} of the element last returned, or {@code -1} if there is
+		 * none.
+		 */
+		private int lastReturned = -1;
+
+		/**
+		 * Constructs a new {@code Itr}.
+		 *
+		 * @param view      the view being iterated over, or {@code null}
+		 * @param offset    the index in the list of the first element of the copy
+		 * @param elements  a copy of the elements being iterated over
+		 * @param index     the index of the first element to return
+		 *
+		 * @throws IndexOutOfBoundsException if the index is out-of-bounds
+		 */
+		@SuppressWarnings("unchecked")
+		Itr(SubList view, int offset, Object[] elements, int index) {
+			Objects.checkIndex(index, elements.length + 1);
+			this.view = view;
+			this.offset = offset;
+			this.copy = new ArrayList<>((List<E>) Arrays.asList(elements));
+			this.cursor = index;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return cursor < copy.size();
+		}
+
+		@Override
+		public E next() {
+			if (cursor >= copy.size()) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = cursor;
+			return copy.get(cursor++);
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return cursor > 0;
+		}
+
+		@Override
+		public E previous() {
+			if (cursor <= 0) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = --cursor;
+			return copy.get(cursor);
+		}
+
+		@Override
+		public int nextIndex() {
+			return cursor;
+		}
+
+		@Override
+		public int previousIndex() {
+			return cursor - 1;
+		}
+
+		@Override
+		public void remove() {
+			if (lastReturned < 0) {
+				throw new IllegalStateException();
+			}
+			final E e = copy.remove(lastReturned);
+			if (lastReturned < cursor) {
+				cursor--;
+			}
+			final boolean found = replaceSame(offset + lastReturned, e, null, true);
+			lastReturned = -1;
+			if (found && view != null) {
+				view.updateSize(-1);
+			}
+		}
+
+		@Override
+		public void set(E e) {
+			if (lastReturned < 0) {
+				throw new IllegalStateException();
+			}
+			final E old = copy.set(lastReturned, e);
+			replaceSame(offset + lastReturned, old, e, false);
+		}
+
+		@Override
+		public void add(E e) {
+			ConcurrentLazyRAMList.this.add(offset + cursor, e);
+			copy.add(cursor++, e);
+			lastReturned = -1;
+			if (view != null) {
+				view.updateSize(1);
+			}
+		}
+	}
+
+	/**
+	 * A view of part of a {@link ConcurrentLazyRAMList}, which hands every request over to
+	 * the list's own methods.
+	 *
+	 * @version 2.5
+	 * @since 2.5
+	 */
+	private final class SubList extends AbstractList<E> implements RandomAccess {
+
+		/**
+		 * The view that this view is part of, or {@code null} if it is part of the list.
+		 */
+		private final SubList parent;
+
+		/**
+		 * The index in the list of this view's first element.
+		 */
+		private final int offset;
+
+		/**
+		 * The number of elements in this view.
+		 */
+		private int size;
+
+		/**
+		 * Constructs a new {@code SubList}.
+		 *
+		 * @param parent  the view that this view is part of, or {@code null}
+		 * @param offset  the index in the list of this view's first element
+		 * @param size    the number of elements in this view
+		 */
+		SubList(SubList parent, int offset, int size) {
+			super();
+			this.parent = parent;
+			this.offset = offset;
+			this.size = size;
+		}
+
+		@Override
+		public void add(int index, E element) {
+			Objects.checkIndex(index, size + 1);
+			ConcurrentLazyRAMList.this.add(offset + index, element);
+			updateSize(1);
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends E> c) {
+			return addAll(size, c);
+		}
+
+		@Override
+		public boolean addAll(int index, Collection<? extends E> c) {
+			Objects.checkIndex(index, size + 1);
+			final int count = c.size();
+			if (count == 0) {
+				return false;
+			}
+			ConcurrentLazyRAMList.this.addAll(offset + index, c);
+			updateSize(count);
+			return true;
+		}
+
+		@Override
+		public E get(int index) {
+			Objects.checkIndex(index, size);
+			return ConcurrentLazyRAMList.this.get(offset + index);
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			return listIterator(0);
+		}
+
+		@Override
+		public ListIterator<E> listIterator(int index) {
+			return new Itr(this, offset, copyOfRange(offset, offset + size), index);
+		}
+
+		@Override
+		public E remove(int index) {
+			Objects.checkIndex(index, size);
+			final E e = ConcurrentLazyRAMList.this.remove(offset + index);
+			updateSize(-1);
+			return e;
+		}
+
+		@Override
+		protected void removeRange(int fromIndex, int toIndex) {
+			ConcurrentLazyRAMList.this.removeRange(offset + fromIndex, offset + toIndex);
+			updateSize(fromIndex - toIndex);
+		}
+
+		@Override
+		public E set(int index, E element) {
+			Objects.checkIndex(index, size);
+			return ConcurrentLazyRAMList.this.set(offset + index, element);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public List<E> subList(int fromIndex, int toIndex) {
+			Objects.checkFromToIndex(fromIndex, toIndex, size);
+			return new SubList(this, offset + fromIndex, toIndex - fromIndex);
+		}
+
+		/**
+		 * Catches this view and every view that it is part of up with a change in size made
+		 * through it.
+		 *
+		 * @param delta  the change in the number of elements
+		 */
+		void updateSize(int delta) {
+			SubList view = this;
+			do {
+				view.size += delta;
+				view = view.parent;
+			} while (view != null);
+		}
+	}
+
+	/**
+	 * The default capacity of {@link #elements}.
+	 */
+	private static final int DEFAULT_CAPACITY = 10;
+
+	/**
+	 * This list's collection of write requests, which producers enqueue without locking.
+	 * <p>
+	 * Only a thread holding {@link #lock}'s write lock may dequeue from this queue.
+	 * <p>
+	 * Do not create a getter method for this field.
+	 */
+	private final ConcurrentLinkedQueue<Change> changes = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Guards {@link #elements} and {@link #size}.
+	 */
+	private final StampedLock lock = new StampedLock();
+
+	/**
+	 * This list's applied elements, of which only the first {@link #size} are used.
+	 */
+	private Object[] elements;
+
+	/**
+	 * The number of applied elements.
+	 */
+	private int size;
+
+	/**
+	 * Constructs a new, empty {@code ConcurrentLazyRAMList}.
+	 */
+	public ConcurrentLazyRAMList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs a new {@code ConcurrentLazyRAMList} whose
+	 * initial elements are copied from the parameter.
+	 *
+	 * @param c  the collection to clone
+	 *
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	public ConcurrentLazyRAMList(Collection<? extends E> c) {
+		super();
+		if (c == null) {
+			throw new NullPointerException("Null collection parameter: " + c);
+		}
+		elements = c.toArray();
+		if (elements.getClass() != Object[].class) {
+			elements = Arrays.copyOf(elements, elements.length, Object[].class);
+		}
+		size = elements.length;
+	}
+
+	/**
+	 * Constructs a new, empty {@code ConcurrentLazyRAMList}
+	 * with the specified initial capacity.
+	 *
+	 * @param initialCapacity  a nonnegative integer
+	 *
+	 * @throws IllegalArgumentException if the parameter is negative
+	 */
+	public ConcurrentLazyRAMList(int initialCapacity) {
+		super();
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("Negative initialCapacity parameter: " + initialCapacity);
+		}
+		elements = new Object[initialCapacity];
+	}
+
+	@Override
+	public boolean add(E e) {
+		changes.offer(new Change(Change.APPEND, 0, new Object[] { e }));
+		return true;
+	}
+
+	@Override
+	public void add(int index, E element) {
+		if (index < 0) {
+			throw new IndexOutOfBoundsException("Negative index parameter: " + index);
+		}
+		changes.offer(new Change(Change.INSERT, index, new Object[] { element }));
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		if (c == null) {
+			throw new NullPointerException("Null collection parameter: " + c);
+		}
+		final Object[] a = c.toArray();
+		if (a.length == 0) {
+			return false;
+		}
+		changes.offer(new Change(Change.APPEND, 0, a));
+		return true;
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		if (index < 0) {
+			throw new IndexOutOfBoundsException("Negative index parameter: " + index);
+		}
+		if (c == null) {
+			throw new NullPointerException("Null collection parameter: " + c);
+		}
+		// Even an empty collection is enqueued, so that the index is still validated.
+		final Object[] a = c.toArray();
+		changes.offer(new Change(Change.INSERT, index, a));
+		return a.length != 0;
+	}
+
+	/**
+	 * Empty this list's change queue, and then apply each dequeued change in order.
+	 * <p>
+	 * The calling thread must hold {@link #lock}'s write lock.
+	 */
+	private void applyChanges() {
+		Change change;
+		while ((change = changes.poll()) != null) {
+			switch (change.kind) {
+			case Change.APPEND:
+				final int appended = change.elements.length;
+				ensureCapacityInternal(size + appended);
+				System.arraycopy(change.elements, 0, elements, size, appended);
+				size += appended;
+				modCount++;
+				break;
+			case Change.INSERT:
+				final int index = change.index;
+				final int count = change.elements.length;
+				if (index > size) {
+					throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+				}
+				ensureCapacityInternal(size + count);
+				System.arraycopy(elements, index, elements, index + count, size - index);
+				System.arraycopy(change.elements, 0, elements, index, count);
+				size += count;
+				modCount++;
+				break;
+			default:
+				Arrays.fill(elements, 0, size, null);
+				size = 0;
+				modCount++;
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Grow {@link #elements}, if necessary, to hold at least the specified number of
+	 * elements.
+	 * <p>
+	 * The calling thread must hold {@link #lock}'s write lock.
+	 *
+	 * @param minCapacity  the desired minimum capacity
+	 */
+	private void ensureCapacityInternal(int minCapacity) {
+		if (minCapacity < 0) {
+			throw new OutOfMemoryError("Required array length is too large");
+		}
+		if (minCapacity > elements.length) {
+			final int grown = elements.length + (elements.length >> 1);
+			elements = Arrays.copyOf(elements, grown - minCapacity > 0 ? grown : minCapacity);
+		}
+	}
+
+	/**
+	 * Acquire {@link #lock}'s write lock, and then empty this list's change queue.
+	 *
+	 * @return the write stamp, which the caller must pass to
+	 *         {@link StampedLock#unlockWrite(long)}
+	 */
+	private long writeLockApplied() {
+		final long stamp = lock.writeLock();
+		try {
+			applyChanges();
+		} catch (RuntimeException | Error e) {
+			lock.unlockWrite(stamp);
+			throw e;
+		}
+		return stamp;
+	}
+
+	/**
+	 * Acquire {@link #lock}'s read lock, emptying this list's change queue first if it is
+	 * not already empty.
+	 *
+	 * @return the read stamp, which the caller must pass to
+	 *         {@link StampedLock#unlockRead(long)}
+	 */
+	private long readLockApplied() {
+		if (changes.isEmpty()) {
+			return lock.readLock();
+		}
+		// Converting a write stamp into a read stamp never fails.
+		return lock.tryConvertToReadLock(writeLockApplied());
+	}
+
+	@Override
+	public void clear() {
+		changes.offer(new Change(Change.CLEAR, 0, null));
+	}
+
+	@Override
+	public ConcurrentLazyRAMList<E> clone() {
+		final long stamp = readLockApplied();
+		try {
+			final ConcurrentLazyRAMList<E> clone = new ConcurrentLazyRAMList<>(0);
+			clone.elements = Arrays.copyOf(elements, size);
+			clone.size = size;
+			return clone;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		if (changes.isEmpty()) {
+			final long stamp = lock.tryOptimisticRead();
+			final Object[] a = elements;
+			final int n = size;
+			final Object e = index >= 0 && index < n && index < a.length ? a[index] : null;
+			if (lock.validate(stamp)) {
+				Objects.checkIndex(index, n);
+				return (E) e;
+			}
+		}
+		final long stamp = readLockApplied();
+		try {
+			Objects.checkIndex(index, size);
+			return (E) elements[index];
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		final long stamp = readLockApplied();
+		try {
+			for (int i = 0; i < size; i++) {
+				if (Objects.equals(o, elements[i])) {
+					return i;
+				}
+			}
+			return -1;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Returns a weakly consistent iterator over a copy of this list's elements, whose
+	 * {@code remove} request is applied to this list.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return listIterator(0);
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		final long stamp = readLockApplied();
+		try {
+			for (int i = size - 1; i >= 0; i--) {
+				if (Objects.equals(o, elements[i])) {
+					return i;
+				}
+			}
+			return -1;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns a weakly consistent list iterator over a copy of this list's elements, whose
+	 * write requests are applied to this list.
+	 */
+	@Override
+	public ListIterator<E> listIterator(int index) {
+		return new Itr(null, 0, copyOfRange(0, -1), index);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E remove(int index) {
+		final long stamp = writeLockApplied();
+		try {
+			Objects.checkIndex(index, size);
+			final E removed = (E) elements[index];
+			System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+			elements[--size] = null;
+			modCount++;
+			return removed;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		final long stamp = writeLockApplied();
+		try {
+			for (int i = 0; i < size; i++) {
+				if (Objects.equals(o, elements[i])) {
+					System.arraycopy(elements, i + 1, elements, i, size - i - 1);
+					elements[--size] = null;
+					modCount++;
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		final long stamp = writeLockApplied();
+		try {
+			Objects.checkFromToIndex(fromIndex, toIndex, size);
+			if (fromIndex == toIndex) {
+				return;
+			}
+			System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+			final int newSize = size - (toIndex - fromIndex);
+			Arrays.fill(elements, newSize, size, null);
+			size = newSize;
+			modCount++;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		Objects.requireNonNull(c);
+		return removeIf(c::contains);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean removeIf(Predicate<? super E> filter) {
+		Objects.requireNonNull(filter);
+		final long stamp = writeLockApplied();
+		try {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				final Object e = elements[i];
+				if (!filter.test((E) e)) {
+					elements[kept++] = e;
+				}
+			}
+			if (kept == size) {
+				return false;
+			}
+			Arrays.fill(elements, kept, size, null);
+			size = kept;
+			modCount++;
+			return true;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void replaceAll(UnaryOperator<E> operator) {
+		Objects.requireNonNull(operator);
+		final long stamp = writeLockApplied();
+		try {
+			for (int i = 0; i < size; i++) {
+				elements[i] = operator.apply((E) elements[i]);
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		Objects.requireNonNull(c);
+		return removeIf(e -> !c.contains(e));
+	}
+
+	/**
+	 * Under the write lock, replace or remove the specified element, which is looked for at
+	 * the specified index first, and then by identity, from the closest indices outward.
+	 *
+	 * @param index        where the element is expected
+	 * @param e            the element to replace or remove
+	 * @param replacement  the element to replace it with, if not removing it
+	 * @param remove       whether to remove the element instead of replacing it
+	 * @return {@code true} if the element was found; {@code false} otherwise
+	 */
+	private boolean replaceSame(int index, Object e, Object replacement, boolean remove) {
+		final long stamp = writeLockApplied();
+		try {
+			int found = -1;
+			for (int d = 0; found < 0 && (index - d >= 0 || index + d < size); d++) {
+				if (index + d >= 0 && index + d < size && elements[index + d] == e) {
+					found = index + d;
+				} else if (index - d >= 0 && index - d < size && elements[index - d] == e) {
+					found = index - d;
+				}
+			}
+			if (found < 0) {
+				return false;
+			}
+			if (remove) {
+				System.arraycopy(elements, found + 1, elements, found, size - found - 1);
+				elements[--size] = null;
+				modCount++;
+			} else {
+				elements[found] = replacement;
+			}
+			return true;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E set(int index, E element) {
+		final long stamp = writeLockApplied();
+		try {
+			Objects.checkIndex(index, size);
+			final E old = (E) elements[index];
+			elements[index] = element;
+			return old;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public int size() {
+		if (changes.isEmpty()) {
+			final long stamp = lock.tryOptimisticRead();
+			final int n = size;
+			if (lock.validate(stamp)) {
+				return n;
+			}
+		}
+		final long stamp = readLockApplied();
+		try {
+			return size;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns a copy of the specified part of this list's elements, which ends early if this
+	 * list has shrunk below its end.
+	 *
+	 * @param fromIndex  the start of the part, inclusive
+	 * @param toIndex    the end of the part, exclusive, or {@code -1} for the end of this list
+	 * @return a new array
+	 */
+	private Object[] copyOfRange(int fromIndex, int toIndex) {
+		final long stamp = readLockApplied();
+		try {
+			final int end = toIndex < 0 ? size : Math.min(toIndex, size);
+			return Arrays.copyOfRange(elements, Math.min(fromIndex, end), end);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void sort(Comparator<? super E> c) {
+		final long stamp = writeLockApplied();
+		try {
+			Arrays.sort((E[]) elements, 0, size, c);
+			modCount++;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Returns a view of the specified part of this list, whose requests go through this
+	 * list's methods.
+	 */
+	@Override
+	public List<E> subList(int fromIndex, int toIndex) {
+		Objects.checkFromToIndex(fromIndex, toIndex, size());
+		return new SubList(null, fromIndex, toIndex - fromIndex);
+	}
+
+	@Override
+	public Object[] toArray() {
+		final long stamp = readLockApplied();
+		try {
+			return Arrays.copyOf(elements, size);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		final long stamp = readLockApplied();
+		try {
+			if (a.length < size) {
+				return (T[]) Arrays.copyOf(elements, size, a.getClass());
+			}
+			System.arraycopy(elements, 0, a, 0, size);
+			if (a.length > size) {
+				a[size] = null;
+			}
+			return a;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * The entry point for this class to be run from the command line.
+	 *
+	 * @param args the string array passed from the command line
+	 * @throws InterruptedException if interrupted while waiting for a producer thread
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		final ConcurrentLazyRAMList<Integer> list = new ConcurrentLazyRAMList<>();
+		final Thread[] producers = new Thread[4];
+		for (int t = 0; t < producers.length; t++) {
+			producers[t] = new Thread(() -> {
+				for (int i = 0; i < 100_000; i++) {
+					list.add(i);
+				}
+			});
+			producers[t].start();
+		}
+		for (Thread producer : producers) {
+			producer.join();
+		}
+		System.out.println(list.size());
+	}
+}
@@ -0,0 +1,77 @@
+package vgp.list;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A binary encoding of list elements, used by a {@link WriteAheadLog}.
+ * <p>
+ * An encoding must be self-delimiting: {@link #read} must consume exactly the bytes that
+ * {@link #write} produced.
+ *
+ * @author [...]
+ * @version 2.5
+ * @param <E> the type of element that this codec encodes
+ * @since 2.5
+ */
+public interface ElementCodec<E> {
+
+	/**
+	 * Writes the specified element.
+	 *
+	 * @param out  the output to write to
+	 * @param e    the element to write
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	void write(DataOutput out, E e) throws IOException;
+
+	/**
+	 * Reads an element written by {@link #write}.
+	 *
+	 * @param in  the input to read from
+	 * @return the element that was written
+	 *
+	 * @throws IOException if an I/O error occurs, or if the input is malformed
+	 */
+	E read(DataInput in) throws IOException;
+
+	/**
+	 * Returns a codec that writes each non-{@code null} {@code Integer} as 4 bytes.
+	 *
+	 * @return a codec that throws {@code NullPointerException} for {@code null} elements
+	 */
+	static ElementCodec<Integer> forIntegers() {
+		return StandardCodec.INTEGERS.cast();
+	}
+
+	/**
+	 * Returns a codec that writes each non-{@code null} {@code Long} as 8 bytes.
+	 *
+	 * @return a codec that throws {@code NullPointerException} for {@code null} elements
+	 */
+	static ElementCodec<Long> forLongs() {
+		return StandardCodec.LONGS.cast();
+	}
+
+	/**
+	 * Returns a codec that writes each non-{@code null} {@code Double} as 8 bytes.
+	 *
+	 * @return a codec that throws {@code NullPointerException} for {@code null} elements
+	 */
+	static ElementCodec<Double> forDoubles() {
+		return StandardCodec.DOUBLES.cast();
+	}
+
+	/**
+	 * Returns a codec that writes each non-{@code null} {@code String} as its length in
+	 * UTF-8 bytes, followed by those bytes.
+	 *
+	 * @return a codec that throws {@code NullPointerException} for {@code null} elements
+	 */
+	static ElementCodec<String> forStrings() {
+		return StandardCodec.STRINGS.cast();
+	}
+
+}
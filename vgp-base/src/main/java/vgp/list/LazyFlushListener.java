@@ -0,0 +1,30 @@
+package vgp.list;
+
+import java.util.EventListener;
+
+/**
+ * A listener that is notified each time a {@link LazyRAMList} empties its change queue.
+ * <p>
+ * Listeners are registered with a {@link LazyRAMListMetrics}, and are called on the thread
+ * that emptied the change queue, right after doing so. They should return quickly.
+ *
+ * @author [...]
+ * @version 2.5
+ * @since 2.5
+ */
+@FunctionalInterface
+public interface LazyFlushListener extends EventListener {
+
+	/**
+	 * Called after the specified list emptied its change queue.
+	 *
+	 * @param list           the list whose change queue was emptied
+	 * @param trigger        the name of the list method that caused the change queue to be
+	 *                       emptied, such as {@code "contains"}
+	 * @param changeCount    the number of changes that were applied, after coalescing
+	 * @param work           the number of changes plus the number of elements they carried
+	 * @param durationNanos  how long applying the changes took, in nanoseconds
+	 */
+	void changesApplied(LazyRAMList<?> list, String trigger, int changeCount, int work, long durationNanos);
+
+}
@@ -0,0 +1,124 @@
+package vgp.list;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When a {@link ScheduledLazyRAMList} empties its change queue without waiting for a read
+ * request.
+ * <p>
+ * The amount of work in a change queue is measured as the number of enqueued changes plus
+ * the number of elements they carry. A policy has three thresholds:
+ * <ol>
+ * <li>Once the work in a list's change queue reaches the <em>flush threshold</em>, the
+ *     queue is emptied on a background thread.
+ * <li>Once a list's change queue has gone without new changes for the <em>idle time</em>,
+ *     the queue is emptied on a background thread.
+ * <li>The work in a list's change queue never exceeds the <em>maximum read charge</em>:
+ *     a write request that would make it do so empties the queue itself. This bounds how
+ *     much work any single read request can be charged, even when the background thread
+ *     falls behind.
+ * </ol>
+ * <p>
+ * Objects of this class are immutable.
+ *
+ * @author [...]
+ * @version 2.5
+ * @since 2.5
+ */
+public final class LazyFlushPolicy implements Serializable {
+
+	/**
+	 * The {@code serialVersionUID} of this class, as specified by {@link Serializable}.
+	 */
+	private static final long serialVersionUID = -3315208137766029718L;
+
+	/**
+	 * The amount of work at which a change queue is emptied on a background thread.
+	 */
+	private final int flushThreshold;
+
+	/**
+	 * How long, in nanoseconds, a change queue may go without new changes before it is
+	 * emptied on a background thread.
+	 */
+	private final long idleNanos;
+
+	/**
+	 * The amount of work that a change queue never exceeds.
+	 */
+	private final int maxReadCharge;
+
+	/**
+	 * Constructs a new {@code LazyFlushPolicy} with the specified thresholds.
+	 *
+	 * @param flushThreshold  the amount of work at which to empty a change queue on a
+	 *                        background thread
+	 * @param idleTime        how long a change queue may go without new changes before it
+	 *                        is emptied on a background thread
+	 * @param unit            the unit of {@code idleTime}
+	 * @param maxReadCharge   the amount of work that a change queue never exceeds, which must
+	 *                        be at least {@code flushThreshold}
+	 *
+	 * @throws IllegalArgumentException if {@code flushThreshold} or {@code idleTime} is not
+	 *                                  positive, or if {@code maxReadCharge} is less than
+	 *                                  {@code flushThreshold}
+	 * @throws NullPointerException     if {@code unit} is {@code null}
+	 */
+	public LazyFlushPolicy(int flushThreshold, long idleTime, TimeUnit unit, int maxReadCharge) {
+		super();
+		if (flushThreshold <= 0) {
+			throw new IllegalArgumentException("Nonpositive flushThreshold parameter: " + flushThreshold);
+		}
+		if (idleTime <= 0) {
+			throw new IllegalArgumentException("Nonpositive idleTime parameter: " + idleTime);
+		}
+		if (unit == null) {
+			throw new NullPointerException("Null unit parameter: " + unit);
+		}
+		if (maxReadCharge < flushThreshold) {
+			throw new IllegalArgumentException("maxReadCharge parameter (" + maxReadCharge
+					+ ") cannot be less than flushThreshold parameter (" + flushThreshold + ").");
+		}
+		this.flushThreshold = flushThreshold;
+		this.idleNanos = unit.toNanos(idleTime);
+		this.maxReadCharge = maxReadCharge;
+	}
+
+	/**
+	 * Returns the amount of work at which a change queue is emptied on a background thread.
+	 *
+	 * @return a positive integer
+	 */
+	public int getFlushThreshold() {
+		return flushThreshold;
+	}
+
+	/**
+	 * Returns how long a change queue may go without new changes before it is emptied on a
+	 * background thread.
+	 *
+	 * @param unit  the unit of the returned value
+	 * @return a positive integer, unless the idle time is shorter than one {@code unit}
+	 *
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	public long getIdleTime(TimeUnit unit) {
+		return unit.convert(idleNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns the amount of work that a change queue never exceeds.
+	 *
+	 * @return a positive integer
+	 */
+	public int getMaxReadCharge() {
+		return maxReadCharge;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("LazyFlushPolicy [flushThreshold=%d, idleNanos=%d, maxReadCharge=%d]",
+				flushThreshold, idleNanos, maxReadCharge);
+	}
+}
@@ -0,0 +1,434 @@
+package vgp.list;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+import vgp.clone.CloneableBase;
+
+/**
+ * A random-access list of {@code long} values that uses lazy evaluation to postpone its
+ * write requests, like {@link LazyRAMList}, without boxing its elements or the values
+ * carried by its enqueued changes.
+ * <p>
+ * Elements are stored in a {@code long[]}, and each enqueued change is stored as a few
+ * {@code int}s in this list's change queue, plus the {@code long} values it carries.
+ * Adjacent changes are coalesced as they are enqueued, like in {@link LazyRAMList}:
+ * <ul>
+ * <li>consecutive appends are merged into one bulk append, and consecutive positional
+ *     inserts that continue one another are merged into one bulk insert;
+ * <li>{@link #removeRange} calls whose ranges overlap or touch are merged into one range,
+ *     and a range at the end of a pending append simply shortens it;
+ * <li>{@link #clear()} discards every change enqueued before it;
+ * <li>{@link #ensureCapacity} and {@link #trimToSize()} only record the capacity that this
+ *     list should have once its change queue is emptied.
+ * </ul>
+ * When the change queue is emptied, this list's capacity is grown at most once, to the
+ * largest size that the enqueued changes reach.
+ * <p>
+ * Unlike {@link LazyRAMList}, this list always knows its size, because none of its
+ * enqueued changes depends on its elements. Therefore, index parameters are validated when
+ * a change is enqueued, and {@link #size()} and {@link #isEmpty()} never empty the change
+ * queue. Neither do {@link #getLong(int)} and {@link #set(int, long)} when the specified
+ * index precedes every index that an enqueued change affects, or falls within a pending
+ * append at the end of this list.
+ * <p>
+ * Other read requests, such as {@link #toArray()} and {@link #stream()}, empty the change
+ * queue first.
+ *
+ * @author [...]
+ * @version 2.5
+ * @since 2.5
+ */
+public class LazyLongList extends LazyPrimitiveList implements CloneableBase {
+
+	/**
+	 * An empty array, shared by every list that has not allocated one yet.
+	 */
+	private static final long[] EMPTY = {};
+
+	/**
+	 * This list's applied elements, which occupy indices {@code 0} to
+	 * {@code appliedSize - 1}.
+	 */
+	private long[] elements;
+
+	/**
+	 * The values carried by the enqueued changes, in the order in which they were enqueued.
+	 */
+	private long[] values = EMPTY;
+
+	/**
+	 * Constructs a new, empty {@code LazyLongList}.
+	 */
+	public LazyLongList() {
+		super();
+		elements = EMPTY;
+	}
+
+	/**
+	 * Constructs a new, empty {@code LazyLongList} with the specified initial capacity.
+	 *
+	 * @param initialCapacity  the initial capacity of this list
+	 *
+	 * @throws IllegalArgumentException if the parameter is negative
+	 */
+	public LazyLongList(int initialCapacity) {
+		super();
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("Negative initialCapacity parameter: " + initialCapacity);
+		}
+		elements = initialCapacity == 0 ? EMPTY : new long[initialCapacity];
+	}
+
+	/**
+	 * Constructs a new {@code LazyLongList} containing the specified values, in order.
+	 *
+	 * @param a  the values to place in this list
+	 *
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	public LazyLongList(long[] a) {
+		super();
+		if (a == null) {
+			throw new NullPointerException("Null array parameter: " + a);
+		}
+		elements = a.length == 0 ? EMPTY : a.clone();
+		appliedSize = size = stablePrefix = peakSize = a.length;
+	}
+
+	/**
+	 * Appends the specified value to the end of this list.
+	 *
+	 * @param e  the value to append
+	 */
+	public void add(long e) {
+		reserveValues(1);
+		values[valueCount] = e;
+		enqueueInsert(size, 1);
+	}
+
+	/**
+	 * Inserts the specified value at the specified index, shifting the element currently at
+	 * that index (if any) and any subsequent elements to the right.
+	 *
+	 * @param index  the index at which to insert the value
+	 * @param e      the value to insert
+	 *
+	 * @throws IndexOutOfBoundsException if the index is negative or greater than
+	 *                                   {@link #size()}
+	 */
+	public void add(int index, long e) {
+		checkPosition(index);
+		reserveValues(1);
+		values[valueCount] = e;
+		enqueueInsert(index, 1);
+	}
+
+	/**
+	 * Appends the specified values to the end of this list, in order.
+	 * <p>
+	 * The values are copied when this change is enqueued.
+	 *
+	 * @param a  the values to append
+	 *
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	public void addAll(long[] a) {
+		if (a == null) {
+			throw new NullPointerException("Null array parameter: " + a);
+		}
+		addAll(size, a, 0, a.length);
+	}
+
+	/**
+	 * Inserts the specified values at the specified index, in order, shifting the element
+	 * currently at that index (if any) and any subsequent elements to the right.
+	 * <p>
+	 * The values are copied when this change is enqueued.
+	 *
+	 * @param index  the index at which to insert the first value
+	 * @param a      the values to insert
+	 *
+	 * @throws IndexOutOfBoundsException if the index is negative or greater than
+	 *                                   {@link #size()}
+	 * @throws NullPointerException      if the array is {@code null}
+	 */
+	public void addAll(int index, long[] a) {
+		if (a == null) {
+			throw new NullPointerException("Null array parameter: " + a);
+		}
+		addAll(index, a, 0, a.length);
+	}
+
+	/**
+	 * Inserts a range of the specified array at the specified index, in order, shifting the
+	 * element currently at that index (if any) and any subsequent elements to the right.
+	 * <p>
+	 * The values are copied when this change is enqueued.
+	 *
+	 * @param index   the index at which to insert the first value
+	 * @param a       the array containing the values to insert
+	 * @param offset  the index in the array of the first value to insert
+	 * @param count   the number of values to insert
+	 *
+	 * @throws IndexOutOfBoundsException if the index is negative or greater than
+	 *                                   {@link #size()}, or if the range is not within the
+	 *                                   array
+	 * @throws NullPointerException      if the array is {@code null}
+	 */
+	public void addAll(int index, long[] a, int offset, int count) {
+		checkPosition(index);
+		if (a == null) {
+			throw new NullPointerException("Null array parameter: " + a);
+		}
+		if (offset < 0 || count < 0 || count > a.length - offset) {
+			throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + count
+					+ ") out of bounds for array length " + a.length);
+		}
+		if (count == 0) {
+			return;
+		}
+		reserveValues(count);
+		System.arraycopy(a, offset, values, valueCount, count);
+		enqueueInsert(index, count);
+	}
+
+	/**
+	 * Returns the element at the specified index.
+	 * <p>
+	 * If the specified index precedes every index that an enqueued change affects, or falls
+	 * within a pending append at the end of this list, the change queue is not emptied.
+	 *
+	 * @param index  the index of the element to return
+	 * @return the element at that index
+	 *
+	 * @throws IndexOutOfBoundsException if the index is negative or not less than
+	 *                                   {@link #size()}
+	 */
+	public long getLong(int index) {
+		checkIndex(index);
+		if (index < stablePrefix) {
+			return elements[index];
+		}
+		final int tail = tailOffset(index);
+		if (tail >= 0) {
+			return values[tail];
+		}
+		applyChanges();
+		return elements[index];
+	}
+
+	/**
+	 * Replaces the element at the specified index with the specified value.
+	 * <p>
+	 * If the specified index precedes every index that an enqueued change affects, or falls
+	 * within a pending append at the end of this list, the change queue is not emptied.
+	 *
+	 * @param index  the index of the element to replace
+	 * @param e      the value to store at that index
+	 * @return the element previously at that index
+	 *
+	 * @throws IndexOutOfBoundsException if the index is negative or not less than
+	 *                                   {@link #size()}
+	 */
+	public long set(int index, long e) {
+		checkIndex(index);
+		final long previous;
+		if (index < stablePrefix) {
+			previous = elements[index];
+			elements[index] = e;
+			return previous;
+		}
+		final int tail = tailOffset(index);
+		if (tail >= 0) {
+			previous = values[tail];
+			values[tail] = e;
+			return previous;
+		}
+		applyChanges();
+		previous = elements[index];
+		elements[index] = e;
+		return previous;
+	}
+
+	/**
+	 * Copies a range of this list's elements into the specified array.
+	 *
+	 * @param fromIndex  the index of the first element to copy
+	 * @param dest       the destination array
+	 * @param destPos    the index in the destination array of the first copied element
+	 * @param count      the number of elements to copy
+	 *
+	 * @throws IndexOutOfBoundsException if either range is out-of-bounds
+	 * @throws NullPointerException      if the array is {@code null}
+	 */
+	public void getLongs(int fromIndex, long[] dest, int destPos, int count) {
+		if (dest == null) {
+			throw new NullPointerException("Null dest parameter: " + dest);
+		}
+		if (fromIndex < 0 || count < 0 || count > size - fromIndex) {
+			throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + fromIndex + " + " + count
+					+ ") out of bounds for length " + size);
+		}
+		if (fromIndex + count > stablePrefix) {
+			applyChanges();
+		}
+		System.arraycopy(elements, fromIndex, dest, destPos, count);
+	}
+
+	/**
+	 * Removes the element at the specified index, shifting any subsequent elements to the
+	 * left.
+	 * <p>
+	 * The removal itself is enqueued; only reading the removed element may empty the change
+	 * queue.
+	 *
+	 * @param index  the index of the element to remove
+	 * @return the element previously at that index
+	 *
+	 * @throws IndexOutOfBoundsException if the index is negative or not less than
+	 *                                   {@link #size()}
+	 */
+	public long removeAt(int index) {
+		final long previous = getLong(index);
+		removeRange(index, index + 1);
+		return previous;
+	}
+
+	/**
+	 * Returns a new array containing every element in this list, in order.
+	 *
+	 * @return a new array whose length is {@link #size()}
+	 */
+	public long[] toArray() {
+		applyChanges();
+		return Arrays.copyOf(elements, size);
+	}
+
+	/**
+	 * Returns a sequential stream of this list's elements.
+	 * <p>
+	 * The change queue is emptied when this method is called. The stream reads this list's
+	 * elements directly, so this list must not be modified while the stream is in use.
+	 *
+	 * @return a stream of this list's elements, in order
+	 */
+	public LongStream stream() {
+		applyChanges();
+		return Arrays.stream(elements, 0, size);
+	}
+
+	/**
+	 * Performs the specified action on each element in this list, in order.
+	 *
+	 * @param action  the action to perform
+	 *
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	public void forEach(LongConsumer action) {
+		if (action == null) {
+			throw new NullPointerException("Null action parameter: " + action);
+		}
+		applyChanges();
+		final long[] a = elements;
+		for (int i = 0, n = size; i < n; i++) {
+			action.accept(a[i]);
+		}
+	}
+
+	/**
+	 * Returns a deep copy of this list, whose change queue is empty.
+	 */
+	@Override
+	public LazyLongList clone() {
+		applyChanges();
+		return new LazyLongList(Arrays.copyOf(elements, size));
+	}
+
+	/**
+	 * Returns whether the specified object is a {@code LazyLongList} with the same
+	 * elements as this list, in the same order.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof LazyLongList)) {
+			return false;
+		}
+		final LazyLongList other = (LazyLongList) o;
+		if (size != other.size) {
+			return false;
+		}
+		applyChanges();
+		other.applyChanges();
+		return Arrays.equals(elements, 0, size, other.elements, 0, size);
+	}
+
+	/**
+	 * Returns a hash code computed like {@link java.util.List#hashCode()}, using
+	 * {@link Long#hashCode(long)} for each element.
+	 */
+	@Override
+	public int hashCode() {
+		applyChanges();
+		int hashCode = 1;
+		for (int i = 0; i < size; i++) {
+			hashCode = 31 * hashCode + Long.hashCode(elements[i]);
+		}
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		applyChanges();
+		final StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(elements[i]);
+		}
+		return sb.append(']').toString();
+	}
+
+	@Override
+	Object elementArray() {
+		return elements;
+	}
+
+	@Override
+	void resizeElements(int capacity) {
+		elements = capacity == 0 ? EMPTY : Arrays.copyOf(elements, capacity);
+	}
+
+	@Override
+	Object valueArray() {
+		return values;
+	}
+
+	@Override
+	void resizeValues(int capacity) {
+		values = capacity == 0 ? EMPTY : Arrays.copyOf(values, capacity);
+	}
+
+	/**
+	 * The entry point for this class to be run from the command line.
+	 * 
+	 * @param args the string array passed from the command line
+	 */
+	public static void main(String[] args) {
+		final LazyLongList list = new LazyLongList();
+		final long start = System.nanoTime();
+		for (int i = 0; i < 10_000_000; i++) {
+			list.add((long) i);
+		}
+		System.out.println("Sum: " + list.stream().sum() + ", time: "
+				+ (System.nanoTime() - start) / 1_000_000 + " ms");
+	}
+
+
+
+}
@@ -0,0 +1,438 @@
+package vgp.list;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ * The change queue shared by {@link LazyIntList}, {@link LazyLongList}, and
+ * {@link LazyDoubleList}, which does not depend on the type of their elements.
+ * <p>
+ * Each enqueued change is stored as {@link #STRIDE} {@code int}s, and the values it carries
+ * are stored in a primitive array held by the subclass. Since neither array is ever read
+ * here except through {@link System#arraycopy}, this class only needs the subclass to
+ * expose and resize its arrays.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author [...]
+ * @version 2.5
+ * @since 2.5
+ */
+abstract class LazyPrimitiveList {
+
+	/**
+	 * Appends {@code count} values, starting at {@code valueStart}, to the end of the list.
+	 */
+	private static final int APPEND = 0;
+
+	/**
+	 * Inserts {@code count} values, starting at {@code valueStart}, at {@code index}.
+	 */
+	private static final int INSERT = 1;
+
+	/**
+	 * Removes {@code count} elements, starting at {@code index}.
+	 */
+	private static final int REMOVE_RANGE = 2;
+
+	/**
+	 * Removes every element.
+	 */
+	private static final int CLEAR = 3;
+
+	/**
+	 * The number of {@code int}s that describe an enqueued change: its kind, its index, its
+	 * count, and the position of its first value.
+	 */
+	private static final int STRIDE = 4;
+
+	/**
+	 * The length of a value array that is kept for reuse after the change queue is emptied;
+	 * a longer one is released, so that a large burst of writes does not hold on to memory.
+	 */
+	private static final int RETAINED_VALUES = 1 << 16;
+
+	/**
+	 * The number of applied elements, which occupy indices {@code 0} to
+	 * {@code appliedSize - 1} of the subclass's element array.
+	 */
+	int appliedSize;
+
+	/**
+	 * The enqueued changes, each occupying {@link #STRIDE} consecutive {@code int}s.
+	 */
+	private int[] codes = new int[0];
+
+	/**
+	 * The number of enqueued changes.
+	 */
+	private int length;
+
+	/**
+	 * The number of values carried by the enqueued changes.
+	 */
+	int valueCount;
+
+	/**
+	 * The size this list will have once its change queue is emptied.
+	 */
+	int size;
+
+	/**
+	 * The number of leading elements that no enqueued change affects.
+	 */
+	int stablePrefix;
+
+	/**
+	 * The largest size that this list reaches while its change queue is being emptied.
+	 */
+	int peakSize;
+
+	/**
+	 * The smallest capacity requested via {@link #ensureCapacity} since the change queue was
+	 * last emptied.
+	 */
+	private int requestedCapacity;
+
+	/**
+	 * Whether {@link #trimToSize()} was called since the change queue was last emptied.
+	 */
+	private boolean trimRequested;
+
+	/**
+	 * Constructs a new, empty list.
+	 */
+	LazyPrimitiveList() {
+		super();
+	}
+
+	/**
+	 * Returns the subclass's element array.
+	 *
+	 * @return a primitive array, whose length is this list's capacity
+	 */
+	abstract Object elementArray();
+
+	/**
+	 * Replaces the subclass's element array by a copy of its leading elements, with the
+	 * specified length, or by an empty array if the length is {@code 0}.
+	 *
+	 * @param capacity  the new length of the element array
+	 */
+	abstract void resizeElements(int capacity);
+
+	/**
+	 * Returns the subclass's value array.
+	 *
+	 * @return a primitive array holding {@link #valueCount} enqueued values
+	 */
+	abstract Object valueArray();
+
+	/**
+	 * Replaces the subclass's value array by a copy of its leading values, with the
+	 * specified length, or by an empty array if the length is {@code 0}.
+	 *
+	 * @param capacity  the new length of the value array
+	 */
+	abstract void resizeValues(int capacity);
+
+	/**
+	 * Removes every element whose index is between {@code fromIndex}, inclusive, and
+	 * {@code toIndex}, exclusive, shifting any subsequent elements to the left.
+	 *
+	 * @param fromIndex  the index of the first element to remove
+	 * @param toIndex    the index after the last element to remove
+	 *
+	 * @throws IndexOutOfBoundsException if {@code fromIndex} is negative, if {@code toIndex}
+	 *                                   is greater than {@link #size()}, or if
+	 *                                   {@code fromIndex} is greater than {@code toIndex}
+	 */
+	public void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex < 0) {
+			throw new IndexOutOfBoundsException("Negative fromIndex parameter: " + fromIndex);
+		}
+		if (toIndex > size) {
+			throw new IndexOutOfBoundsException("toIndex parameter (" + toIndex
+					+ ") cannot exceed size (" + size + ").");
+		}
+		if (toIndex < fromIndex) {
+			throw new IndexOutOfBoundsException("fromIndex parameter (" + fromIndex
+					+ ") cannot exceed toIndex parameter (" + toIndex + ").");
+		}
+		if (fromIndex == toIndex) {
+			return;
+		}
+		size -= toIndex - fromIndex;
+		stablePrefix = Math.min(stablePrefix, fromIndex);
+		if (length > 0) {
+			final int last = (length - 1) * STRIDE;
+			final int kind = codes[last];
+			if (kind == APPEND || kind == INSERT) {
+				// A range within the values just enqueued shortens that change instead.
+				final int start = codes[last + 1];
+				final int count = codes[last + 2];
+				if (fromIndex >= start && toIndex <= start + count) {
+					final int valueStart = codes[last + 3];
+					final Object values = valueArray();
+					System.arraycopy(values, valueStart + toIndex - start, values,
+							valueStart + fromIndex - start, valueCount - (valueStart + toIndex - start));
+					valueCount -= toIndex - fromIndex;
+					if ((codes[last + 2] = count - (toIndex - fromIndex)) == 0) {
+						length--;
+					}
+					return;
+				}
+			} else if (kind == REMOVE_RANGE) {
+				// The last range started at lastFrom, and has since become index lastFrom.
+				final int lastFrom = codes[last + 1];
+				if (fromIndex <= lastFrom && lastFrom <= toIndex) {
+					codes[last + 1] = fromIndex;
+					codes[last + 2] += toIndex - fromIndex;
+					return;
+				}
+			}
+		}
+		enqueue(REMOVE_RANGE, fromIndex, toIndex - fromIndex);
+	}
+
+	/**
+	 * Removes every element.
+	 * <p>
+	 * Every change enqueued before this one is discarded.
+	 */
+	public void clear() {
+		length = 0;
+		valueCount = 0;
+		size = stablePrefix = peakSize = 0;
+		if (appliedSize > 0) {
+			enqueue(CLEAR, 0, 0);
+		}
+	}
+
+	/**
+	 * Returns the number of elements in this list, without emptying the change queue.
+	 *
+	 * @return the number of elements in this list
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns whether this list has no elements, without emptying the change queue.
+	 *
+	 * @return {@code true} if this list has no elements; {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Makes sure that, once the change queue is emptied, this list can hold at least the
+	 * specified number of elements without growing again.
+	 *
+	 * @param minCapacity  the desired minimum capacity
+	 */
+	public void ensureCapacity(int minCapacity) {
+		requestedCapacity = Math.max(requestedCapacity, minCapacity);
+	}
+
+	/**
+	 * Makes sure that, once the change queue is emptied, this list's capacity is its size.
+	 * <p>
+	 * A later call to {@link #ensureCapacity} still takes effect.
+	 */
+	public void trimToSize() {
+		trimRequested = true;
+		requestedCapacity = 0;
+	}
+
+	/**
+	 * Returns the number of enqueued changes plus the number of values they carry, which is
+	 * roughly proportional to the cost of emptying the change queue.
+	 *
+	 * @return a nonnegative integer
+	 */
+	protected final int getPendingWork() {
+		return length + valueCount;
+	}
+
+	/**
+	 * Empty the change queue, applying each change in the order in which it was enqueued.
+	 * <p>
+	 * This list's capacity is changed at most twice: first grown to the largest size the
+	 * enqueued changes reach, and then, if requested, trimmed.
+	 */
+	protected final void applyChanges() {
+		final int oldCapacity = Array.getLength(elementArray());
+		if (length == 0 && !trimRequested && requestedCapacity <= oldCapacity) {
+			return;
+		}
+		final int capacity = Math.max(peakSize, requestedCapacity);
+		if (capacity > oldCapacity) {
+			resizeElements(capacity);
+		}
+		final Object elements = elementArray();
+		final Object values = valueArray();
+		int n = appliedSize;
+		for (int entry = 0, end = length * STRIDE; entry < end; entry += STRIDE) {
+			final int index = codes[entry + 1];
+			final int count = codes[entry + 2];
+			switch (codes[entry]) {
+			case INSERT:
+				System.arraycopy(elements, index, elements, index + count, n - index);
+				System.arraycopy(values, codes[entry + 3], elements, index, count);
+				n += count;
+				break;
+			case APPEND:
+				System.arraycopy(values, codes[entry + 3], elements, index, count);
+				n += count;
+				break;
+			case REMOVE_RANGE:
+				System.arraycopy(elements, index + count, elements, index, n - index - count);
+				n -= count;
+				break;
+			case CLEAR:
+				n = 0;
+				break;
+			default:
+				throw new AssertionError(codes[entry]);
+			}
+		}
+		length = 0;
+		valueCount = 0;
+		if (Array.getLength(values) > RETAINED_VALUES) {
+			resizeValues(0);
+		}
+		if (trimRequested) {
+			final int trimmed = Math.max(n, requestedCapacity);
+			if (trimmed < Array.getLength(elements)) {
+				resizeElements(trimmed);
+			}
+			trimRequested = false;
+		}
+		requestedCapacity = 0;
+		appliedSize = stablePrefix = peakSize = n;
+	}
+
+	/**
+	 * Enqueue an insertion of the last {@code count} reserved values at the specified index,
+	 * merging it into the last enqueued change if that change ends where this one starts.
+	 *
+	 * @param index  the index at which to insert the values
+	 * @param count  the number of values, which were just copied after {@link #valueCount}
+	 */
+	final void enqueueInsert(int index, int count) {
+		final boolean append = index == size;
+		size += count;
+		peakSize = Math.max(peakSize, size);
+		if (!append) {
+			stablePrefix = Math.min(stablePrefix, index);
+		}
+		if (length > 0) {
+			final int last = (length - 1) * STRIDE;
+			final int kind = codes[last];
+			// The last change's values are always the last ones enqueued.
+			if ((kind == APPEND || kind == INSERT) && codes[last + 1] + codes[last + 2] == index) {
+				codes[last + 2] += count;
+				valueCount += count;
+				return;
+			}
+		}
+		final int start = valueCount;
+		valueCount += count;
+		enqueue(append ? APPEND : INSERT, index, count);
+		codes[(length - 1) * STRIDE + 3] = start;
+	}
+
+	/**
+	 * Enqueue a change.
+	 *
+	 * @param kind   the kind of change
+	 * @param index  the index at which the change applies
+	 * @param count  the number of elements that the change affects
+	 */
+	private void enqueue(int kind, int index, int count) {
+		int at = length * STRIDE;
+		if (at == codes.length) {
+			codes = Arrays.copyOf(codes, Math.max(16, length + (length >> 1)) * STRIDE);
+		}
+		codes[at] = kind;
+		codes[at + 1] = index;
+		codes[at + 2] = count;
+		length++;
+	}
+
+	/**
+	 * Make room for the specified number of values after {@link #valueCount}.
+	 *
+	 * @param count  the number of values about to be enqueued
+	 */
+	final void reserveValues(int count) {
+		final int required = valueCount + count;
+		if (required < 0) {
+			throw new OutOfMemoryError("Too many enqueued values");
+		}
+		final int capacity = Array.getLength(valueArray());
+		if (required > capacity) {
+			final int grown = capacity + (capacity >> 1);
+			resizeValues(Math.max(Math.max(16, required), grown < 0 ? required : grown));
+		}
+	}
+
+	/**
+	 * Returns the position of the specified element among the enqueued values, if it is
+	 * carried by an append that is the only enqueued change besides a leading clear.
+	 *
+	 * @param index  the index of the element, which is not less than {@link #stablePrefix}
+	 * @return the element's position in the value array, or {@code -1}
+	 */
+	final int tailOffset(int index) {
+		int first = 0;
+		if (length > 0 && codes[0] == CLEAR) {
+			first = STRIDE;
+		}
+		if (length * STRIDE - first != STRIDE || codes[first] != APPEND) {
+			return -1;
+		}
+		return codes[first + 3] + index - codes[first + 1];
+	}
+
+	/**
+	 * Throws an exception unless the specified index refers to an element.
+	 *
+	 * @param index  the index to check
+	 *
+	 * @throws IndexOutOfBoundsException if the index is negative or not less than
+	 *                                   {@link #size()}
+	 */
+	final void checkIndex(int index) {
+		if (index < 0) {
+			throw new IndexOutOfBoundsException("Negative index parameter: " + index);
+		}
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("index parameter (" + index
+					+ ") must be less than size (" + size + ").");
+		}
+	}
+
+	/**
+	 * Throws an exception unless the specified index is a position at which elements can be
+	 * inserted.
+	 *
+	 * @param index  the index to check
+	 *
+	 * @throws IndexOutOfBoundsException if the index is negative or greater than
+	 *                                   {@link #size()}
+	 */
+	final void checkPosition(int index) {
+		if (index < 0) {
+			throw new IndexOutOfBoundsException("Negative index parameter: " + index);
+		}
+		if (index > size) {
+			throw new IndexOutOfBoundsException("index parameter (" + index
+					+ ") cannot exceed size (" + size + ").");
+		}
+	}
+
+}
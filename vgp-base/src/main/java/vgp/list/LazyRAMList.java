@@ -1,20 +1,30 @@
 package vgp.list;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.Queue;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.Spliterator;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import vgp.clone.CloneableBase;
 
@@ -36,13 +46,531 @@ import vgp.clone.CloneableBase;
  * queue is being emptied.
 	 * (However, if said index is negative, that validation is not postponed.)
  * </em>
+ * <p>
+ * Adjacent changes are coalesced as they are enqueued, so that a burst of writes is
+ * applied with as few calls to the superclass as possible:
+ * <ul>
+ * <li>consecutive appends ({@link #add(Object)}, {@link #addAll(Collection)}) are merged
+ *     into one bulk append, and consecutive positional inserts that continue one another
+ *     are merged into one bulk insert;
+ * <li>{@link #clear()} discards every change enqueued before it;
+ * <li>consecutive {@link #removeRange} calls whose ranges overlap or touch are merged into
+ *     one range;
+ * <li>consecutive {@link #ensureCapacity} and {@link #trimToSize()} calls are collapsed
+ *     into the last effective one;
+ * <li>a {@link #sort} discards an earlier one with the same comparator, if only appends
+ *     and {@link #removeIfDeferred} calls were enqueued in between.
+ * </ul>
+ * {@link #replaceAll}, {@link #sort}, and {@link #removeIfDeferred} are enqueued too.
+ * When the change queue is emptied, each run of consecutive {@link #replaceAll} and
+ * {@link #removeIfDeferred} calls is applied in a single pass over this list's elements.
+ * The elements of a collection passed to {@link #addAll(Collection)} or
+ * {@link #addAll(int, Collection)} are copied when that change is enqueued.
+ * Because a discarded change is never applied, an out-of-bounds index that precedes a
+ * {@link #clear()} is never reported.
+ * <p>
+ * As changes are enqueued, this list projects their effect on its size and on its leading
+ * elements. As long as that effect is known, {@link #size()} and {@link #isEmpty()} are
+ * answered without emptying the change queue, and so is {@link #get(int)} for any index
+ * below the lowest index that an enqueued change affects.
+ * <p>
+ * If every enqueued change is an append (or only affects this list's capacity), or if
+ * nothing is enqueued, {@link #iterator()}, {@link #spliterator()}, {@link #stream()},
+ * {@link #parallelStream()}, and {@link #forEach} read through to the enqueued elements
+ * instead of emptying the change queue. Like those of {@link ArrayList}, the resulting iterators and spliterators are
+ * fail-fast.
+ * <p>
+ * {@link #clone()} takes constant time: the clone shares this list's applied elements until
+ * either list is about to modify them, at which point the clone receives its own copy. Until
+ * then, the clone answers {@link #get(int)}, {@link #size()}, {@link #isEmpty()}, and every
+ * traversal from the shared elements; any other read request gives it its own copy first.
+ * Views returned by {@link #subList} and iterators returned by {@link #listIterator()}
+ * write through this list's own methods, so a view or iterator taken before
+ * {@link #clone()} cannot write to the shared elements either.
+ * A list and its clones may be used on different threads.
+ * <p>
+ * In the same way, {@link #snapshot()} returns an unmodifiable view of this list's applied
+ * elements without emptying the change queue, so that a reader content with slightly stale
+ * elements does not pay for the changes enqueued since the last flush. {@link #getVersion()}
+ * tells how many times the applied elements have changed since.
+ * <p>
+ * This list is serialized in a compact form, once its change queue has been emptied.
+ * To avoid rewriting every element at each checkpoint, a list can instead record its write
+ * requests to a {@link WriteAheadLog}, from which it can be rebuilt.
  * 
  * @author [...]
- * @version 2.0
+ * @version 2.5
  * @since 2.0
  */
 public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 
+	/**
+	 * A read-only view of a {@link LazyRAMList}'s applied elements followed by the elements
+	 * that its change queue is going to append, which is only valid while the change queue
+	 * is {@linkplain ChangeJournal#isAppendOnly() append-only}.
+	 * <p>
+	 * The view covers the indices from {@link #origin}, inclusive, to {@link #fence},
+	 * exclusive. Indices below {@link #appliedSize} refer to applied elements; the rest
+	 * refer to {@link #appended}, starting at {@link #appendedStart}.
+	 * 
+	 * @version 2.5
+	 * @since 2.5
+	 */
+	private abstract class Overlay {
+
+		/**
+		 * The number of applied elements.
+		 */
+		int appliedSize;
+
+		/**
+		 * The array holding the elements to append.
+		 */
+		Object[] appended;
+
+		/**
+		 * Where the elements to append start in {@link #appended}.
+		 */
+		int appendedStart;
+
+		/**
+		 * The next index to read.
+		 */
+		int origin;
+
+		/**
+		 * The end of this view, exclusive.
+		 */
+		int fence;
+
+		/**
+		 * The list's {@link #modCount} when this view was created.
+		 */
+		int expectedModCount;
+
+		/**
+		 * The change queue's {@link ChangeJournal#modifications()} when this view was created.
+		 */
+		int expectedModifications;
+
+		/**
+		 * Constructs a new {@code Overlay} of the whole list.
+		 */
+		Overlay() {
+			appliedSize = baseSize();
+			appended = changes.arguments();
+			appendedStart = changes.pendingArgumentStart();
+			origin = 0;
+			fence = appliedSize + (changes.argumentEnd() - appendedStart);
+			expectedModCount = modCount;
+			expectedModifications = changes.modifications();
+		}
+
+		/**
+		 * Constructs a new {@code Overlay} of part of the specified view.
+		 * 
+		 * @param overlay  the view whose part to view
+		 * @param origin   the start of the part, inclusive
+		 * @param fence    the end of the part, exclusive
+		 */
+		Overlay(Overlay overlay, int origin, int fence) {
+			this.appliedSize = overlay.appliedSize;
+			this.appended = overlay.appended;
+			this.appendedStart = overlay.appendedStart;
+			this.origin = origin;
+			this.fence = fence;
+			this.expectedModCount = overlay.expectedModCount;
+			this.expectedModifications = overlay.expectedModifications;
+		}
+
+		/**
+		 * Returns the element at the specified index, checking for concurrent modification.
+		 * 
+		 * @param index  an index covered by this view
+		 * @return the element at that index
+		 * 
+		 * @throws ConcurrentModificationException if the list has been modified since this
+		 *                                         view was created
+		 */
+		@SuppressWarnings("unchecked")
+		final E elementAt(int index) {
+			if (modCount != expectedModCount || changes.modifications() != expectedModifications) {
+				reanchor();
+			}
+			if (index < appliedSize) {
+				return baseGet(index);
+			}
+			return (E) appended[appendedStart + index - appliedSize];
+		}
+
+		/**
+		 * Catches up with a flush of the appends that this view reads through, which a read
+		 * request may trigger, and which leaves every element at the same index.
+		 * 
+		 * @throws ConcurrentModificationException if the list has been modified otherwise
+		 *                                         since this view was created
+		 */
+		private void reanchor() {
+			if (expectedModCount != appendFlushModCount
+					|| expectedModifications != appendFlushModifications
+					|| modCount != appendFlushedModCount
+					|| changes.modifications() != appendFlushedModifications) {
+				throw new ConcurrentModificationException();
+			}
+			appliedSize = baseSize();
+			expectedModCount = modCount;
+			expectedModifications = changes.modifications();
+		}
+	}
+
+	/**
+	 * An iterator over an {@link Overlay}.
+	 * <p>
+	 * Its {@link #remove()} empties the change queue, after which it iterates over applied
+	 * elements only.
+	 * 
+	 * @version 2.5
+	 * @since 2.5
+	 */
+	private final class OverlayIterator extends Overlay implements Iterator<E> {
+
+		/**
+		 * The index of the element last returned, or {@code -1} if there is none.
+		 */
+		private int lastReturned = -1;
+
+		@Override
+		public boolean hasNext() {
+			return origin < fence;
+		}
+
+		@Override
+		public E next() {
+			if (origin >= fence) {
+				throw new NoSuchElementException();
+			}
+			final E e = elementAt(origin);
+			lastReturned = origin++;
+			return e;
+		}
+
+		@Override
+		public void remove() {
+			if (lastReturned < 0) {
+				throw new IllegalStateException();
+			}
+			elementAt(lastReturned);
+			applyChangesForWrite();
+			LazyRAMList.super.remove(lastReturned);
+			if (log != null) {
+				log.removeRange(lastReturned, lastReturned + 1);
+			}
+			origin = lastReturned;
+			lastReturned = -1;
+			fence--;
+			appliedSize = fence;
+			expectedModCount = modCount;
+			expectedModifications = changes.modifications();
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			while (origin < fence) {
+				final E e = elementAt(origin);
+				lastReturned = origin++;
+				action.accept(e);
+			}
+		}
+	}
+
+	/**
+	 * A spliterator over an {@link Overlay}, which splits in halves.
+	 * 
+	 * @version 2.5
+	 * @since 2.5
+	 */
+	private final class OverlaySpliterator extends Overlay implements Spliterator<E> {
+
+		/**
+		 * Constructs a new {@code OverlaySpliterator} of the whole list.
+		 */
+		OverlaySpliterator() {
+			super();
+		}
+
+		/**
+		 * Constructs a new {@code OverlaySpliterator} of part of the specified spliterator.
+		 * 
+		 * @param spliterator  the spliterator whose part to traverse
+		 * @param origin       the start of the part, inclusive
+		 * @param fence        the end of the part, exclusive
+		 */
+		private OverlaySpliterator(OverlaySpliterator spliterator, int origin, int fence) {
+			super(spliterator, origin, fence);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			if (origin >= fence) {
+				return false;
+			}
+			action.accept(elementAt(origin++));
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			while (origin < fence) {
+				action.accept(elementAt(origin++));
+			}
+		}
+
+		@Override
+		public Spliterator<E> trySplit() {
+			final int middle = (origin + fence) >>> 1;
+			if (middle <= origin) {
+				return null;
+			}
+			final Spliterator<E> prefix = new OverlaySpliterator(this, origin, middle);
+			origin = middle;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - origin;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+	}
+
+	/**
+	 * A view of part of a {@link LazyRAMList}, which hands every request over to the list's
+	 * own methods.
+	 * <p>
+	 * Unlike the views of {@link ArrayList}, which write to its elements directly, writing to
+	 * this view enqueues changes, or gives the list's clones and snapshots their own copy
+	 * first, just like writing to the list itself does. Emptying the list's change queue
+	 * does not invalidate this view, but any other structural change that does not go
+	 * through it does.
+	 * 
+	 * @version 2.5
+	 * @since 2.5
+	 */
+	private final class SubList extends AbstractList<E> implements RandomAccess {
+
+		/**
+		 * The view that this view is part of, or {@code null} if it is part of the list.
+		 */
+		private final SubList parent;
+
+		/**
+		 * The index in the list of this view's first element.
+		 */
+		private final int offset;
+
+		/**
+		 * The number of elements in this view.
+		 */
+		private int size;
+
+		/**
+		 * The list's {@link #writes()} as of the last change made through this view.
+		 */
+		private int expectedWrites;
+
+		/**
+		 * Constructs a new {@code SubList}.
+		 * 
+		 * @param parent  the view that this view is part of, or {@code null}
+		 * @param offset  the index in the list of this view's first element
+		 * @param size    the number of elements in this view
+		 */
+		SubList(SubList parent, int offset, int size) {
+			super();
+			this.parent = parent;
+			this.offset = offset;
+			this.size = size;
+			this.expectedWrites = writes();
+		}
+
+		@Override
+		public void add(int index, E element) {
+			Objects.checkIndex(index, size + 1);
+			checkForComodification();
+			LazyRAMList.this.add(offset + index, element);
+			updateSize(1);
+		}
+
+		@Override
+		public boolean addAll(Collection<? extends E> c) {
+			return addAll(size, c);
+		}
+
+		@Override
+		public boolean addAll(int index, Collection<? extends E> c) {
+			Objects.checkIndex(index, size + 1);
+			final int count = c.size();
+			if (count == 0) {
+				return false;
+			}
+			checkForComodification();
+			LazyRAMList.this.addAll(offset + index, c);
+			updateSize(count);
+			return true;
+		}
+
+		@Override
+		public E get(int index) {
+			Objects.checkIndex(index, size);
+			checkForComodification();
+			return LazyRAMList.this.get(offset + index);
+		}
+
+		@Override
+		public E remove(int index) {
+			Objects.checkIndex(index, size);
+			checkForComodification();
+			final E e = LazyRAMList.this.remove(offset + index);
+			updateSize(-1);
+			return e;
+		}
+
+		@Override
+		protected void removeRange(int fromIndex, int toIndex) {
+			checkForComodification();
+			LazyRAMList.this.removeRange(offset + fromIndex, offset + toIndex);
+			updateSize(fromIndex - toIndex);
+		}
+
+		@Override
+		public E set(int index, E element) {
+			Objects.checkIndex(index, size);
+			checkForComodification();
+			return LazyRAMList.this.set(offset + index, element);
+		}
+
+		@Override
+		public int size() {
+			checkForComodification();
+			return size;
+		}
+
+		@Override
+		public List<E> subList(int fromIndex, int toIndex) {
+			Objects.checkFromToIndex(fromIndex, toIndex, size);
+			checkForComodification();
+			return new SubList(this, offset + fromIndex, toIndex - fromIndex);
+		}
+
+		/**
+		 * Makes sure that the list has not been structurally modified other than through
+		 * this view.
+		 * 
+		 * @throws ConcurrentModificationException if it has been
+		 */
+		private void checkForComodification() {
+			if (writes() != expectedWrites) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		/**
+		 * Catches this view and every view that it is part of up with a structural change
+		 * made through it.
+		 * 
+		 * @param delta  the change in the number of elements
+		 */
+		private void updateSize(int delta) {
+			final int writes = writes();
+			SubList view = this;
+			do {
+				view.size += delta;
+				view.expectedWrites = writes;
+				view.modCount++;
+				view = view.parent;
+			} while (view != null);
+		}
+	}
+
+	/**
+	 * The serialized form of a {@link LazyRAMList}: its size, followed by a tag identifying
+	 * the narrowest encoding shared by every element, followed by the encoded elements.
+	 * <p>
+	 * Lists of nothing but {@code Integer}s, {@code Long}s, {@code Double}s, or
+	 * {@code String}s are written as raw primitive data; other lists are written element by
+	 * element with {@link ObjectOutputStream#writeObject}.
+	 *
+	 * @version 2.5
+	 * @since 2.5
+	 */
+	private static final class SerializationProxy implements Serializable {
+
+		/**
+		 * The {@code serialVersionUID} of this class, as specified by {@link Serializable}.
+		 */
+		private static final long serialVersionUID = -6184211587357196425L;
+
+		/**
+		 * The list's elements, which are written by {@link #writeObject}.
+		 */
+		private transient Object[] elements;
+
+		/**
+		 * Constructs a new {@code SerializationProxy} for the specified elements.
+		 * 
+		 * @param elements  the list's elements, in order
+		 */
+		SerializationProxy(Object[] elements) {
+			super();
+			this.elements = elements;
+		}
+
+		/**
+		 * Writes the elements.
+		 * 
+		 * @serialData the number of elements ({@code int}), the tag of their encoding
+		 *             ({@code byte}), and the encoded elements, in order
+		 * @param out  the stream to write to
+		 * 
+		 * @throws IOException if an I/O error occurs
+		 */
+		private void writeObject(ObjectOutputStream out) throws IOException {
+			out.defaultWriteObject();
+			StandardCodec.writeRun(out, elements, elements.length);
+		}
+
+		/**
+		 * Reads the elements.
+		 * 
+		 * @param in  the stream to read from
+		 * 
+		 * @throws IOException            if an I/O error occurs, or if the stream is
+		 *                                malformed
+		 * @throws ClassNotFoundException if an element's class cannot be found
+		 */
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			in.defaultReadObject();
+			elements = StandardCodec.readRun(in);
+		}
+
+		/**
+		 * Returns the list that was serialized.
+		 * 
+		 * @return a new list of the elements, whose change queue is empty
+		 */
+		private Object readResolve() {
+			return new LazyRAMList<Object>(ChangeJournal.handOff(elements));
+		}
+
+	}
+
 	/**
 	 * This list's collection of write requests.
 	 * <p>
@@ -52,6 +580,10 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 	 * When such a request is made, this queue is emptied, and each change is applied in the
 	 * order in which it was enqueued.
 	 * <p>
+	 * Only the last change in this queue is ever coalesced with a newly enqueued one.
+	 * The queue's storage is reused after it is emptied, so that enqueuing a change
+	 * does not allocate anything.
+	 * <p>
 	 * Do not create a getter method for this field.
 	 * <p>
 	 * <em>
@@ -62,7 +594,107 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 	 * (However, if said index is negative, that validation is not postponed.)
 	 * </em>
 	 */
-	private final Queue<Runnable> changes = new LinkedBlockingQueue<>();
+	private final transient ChangeJournal changes = new ChangeJournal();
+
+	/**
+	 * Whether {@link #projectedSize} and {@link #stablePrefix} are known.
+	 * <p>
+	 * They are only meaningful while the change queue is not empty. They are unknown after
+	 * an opaque change is enqueued, after a change whose index is certain to be out-of-bounds
+	 * is enqueued, and after emptying the change queue fails.
+	 */
+	private transient boolean projectionKnown;
+
+	/**
+	 * The size this list will have once its change queue is emptied.
+	 */
+	private transient int projectedSize;
+
+	/**
+	 * The number of leading elements that no enqueued change affects, which is also the
+	 * lowest index at which an enqueued change affects this list's elements.
+	 */
+	private transient int stablePrefix;
+
+	/**
+	 * The value of {@link #modCount} when the change queue stopped being empty, which is
+	 * used to detect structural changes made via views such as {@link #subList}.
+	 */
+	private transient int projectedModCount;
+
+	/**
+	 * How much emptying the change queue has added to {@link #modCount} and to the change
+	 * queue's {@link ChangeJournal#modifications()}, which a {@link SubList} leaves out,
+	 * since it leaves this list's elements the same.
+	 */
+	private transient int flushIncrements;
+
+	/**
+	 * The value of {@link #modCount} before the last flush of a change queue that held nothing
+	 * but appends and capacity hints.
+	 * <p>
+	 * Such a flush leaves every element at the same index, so an iterator or a spliterator
+	 * created before it, which reads through the appends, catches up with it instead of
+	 * failing.
+	 */
+	private transient int appendFlushModCount;
+
+	/**
+	 * The change queue's {@link ChangeJournal#modifications()} before the flush that
+	 * {@link #appendFlushModCount} describes.
+	 */
+	private transient int appendFlushModifications;
+
+	/**
+	 * The value of {@link #modCount} after the flush that {@link #appendFlushModCount}
+	 * describes.
+	 */
+	private transient int appendFlushedModCount;
+
+	/**
+	 * The change queue's {@link ChangeJournal#modifications()} after the flush that
+	 * {@link #appendFlushModCount} describes.
+	 */
+	private transient int appendFlushedModifications;
+
+	/**
+	 * The list whose applied elements this list shares instead of having its own, or
+	 * {@code null} if this list has its own.
+	 * <p>
+	 * This field only changes from non-{@code null} to {@code null}, while holding the
+	 * lender's lock.
+	 */
+	private transient volatile LazyRAMList<E> lender;
+
+	/**
+	 * The clones that might still share this list's applied elements, or {@code null} if
+	 * there are none.
+	 * <p>
+	 * This field is only modified while holding this list's lock.
+	 */
+	private transient volatile List<WeakReference<LazyRAMList<E>>> borrowers;
+
+	/**
+	 * The version of this list's applied elements, which is incremented whenever they are
+	 * about to be modified.
+	 */
+	private transient volatile long version;
+
+	/**
+	 * The metrics that this list reports to, or {@code null} if it reports to none.
+	 */
+	private transient LazyRAMListMetrics metrics;
+
+	/**
+	 * The number of enqueued changes last reported to {@link #metrics}.
+	 */
+	private transient int reportedPending;
+
+	/**
+	 * The log that this list records its write requests to, or {@code null} if it records
+	 * them nowhere.
+	 */
+	private transient WriteAheadLog<E> log;
 
 	/**
 	 * The {@code serialVersionUID} of this class, as specified by {@link Serializable}.
@@ -100,7 +732,14 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 
 	@Override
 	public boolean add(E e) {
-		enqueueChange(() -> super.add(e));
+		projectInsert(-1, 1);
+		changes.append(e);
+		if (metrics != null) {
+			recordWrite();
+		}
+		if (log != null) {
+			log.append(e);
+		}
 		return true;
 	}
 
@@ -109,7 +748,14 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 		if (index < 0) {
 			throw new IndexOutOfBoundsException("Negative index parameter: " + index);
 		}
-		enqueueChange(() -> super.add(index, element));
+		projectInsert(index, 1);
+		changes.insert(index, element);
+		if (metrics != null) {
+			recordWrite();
+		}
+		if (log != null) {
+			log.insertAll(index, new Object[] { element }, 1);
+		}
 	}
 
 	@Override
@@ -117,8 +763,19 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 		if (c == null) {
 			throw new NullPointerException("Null collection parameter: " + c);
 		}
-		enqueueChange(() -> super.addAll(c));
-		return !c.isEmpty();
+		final Object[] a = c.toArray();
+		if (a.length == 0) {
+			return false;
+		}
+		projectInsert(-1, a.length);
+		changes.appendAll(a);
+		if (metrics != null) {
+			recordWrite();
+		}
+		if (log != null) {
+			log.insertAll(-1, a, a.length);
+		}
+		return true;
 	}
 
 	@Override
@@ -129,8 +786,16 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 		if (c == null) {
 			throw new NullPointerException("Null collection parameter: " + c);
 		}
-		enqueueChange(() -> super.addAll(index, c));
-		return !c.isEmpty();
+		final Object[] a = c.toArray();
+		projectInsert(index, a.length);
+		changes.insertAll(index, a);
+		if (metrics != null) {
+			recordWrite();
+		}
+		if (log != null) {
+			log.insertAll(index, a, a.length);
+		}
+		return a.length != 0;
 	}
 
 	/**
@@ -143,22 +808,663 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 	 * queue is being emptied.
 	 * (However, if said index is negative, that validation is not postponed.)
 	 * </em>
+	 * <p>
+	 * Before any change is applied, this list's capacity is grown once to the largest size
+	 * that the changes reach. A run of inserts whose tail shifts would cost more than
+	 * rebuilding this list is applied in a single merge pass instead.
 	 */
 	protected final void applyChanges() {
-		while (!changes.isEmpty()) {
-			changes.remove().run();
+		if (lender != null) {
+			stopBorrowing();
+		}
+		if (changes.isEmpty()) {
+			return;
+		}
+		final boolean appendOnly = changes.isAppendOnly();
+		final int flushModCount = modCount;
+		final int flushModifications = changes.modifications();
+		stopLending();
+		version++;
+		if (log != null) {
+			log.writeAhead();
+		}
+		// Should a change fail, the projection no longer describes what is left.
+		projectionKnown = false;
+		final int peakSize = changes.peakSize(super.size());
+		if (peakSize > super.size()) {
+			super.ensureCapacity(peakSize);
+		}
+		final LazyRAMListMetrics m = metrics;
+		if (m == null) {
+			applyEnqueuedChanges();
+		} else {
+			final int work = changes.pendingWork();
+			final long start = System.nanoTime();
+			try {
+				applyEnqueuedChanges();
+			} finally {
+				final long duration = System.nanoTime() - start;
+				final int pending = changes.pendingCount();
+				m.recordFlush(this, reportedPending - pending, work, duration);
+				reportedPending = pending;
+			}
+		}
+		flushIncrements += modCount - flushModCount + changes.modifications() - flushModifications;
+		if (appendOnly) {
+			appendFlushModCount = flushModCount;
+			appendFlushModifications = flushModifications;
+			appendFlushedModCount = modCount;
+			appendFlushedModifications = changes.modifications();
+		}
+	}
+
+	/**
+	 * Dequeue and apply every enqueued change, once this list's capacity has been grown.
+	 */
+	private void applyEnqueuedChanges() {
+		int entry;
+		while ((entry = changes.poll()) >= 0) {
+			final int kind = changes.kind(entry);
+			if (kind == ChangeJournal.TRANSFORM || kind == ChangeJournal.FILTER) {
+				applyFused(entry);
+			} else if (kind != ChangeJournal.INSERT || !mergeInserts(entry)) {
+				applyChange(entry);
+			}
+		}
+	}
+
+	/**
+	 * Apply the run of transforms and filters that starts with the specified entry in a
+	 * single pass, each element going through every step in order.
+	 * <p>
+	 * Kept elements are compacted in place as the pass goes. Should a step fail, the
+	 * elements that were not reached yet are kept unchanged after those that were.
+	 * 
+	 * @param first  a {@link ChangeJournal#TRANSFORM} or {@link ChangeJournal#FILTER} entry,
+	 *               which was just dequeued
+	 */
+	private void applyFused(int first) {
+		int last = first;
+		while (last + 1 < changes.end() && isFusable(changes.kind(last + 1))) {
+			last++;
+		}
+		final int steps = last - first + 1;
+		final Object[] functions = new Object[steps];
+		final boolean[] filters = new boolean[steps];
+		boolean transforms = false;
+		for (int step = 0; step < steps; step++) {
+			functions[step] = changes.function(first + step);
+			filters[step] = changes.kind(first + step) == ChangeJournal.FILTER;
+			transforms |= !filters[step];
+		}
+		changes.skipTo(last + 1);
+		final int size = super.size();
+		int kept = 0;
+		int i = 0;
+		try {
+			elements: for (; i < size; i++) {
+				E e = super.get(i);
+				for (int step = 0; step < steps; step++) {
+					if (!filters[step]) {
+						e = operatorOf(functions[step]).apply(e);
+					} else if (predicateOf(functions[step]).test(e)) {
+						continue elements;
+					}
+				}
+				super.set(kept++, e);
+			}
+		} finally {
+			if (kept < i) {
+				for (int j = i; j < size; j++) {
+					super.set(kept + j - i, super.get(j));
+				}
+				super.removeRange(kept + size - i, size);
+			}
+			if (transforms) {
+				modCount++;
+			}
+		}
+	}
+
+	/**
+	 * Returns whether entries of the specified kind can be applied in the same pass as a
+	 * transform or a filter.
+	 * 
+	 * @param kind  an opcode of {@link ChangeJournal}
+	 * @return {@code true} for {@link ChangeJournal#TRANSFORM} and
+	 *         {@link ChangeJournal#FILTER}; {@code false} otherwise
+	 */
+	private static boolean isFusable(int kind) {
+		return kind == ChangeJournal.TRANSFORM || kind == ChangeJournal.FILTER;
+	}
+
+	/**
+	 * Returns the parameter, cast to an operator on this list's element type.
+	 * 
+	 * @param function  an operator that was enqueued by {@link #replaceAll}
+	 * @return the parameter
+	 */
+	@SuppressWarnings("unchecked")
+	private UnaryOperator<E> operatorOf(Object function) {
+		return (UnaryOperator<E>) function;
+	}
+
+	/**
+	 * Returns the parameter, cast to a predicate on this list's element type.
+	 * 
+	 * @param function  a predicate that was enqueued by {@link #removeIfDeferred}
+	 * @return the parameter
+	 */
+	@SuppressWarnings("unchecked")
+	private Predicate<? super E> predicateOf(Object function) {
+		return (Predicate<? super E>) function;
+	}
+
+	/**
+	 * Returns the parameter, cast to a comparator on this list's element type.
+	 * 
+	 * @param function  a comparator that was enqueued by {@link #sort}, or {@code null}
+	 * @return the parameter
+	 */
+	@SuppressWarnings("unchecked")
+	private Comparator<? super E> comparatorOf(Object function) {
+		return (Comparator<? super E>) function;
+	}
+
+	/**
+	 * Returns the metrics that this list reports to.
+	 * 
+	 * @return the metrics, or {@code null} if this list does not collect any
+	 */
+	public LazyRAMListMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Makes this list report how it enqueues and applies changes to the specified metrics,
+	 * which may be shared with other lists.
+	 * <p>
+	 * While a list reports to no metrics, which is the default, collecting them costs nothing
+	 * but a {@code null} check per request. Clones do not inherit this list's metrics.
+	 * 
+	 * @param metrics  the metrics to report to, or {@code null} to stop collecting them
+	 */
+	public void setMetrics(LazyRAMListMetrics metrics) {
+		if (this.metrics != null) {
+			this.metrics.recordPending(-reportedPending);
+		}
+		reportedPending = 0;
+		if (metrics != null) {
+			reportedPending = changes.pendingCount();
+			metrics.recordPending(reportedPending);
+		}
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Returns the log that this list records its write requests to.
+	 * 
+	 * @return the log, or {@code null} if this list has none
+	 */
+	public WriteAheadLog<E> getWriteAheadLog() {
+		return log;
+	}
+
+	/**
+	 * Makes this list record each write request to the specified log: deferred ones when
+	 * they are enqueued, and the rest once they have been applied. The log writes its records
+	 * to its file before this list applies its enqueued changes.
+	 * <p>
+	 * Changes made via {@link #subList}, {@link #listIterator()}, or
+	 * {@link #listIterator(int)} are not recorded; follow them with a call to
+	 * {@link WriteAheadLog#reset(Collection)}. Because an enqueued change is recorded before
+	 * its indices are validated, replaying a change that failed fails again, in the same way.
+	 * <p>
+	 * The log must already describe this list, as it does once it has been
+	 * {@linkplain WriteAheadLog#replay replayed} into this list or
+	 * {@linkplain WriteAheadLog#reset(Collection) reset} with this list's elements. This list
+	 * does not close the log.
+	 * 
+	 * @param log  the log to record write requests to, or {@code null} to stop recording them
+	 */
+	public void setWriteAheadLog(WriteAheadLog<E> log) {
+		this.log = log;
+	}
+
+	/**
+	 * Report a just-enqueued write request to {@link #metrics}, which is not {@code null}.
+	 */
+	private void recordWrite() {
+		final int pending = changes.pendingCount();
+		metrics.recordWrite(pending - reportedPending, pending);
+		reportedPending = pending;
+	}
+
+	/**
+	 * Apply the run of inserts and appends that starts with the specified entry in a single
+	 * merge pass, if doing so is cheaper than applying them one at a time.
+	 * <p>
+	 * The run ends before the first entry that is neither an insert nor an append, or whose
+	 * index is out-of-bounds. That entry is left for the caller to apply (and to fail).
+	 * <p>
+	 * The merge works backwards: the last insert's elements take their final positions
+	 * outright, and every earlier insert's elements take the positions that are still free,
+	 * counted with a Fenwick tree, because later inserts never move earlier elements relative
+	 * to one another. The applied elements then fill whatever positions remain, in order.
+	 * 
+	 * @param first  an {@link ChangeJournal#INSERT} entry that was just dequeued
+	 * @return {@code true} if the run was applied and dequeued; {@code false} if the caller
+	 *         should apply the entry itself
+	 */
+	private boolean mergeInserts(int first) {
+		final int end = changes.end();
+		final int[] indices = new int[Math.min(end - first, 1 << 16)];
+		int size = super.size();
+		long shiftCost = 0;
+		int last = first;
+		for (; last < end && last - first < indices.length; last++) {
+			final int kind = changes.kind(last);
+			if (kind != ChangeJournal.APPEND && kind != ChangeJournal.INSERT) {
+				break;
+			}
+			final int index = kind == ChangeJournal.APPEND ? size : changes.from(last);
+			if (index > size || (long) size + changes.count(last) > Integer.MAX_VALUE) {
+				break;
+			}
+			indices[last - first] = index;
+			shiftCost += size - index;
+			size += changes.count(last);
+		}
+		if (last - first < 2 || shiftCost <= 2L * size) {
+			return false;
+		}
+		final int[] free = new int[size + 1];
+		for (int i = 1; i <= size; i++) {
+			free[i] = i & -i;
+		}
+		final boolean[] taken = new boolean[size];
+		final Object[] merged = new Object[size];
+		for (int entry = last - 1; entry >= first; entry--) {
+			final int rank = indices[entry - first];
+			final List<Object> elements = changes.elements(entry);
+			for (int j = 0; j < elements.size(); j++) {
+				// Each element taken frees up its rank for the next one.
+				final int slot = takeFreeSlot(free, rank);
+				taken[slot] = true;
+				merged[slot] = elements.get(j);
+			}
 		}
+		int applied = 0;
+		for (int slot = 0; slot < size; slot++) {
+			if (!taken[slot]) {
+				merged[slot] = super.get(applied++);
+			}
+		}
+		super.clear();
+		super.addAll(elementsOf(ChangeJournal.handOff(merged)));
+		changes.skipTo(last);
+		return true;
+	}
+
+	/**
+	 * Find the free position with the specified rank among all free positions, and then
+	 * mark it as taken.
+	 * 
+	 * @param free  a Fenwick tree over every position, where each free position counts once
+	 * @param rank  the zero-based rank of the position to take
+	 * @return the zero-based position taken
+	 */
+	private static int takeFreeSlot(int[] free, int rank) {
+		final int n = free.length - 1;
+		int position = 0;
+		int remaining = rank + 1;
+		for (int step = Integer.highestOneBit(n); step > 0; step >>= 1) {
+			final int next = position + step;
+			if (next <= n && free[next] < remaining) {
+				position = next;
+				remaining -= free[next];
+			}
+		}
+		for (int i = position + 1; i <= n; i += i & -i) {
+			free[i]--;
+		}
+		return position;
+	}
+
+	/**
+	 * Apply the specified entry of this list's change queue to this list's elements.
+	 * 
+	 * @param entry  an entry that was dequeued from this list's change queue
+	 */
+	private void applyChange(int entry) {
+		switch (changes.kind(entry)) {
+		case ChangeJournal.APPEND:
+			super.addAll(elementsOf(entry));
+			break;
+		case ChangeJournal.INSERT:
+			super.addAll(changes.from(entry), elementsOf(entry));
+			break;
+		case ChangeJournal.REMOVE_RANGE:
+			final int toIndex = changes.to(entry);
+			if (toIndex > super.size()) {
+				throw new IndexOutOfBoundsException("toIndex parameter (" + toIndex
+						+ ") cannot exceed size (" + super.size() + ").");
+			}
+			super.removeRange(changes.from(entry), toIndex);
+			break;
+		case ChangeJournal.CLEAR:
+			super.clear();
+			break;
+		case ChangeJournal.ENSURE_CAPACITY:
+			super.ensureCapacity(changes.from(entry));
+			break;
+		case ChangeJournal.TRIM_TO_SIZE:
+			super.trimToSize();
+			break;
+		case ChangeJournal.SORT:
+			super.sort(comparatorOf(changes.function(entry)));
+			break;
+		default:
+			changes.action(entry).run();
+			break;
+		}
+	}
+
+	/**
+	 * Returns the elements to append or insert as part of the specified entry.
+	 * 
+	 * @param entry  an {@link ChangeJournal#APPEND} or {@link ChangeJournal#INSERT} entry
+	 * @return a fixed-size view of the entry's elements
+	 */
+	private List<E> elementsOf(int entry) {
+		return elementsOf(changes.elements(entry));
+	}
+
+	/**
+	 * Returns the parameter, cast to a list of this list's element type.
+	 * 
+	 * @param elements  elements that were enqueued by this list's write requests
+	 * @return the parameter
+	 */
+	@SuppressWarnings("unchecked")
+	private List<E> elementsOf(List<Object> elements) {
+		return (List<E>) (List<?>) elements;
 	}
 
 	@Override
 	public void clear() {
-		enqueueChange(() -> super.clear());
+		beginProjection();
+		changes.clear();
+		if (metrics != null) {
+			recordWrite();
+		}
+		if (log != null) {
+			log.clear();
+		}
+		// Unless an opaque change survived, nothing but the clear is enqueued now.
+		projectionKnown = changes.pendingCount() == 1;
+		projectedSize = 0;
+		stablePrefix = 0;
+	}
+
+	/**
+	 * Returns the number of structural changes requested of this list so far, leaving out
+	 * those that emptying the change queue made.
+	 * 
+	 * @return a counter that changes whenever this list is structurally modified, or a change
+	 *         is enqueued or discarded
+	 */
+	private int writes() {
+		return modCount + changes.modifications() - flushIncrements;
+	}
+
+	/**
+	 * Empty this list's change queue, and make sure that this list is not sharing its applied
+	 * elements with anyone, so that they can be modified directly.
+	 */
+	private void applyChangesForWrite() {
+		applyChanges();
+		stopLending();
+		version++;
+	}
+
+	/**
+	 * Returns the number of applied elements, which may be shared with another list.
+	 * 
+	 * @return the size this list would have if its change queue were empty
+	 */
+	private int baseSize() {
+		final LazyRAMList<E> l = lender;
+		if (l != null) {
+			synchronized (l) {
+				if (lender == l) {
+					return l.lentSize();
+				}
+			}
+		}
+		return super.size();
+	}
+
+	/**
+	 * Returns the applied element at the specified index, which may be shared with another
+	 * list.
+	 * 
+	 * @param index  the index of the element to return
+	 * @return the element that would be at that index if this list's change queue were empty
+	 * 
+	 * @throws IndexOutOfBoundsException if the index is out-of-bounds
+	 */
+	private E baseGet(int index) {
+		final LazyRAMList<E> l = lender;
+		if (l != null) {
+			synchronized (l) {
+				if (lender == l) {
+					return l.lentGet(index);
+				}
+			}
+		}
+		return super.get(index);
+	}
+
+	/**
+	 * Called by a borrower, while holding this list's lock: returns this list's number of
+	 * applied elements.
+	 * 
+	 * @return this list's size, ignoring its change queue
+	 */
+	private int lentSize() {
+		return super.size();
+	}
+
+	/**
+	 * Called by a borrower, while holding this list's lock: returns this list's applied
+	 * element at the specified index.
+	 * 
+	 * @param index  the index of the element to return
+	 * @return this list's element at that index, ignoring its change queue
+	 */
+	private E lentGet(int index) {
+		return super.get(index);
+	}
+
+	/**
+	 * Returns a new, empty list whose applied elements are shared with this list's.
+	 * 
+	 * @return a new list whose elements are the same as this list's applied elements
+	 */
+	private synchronized LazyRAMList<E> lend() {
+		final LazyRAMList<E> clone = new LazyRAMList<>();
+		clone.lender = this;
+		final List<WeakReference<LazyRAMList<E>>> oldBorrowers = borrowers;
+		final List<WeakReference<LazyRAMList<E>>> newBorrowers = new ArrayList<>();
+		if (oldBorrowers != null) {
+			for (WeakReference<LazyRAMList<E>> borrower : oldBorrowers) {
+				if (borrower.get() != null) {
+					newBorrowers.add(borrower);
+				}
+			}
+		}
+		newBorrowers.add(new WeakReference<>(clone));
+		borrowers = newBorrowers;
+		return clone;
+	}
+
+	/**
+	 * Give each list still sharing this list's applied elements its own copy of them.
+	 */
+	private void stopLending() {
+		if (borrowers == null) {
+			return;
+		}
+		synchronized (this) {
+			final List<WeakReference<LazyRAMList<E>>> oldBorrowers = borrowers;
+			if (oldBorrowers == null) {
+				return;
+			}
+			// One copy serves every borrower, because each one copies it again.
+			Object[] applied = null;
+			for (WeakReference<LazyRAMList<E>> reference : oldBorrowers) {
+				final LazyRAMList<E> borrower = reference.get();
+				if (borrower != null && borrower.lender == this) {
+					if (applied == null) {
+						applied = super.toArray();
+					}
+					borrower.adopt(applied);
+				}
+			}
+			borrowers = null;
+		}
+	}
+
+	/**
+	 * Stop sharing another list's applied elements, by copying them.
+	 */
+	private void stopBorrowing() {
+		final LazyRAMList<E> l = lender;
+		if (l == null) {
+			return;
+		}
+		synchronized (l) {
+			if (lender == l) {
+				adopt(l.lentArray());
+			}
+		}
+	}
+
+	/**
+	 * Called by a borrower, while holding this list's lock: returns a copy of this list's
+	 * applied elements.
+	 * 
+	 * @return a new array
+	 */
+	private Object[] lentArray() {
+		return super.toArray();
+	}
+
+	/**
+	 * While holding the lender's lock, replace the shared applied elements with a copy of
+	 * the parameter.
+	 * <p>
+	 * This does not count as a modification of this list, since its elements stay the same.
+	 * 
+	 * @param applied  the lender's applied elements
+	 */
+	private void adopt(Object[] applied) {
+		final int expectedModCount = modCount;
+		super.addAll(elementsOf(ChangeJournal.handOff(applied)));
+		modCount = expectedModCount;
+		lender = null;
 	}
 
+	/**
+	 * Returns the object that is serialized in place of this list, once its change queue
+	 * has been emptied.
+	 * <p>
+	 * Only the elements are serialized, in a compact form; neither the change queue, nor
+	 * the capacity, nor a {@linkplain #setMetrics metrics} or {@linkplain #setWriteAheadLog
+	 * log} attachment is. A subclass is deserialized as a plain {@code LazyRAMList} unless it
+	 * overrides this method.
+	 * 
+	 * @return the serialization proxy of this list
+	 * 
+	 * @throws ObjectStreamException never, but a subclass may throw it
+	 */
+	protected Object writeReplace() throws ObjectStreamException {
+		applyChanges();
+		return new SerializationProxy(super.toArray());
+	}
+
+	/**
+	 * Rejects any attempt to deserialize this list without its serialization proxy.
+	 * 
+	 * @param in  the stream to read from
+	 * 
+	 * @throws InvalidObjectException always
+	 */
+	private void readObject(ObjectInputStream in) throws InvalidObjectException {
+		throw new InvalidObjectException("LazyRAMList must be deserialized via its serialization proxy");
+	}
+
+	/**
+	 * Returns a clone of this list in constant time, unless this list has enqueued changes,
+	 * which are applied first.
+	 * <p>
+	 * The clone shares this list's applied elements until either list is about to modify
+	 * them.
+	 */
 	@Override
 	public LazyRAMList<E> clone() {
+		final LazyRAMList<E> l = lender;
+		if (l != null && changes.isEmpty()) {
+			synchronized (l) {
+				if (lender == l) {
+					return l.lend();
+				}
+			}
+		}
 		applyChanges();
-		return new LazyRAMList<E>(this);
+		return lend();
+	}
+
+	/**
+	 * Returns the version of this list's applied elements, which increases each time the
+	 * change queue is emptied or the applied elements are written to directly, be it through
+	 * this list or through one of its views or iterators.
+	 * <p>
+	 * Enqueuing a change does not increase the version.
+	 * 
+	 * @return the version of this list's applied elements
+	 * @see LazyRAMListSnapshot#getVersion()
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns an unmodifiable view of this list's applied elements, as they are now, in
+	 * constant time: the change queue is not emptied, and later changes do not show in the
+	 * view.
+	 * <p>
+	 * The view shares the applied elements, just like a {@linkplain #clone() clone} does,
+	 * until this list is about to modify them; at that point, the view receives its own copy.
+	 * This includes writes through a {@linkplain #subList view} or a
+	 * {@linkplain #listIterator() list iterator} of this list, even one obtained before this
+	 * method was called, and each of them increases {@link #getVersion()}.
+	 * The view can be read on any thread.
+	 * 
+	 * @return a snapshot of this list as of its last flush
+	 */
+	public LazyRAMListSnapshot<E> snapshot() {
+		final long snapshotVersion = version;
+		final LazyRAMList<E> l = lender;
+		if (l != null) {
+			synchronized (l) {
+				if (lender == l) {
+					return new LazyRAMListSnapshot<>(l.lend(), snapshotVersion);
+				}
+			}
+		}
+		return new LazyRAMListSnapshot<>(lend(), snapshotVersion);
 	}
 
 	@Override
@@ -173,6 +1479,31 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 		return super.containsAll(c);
 	}
 
+	/**
+	 * Returns how much work emptying this list's change queue would be, measured as the
+	 * number of enqueued changes plus the number of elements they carry.
+	 * <p>
+	 * Because adjacent changes are coalesced, this is not necessarily the number of write
+	 * requests made since the change queue was last emptied.
+	 * 
+	 * @return {@code 0} if the change queue is empty; a positive integer otherwise
+	 */
+	protected final int getPendingWork() {
+		return changes.pendingWork();
+	}
+
+	/**
+	 * Returns whether emptying this list's change queue is certain not to fail because of
+	 * an out-of-bounds index, an opaque change, or a function supplied to
+	 * {@link #replaceAll}, {@link #removeIfDeferred}, or {@link #sort}.
+	 * 
+	 * @return {@code true} if the change queue is empty, or if every enqueued change is
+	 *         known to be valid and calls no such function; {@code false} otherwise
+	 */
+	protected final boolean canApplyChangesSafely() {
+		return changes.isEmpty() || isProjectionUsable() && !changes.callsBack();
+	}
+
 	/**
 	 * Postpone the {@linkplain Runnable#run() execution} of the parameter.
 	 * <p>
@@ -189,16 +1520,38 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 	 * queue is being emptied.
 	 * (However, if said index is negative, that validation is not postponed.)
 	 * </em>
+	 * <p>
+	 * Because the parameter cannot be inspected, it is never coalesced with any other change,
+	 * and a later {@link #clear()} does not discard it.
 	 * 
 	 * @param change  the write request whose execution to postpone
+	 * 
+	 * @throws IllegalStateException if this list has a {@linkplain #setWriteAheadLog
+	 *                               write-ahead log}
+	 * @throws NullPointerException  if the parameter is {@code null}
 	 */
 	protected final void enqueueChange(Runnable change) {
-		changes.add(change);
+		if (change == null) {
+			throw new NullPointerException("Null change parameter: " + change);
+		}
+		if (log != null) {
+			throw new IllegalStateException("Cannot record an opaque change in a write-ahead log: " + change);
+		}
+		beginProjection();
+		projectionKnown = false;
+		changes.run(change);
+		if (metrics != null) {
+			recordWrite();
+		}
 	}
 
 	@Override
 	public void ensureCapacity(int minCapacity) {
-		enqueueChange(() -> super.ensureCapacity(minCapacity));
+		beginProjection();
+		changes.changeCapacity(ChangeJournal.ENSURE_CAPACITY, minCapacity);
+		if (metrics != null) {
+			recordWrite();
+		}
 	}
 
 	@Override
@@ -209,12 +1562,94 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 
 	@Override
 	public void forEach(Consumer<? super E> action) {
-		applyChanges();
-		super.forEach(action);
+		if (!changes.isAppendOnly()) {
+			applyChanges();
+		}
+		new OverlayIterator().forEachRemaining(action);
+	}
+
+	/**
+	 * Returns whether the projected size and stable prefix can be used instead of emptying
+	 * the change queue.
+	 * 
+	 * @return {@code true} if the change queue is not empty and its effect on this list's size
+	 *         and leading elements is known; {@code false} otherwise
+	 */
+	private boolean isProjectionUsable() {
+		return !changes.isEmpty() && projectionKnown && projectedModCount == modCount;
+	}
+
+	/**
+	 * Start projecting the effect of the change queue, if the change queue is empty.
+	 * <p>
+	 * Call this before enqueuing any change.
+	 */
+	private void beginProjection() {
+		if (changes.isEmpty()) {
+			projectionKnown = true;
+			projectedSize = baseSize();
+			stablePrefix = projectedSize;
+			projectedModCount = modCount;
+		}
 	}
 
+	/**
+	 * Project the effect of inserting the specified number of elements.
+	 * 
+	 * @param index  where to insert, or {@code -1} to append
+	 * @param count  the number of elements to insert
+	 */
+	private void projectInsert(int index, int count) {
+		beginProjection();
+		if (!projectionKnown) {
+			return;
+		}
+		if (index < 0) {
+			index = projectedSize;
+		} else if (index > projectedSize) {
+			// Emptying the change queue is certain to fail, so let it.
+			projectionKnown = false;
+			return;
+		}
+		if (projectedSize + count < 0) {
+			projectionKnown = false;
+			return;
+		}
+		projectedSize += count;
+		stablePrefix = Math.min(stablePrefix, index);
+	}
+
+	/**
+	 * Project the effect of removing the specified range.
+	 * 
+	 * @param fromIndex  the nonnegative start of the range, inclusive
+	 * @param toIndex    the end of the range, exclusive, which is at least {@code fromIndex}
+	 */
+	private void projectRemoveRange(int fromIndex, int toIndex) {
+		beginProjection();
+		if (!projectionKnown) {
+			return;
+		}
+		if (toIndex > projectedSize) {
+			// Emptying the change queue is certain to fail, so let it.
+			projectionKnown = false;
+			return;
+		}
+		projectedSize -= toIndex - fromIndex;
+		stablePrefix = Math.min(stablePrefix, fromIndex);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the specified index precedes every index that an enqueued change affects, the change
+	 * queue is not emptied.
+	 */
 	@Override
 	public E get(int index) {
+		if (changes.isEmpty() || index >= 0 && index < stablePrefix && isProjectionUsable()) {
+			return baseGet(index);
+		}
 		applyChanges();
 		return super.get(index);
 	}
@@ -231,16 +1666,23 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 		return super.indexOf(o);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the effect of every enqueued change on this list's size is known, the change queue
+	 * is not emptied.
+	 */
 	@Override
 	public boolean isEmpty() {
-		applyChanges();
-		return super.isEmpty();
+		return size() == 0;
 	}
 
 	@Override
 	public Iterator<E> iterator() {
-		applyChanges();
-		return super.iterator();
+		if (!changes.isAppendOnly()) {
+			applyChanges();
+		}
+		return new OverlayIterator();
 	}
 
 	@Override
@@ -249,46 +1691,129 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 		return super.lastIndexOf(o);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The iterator hands every request over to this list's methods, so that it does not
+	 * empty the change queue until it reads an element that an enqueued change affects.
+	 */
 	@Override
 	public ListIterator<E> listIterator() {
-		applyChanges();
-		return super.listIterator();
+		return listIterator(0);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The iterator hands every request over to this list's methods, so that it does not
+	 * empty the change queue until it reads an element that an enqueued change affects.
+	 */
 	@Override
 	public ListIterator<E> listIterator(int index) {
-		applyChanges();
-		return super.listIterator(index);
+		return new SubList(null, 0, size()).listIterator(index);
 	}
 
 	@Override
 	public Stream<E> parallelStream() {
-		applyChanges();
-		return super.parallelStream();
+		return StreamSupport.stream(spliterator(), true);
 	}
 
 	@Override
 	public E remove(int index) {
-		applyChanges();
-		return super.remove(index);
+		applyChangesForWrite();
+		final E e = super.remove(index);
+		if (log != null) {
+			log.removeRange(index, index + 1);
+		}
+		return e;
 	}
 
 	@Override
 	public boolean remove(Object o) {
-		applyChanges();
-		return super.remove(o);
+		applyChangesForWrite();
+		if (log == null) {
+			return super.remove(o);
+		}
+		final int index = super.indexOf(o);
+		if (index < 0) {
+			return false;
+		}
+		remove(index);
+		return true;
 	}
 
 	@Override
 	public boolean removeAll(Collection<?> c) {
-		applyChanges();
-		return super.removeAll(c);
+		applyChangesForWrite();
+		final boolean modified = super.removeAll(c);
+		if (modified && log != null) {
+			log.snapshot(this);
+		}
+		return modified;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Because its result depends on this list's elements, this method empties the change
+	 * queue. Any {@link #replaceAll} and {@link #removeIfDeferred} calls enqueued right
+	 * before it are applied in the same pass over this list's elements.
+	 */
 	@Override
 	public boolean removeIf(Predicate<? super E> filter) {
-		applyChanges();
-		return super.removeIf(filter);
+		if (filter == null) {
+			throw new NullPointerException("Null filter parameter: " + filter);
+		}
+		if (log != null) {
+			applyChangesForWrite();
+			final boolean modified = super.removeIf(filter);
+			if (modified) {
+				log.snapshot(this);
+			}
+			return modified;
+		}
+		final boolean[] modified = new boolean[1];
+		removeIfDeferred(e -> {
+			if (filter.test(e)) {
+				modified[0] = true;
+				return true;
+			}
+			return false;
+		});
+		applyChangesForWrite();
+		return modified[0];
+	}
+
+	/**
+	 * Enqueues a removal of each element that satisfies the specified predicate, like
+	 * {@link #removeIf} but without reporting whether any element was removed.
+	 * <p>
+	 * Consecutive {@link #replaceAll} and {@code removeIfDeferred} calls are applied in a
+	 * single pass over this list's elements, each element going through every step in
+	 * order. Since the number of removed elements is unknown until then, a later call to
+	 * {@link #size()} empties the change queue.
+	 * <p>
+	 * If this list has a {@linkplain #setWriteAheadLog write-ahead log}, the removal is
+	 * applied immediately instead.
+	 * 
+	 * @param filter  a predicate that returns {@code true} for elements to remove
+	 * 
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	public void removeIfDeferred(Predicate<? super E> filter) {
+		if (filter == null) {
+			throw new NullPointerException("Null filter parameter: " + filter);
+		}
+		if (log != null) {
+			removeIf(filter);
+			return;
+		}
+		beginProjection();
+		projectionKnown = false;
+		changes.filter(filter);
+		if (metrics != null) {
+			recordWrite();
+		}
 	}
 
 	@Override
@@ -303,55 +1828,125 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 			throw new IndexOutOfBoundsException("fromIndex parameter (" + fromIndex
 					+ ") cannot exceed toIndex parameter (" + toIndex + ").");
 		}
-		enqueueChange(() -> super.removeRange(fromIndex, toIndex));
+		projectRemoveRange(fromIndex, toIndex);
+		changes.removeRange(fromIndex, toIndex);
+		if (metrics != null) {
+			recordWrite();
+		}
+		if (log != null) {
+			log.removeRange(fromIndex, toIndex);
+		}
 	}
 
 	@Override
 	public void replaceAll(UnaryOperator<E> operator) {
-		applyChanges();
-		super.replaceAll(operator);
+		if (operator == null) {
+			throw new NullPointerException("Null operator parameter: " + operator);
+		}
+		if (log != null) {
+			applyChangesForWrite();
+			super.replaceAll(operator);
+			log.snapshot(this);
+			return;
+		}
+		beginProjection();
+		stablePrefix = 0;
+		changes.transform(operator);
+		if (metrics != null) {
+			recordWrite();
+		}
 	}
 
 	@Override
 	public boolean retainAll(Collection<?> c) {
-		applyChanges();
-		return super.retainAll(c);
+		applyChangesForWrite();
+		final boolean modified = super.retainAll(c);
+		if (modified && log != null) {
+			log.snapshot(this);
+		}
+		return modified;
 	}
 
 	@Override
 	public E set(int index, E element) {
-		applyChanges();
-		return super.set(index, element);
+		applyChangesForWrite();
+		final E previous = super.set(index, element);
+		if (log != null) {
+			log.set(index, element);
+		}
+		return previous;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the effect of every enqueued change on this list's size is known, the change queue
+	 * is not emptied.
+	 */
 	@Override
 	public int size() {
+		if (changes.isEmpty()) {
+			return baseSize();
+		}
+		if (isProjectionUsable()) {
+			return projectedSize;
+		}
 		applyChanges();
 		return super.size();
 	}
 
 	@Override
 	public void sort(Comparator<? super E> c) {
-		applyChanges();
-		super.sort(c);
+		if (log != null) {
+			applyChangesForWrite();
+			super.sort(c);
+			log.snapshot(this);
+			return;
+		}
+		beginProjection();
+		stablePrefix = 0;
+		changes.sort(c);
+		if (metrics != null) {
+			recordWrite();
+		}
 	}
 
 	@Override
 	public Spliterator<E> spliterator() {
-		applyChanges();
-		return super.spliterator();
+		if (!changes.isAppendOnly()) {
+			applyChanges();
+		}
+		return new OverlaySpliterator();
 	}
 
 	@Override
 	public Stream<E> stream() {
-		applyChanges();
-		return super.stream();
+		return StreamSupport.stream(spliterator(), false);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The view hands every request over to this list's methods: writing to it enqueues
+	 * changes just like writing to this list does, and reading from it does not empty the
+	 * change queue unless reading from this list would. Emptying the change queue does not
+	 * invalidate the view.
+	 */
 	@Override
 	public List<E> subList(int fromIndex, int toIndex) {
-		applyChanges();
-		return super.subList(fromIndex, toIndex);
+		final int size = size();
+		if (fromIndex < 0) {
+			throw new IndexOutOfBoundsException("Negative fromIndex parameter: " + fromIndex);
+		}
+		if (toIndex > size) {
+			throw new IndexOutOfBoundsException("toIndex parameter (" + toIndex
+					+ ") cannot exceed size (" + size + ").");
+		}
+		if (toIndex < fromIndex) {
+			throw new IndexOutOfBoundsException("fromIndex parameter (" + fromIndex
+					+ ") cannot exceed toIndex parameter (" + toIndex + ").");
+		}
+		return new SubList(null, fromIndex, toIndex - fromIndex);
 	}
 
 	@Override
@@ -380,7 +1975,11 @@ public class LazyRAMList<E> extends ArrayList<E> implements CloneableBase {
 
 	@Override
 	public void trimToSize() {
-		enqueueChange(() -> super.trimToSize());
+		beginProjection();
+		changes.changeCapacity(ChangeJournal.TRIM_TO_SIZE, 0);
+		if (metrics != null) {
+			recordWrite();
+		}
 	}
 
 	/**
@@ -0,0 +1,324 @@
+package vgp.list;
+
+import java.lang.StackWalker.StackFrame;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters describing how one or more {@link LazyRAMList}s enqueue and apply changes.
+ * <p>
+ * A list only collects metrics once it is given a {@code LazyRAMListMetrics} via
+ * {@link LazyRAMList#setMetrics}; until then, the only cost is a {@code null} check per
+ * request. Any number of lists, on any number of threads, may share one
+ * {@code LazyRAMListMetrics}.
+ * <p>
+ * The metrics can be read directly, published to JMX via {@link #register(String)}, or
+ * observed one flush at a time via a {@link LazyFlushListener}.
+ *
+ * @author [...]
+ * @version 2.5
+ * @since 2.5
+ */
+public class LazyRAMListMetrics implements LazyRAMListMetricsMXBean {
+
+	/**
+	 * The number of buckets in each histogram: one per bit length of a {@code long}.
+	 */
+	private static final int BUCKETS = Long.SIZE;
+
+	/**
+	 * The stack walker used to find the list method that emptied a change queue.
+	 */
+	private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+	/**
+	 * The number of changes currently enqueued.
+	 */
+	private final LongAdder pendingChanges = new LongAdder();
+
+	/**
+	 * The largest number of changes that a single list has had enqueued at once.
+	 */
+	private final LongAccumulator maxPendingChanges = new LongAccumulator(Math::max, 0L);
+
+	/**
+	 * The number of enqueued write requests.
+	 */
+	private final LongAdder writeCount = new LongAdder();
+
+	/**
+	 * The number of times a change queue was emptied.
+	 */
+	private final LongAdder flushCount = new LongAdder();
+
+	/**
+	 * The number of applied changes.
+	 */
+	private final LongAdder appliedChangeCount = new LongAdder();
+
+	/**
+	 * The total time spent emptying change queues, in nanoseconds.
+	 */
+	private final LongAdder totalFlushNanos = new LongAdder();
+
+	/**
+	 * The histogram of flush durations, in nanoseconds.
+	 */
+	private final AtomicLongArray flushNanosHistogram = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * The histogram of changes per flush.
+	 */
+	private final AtomicLongArray changesPerFlushHistogram = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * The number of flushes caused by each list method.
+	 */
+	private final ConcurrentHashMap<String, LongAdder> flushTriggers = new ConcurrentHashMap<>();
+
+	/**
+	 * The listeners to notify after each flush.
+	 */
+	private final CopyOnWriteArrayList<LazyFlushListener> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Constructs a new {@code LazyRAMListMetrics} whose counters are all zero.
+	 */
+	public LazyRAMListMetrics() {
+		super();
+	}
+
+	/**
+	 * Registers the specified listener, to be notified after each flush of a list using
+	 * these metrics.
+	 *
+	 * @param listener  the listener to register
+	 *
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	public void addListener(LazyFlushListener listener) {
+		if (listener == null) {
+			throw new NullPointerException("Null listener parameter: " + listener);
+		}
+		listeners.add(listener);
+	}
+
+	/**
+	 * Unregisters the specified listener, if it is registered.
+	 *
+	 * @param listener  the listener to unregister
+	 */
+	public void removeListener(LazyFlushListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Registers these metrics with the platform MBean server, under the object name
+	 * {@code vgp.list:type=LazyRAMList,name=}<em>{@code name}</em>, where the name is quoted
+	 * as by {@link javax.management.ObjectName#quote(String)}.
+	 *
+	 * @param name  the name that identifies these metrics
+	 *
+	 * @throws IllegalArgumentException if that object name is already registered, or
+	 *                                  cannot be registered
+	 * @throws NullPointerException     if the parameter is {@code null}
+	 */
+	public void register(String name) {
+		if (name == null) {
+			throw new NullPointerException("Null name parameter: " + name);
+		}
+		try {
+			final ObjectName objectName = new ObjectName("vgp.list:type=LazyRAMList,name=" + ObjectName.quote(name));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		} catch (JMException e) {
+			throw new IllegalArgumentException("Cannot register metrics as " + name, e);
+		}
+	}
+
+	@Override
+	public long getPendingChanges() {
+		return pendingChanges.sum();
+	}
+
+	@Override
+	public long getMaxPendingChanges() {
+		return maxPendingChanges.get();
+	}
+
+	@Override
+	public long getWriteCount() {
+		return writeCount.sum();
+	}
+
+	@Override
+	public long getFlushCount() {
+		return flushCount.sum();
+	}
+
+	@Override
+	public long getAppliedChangeCount() {
+		return appliedChangeCount.sum();
+	}
+
+	@Override
+	public double getCoalescingRatio() {
+		final long applied = appliedChangeCount.sum();
+		return applied == 0 ? Double.NaN : (double) writeCount.sum() / applied;
+	}
+
+	@Override
+	public long getTotalFlushNanos() {
+		return totalFlushNanos.sum();
+	}
+
+	@Override
+	public long[] getFlushNanosHistogram() {
+		return toArray(flushNanosHistogram);
+	}
+
+	@Override
+	public long[] getChangesPerFlushHistogram() {
+		return toArray(changesPerFlushHistogram);
+	}
+
+	@Override
+	public Map<String, Long> getFlushTriggers() {
+		final Map<String, Long> map = new TreeMap<>();
+		flushTriggers.forEach((trigger, count) -> map.put(trigger, count.sum()));
+		return map;
+	}
+
+	@Override
+	public void reset() {
+		maxPendingChanges.reset();
+		writeCount.reset();
+		flushCount.reset();
+		appliedChangeCount.reset();
+		totalFlushNanos.reset();
+		for (int i = 0; i < BUCKETS; i++) {
+			flushNanosHistogram.set(i, 0L);
+			changesPerFlushHistogram.set(i, 0L);
+		}
+		flushTriggers.clear();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("LazyRAMListMetrics [pendingChanges=%d, writeCount=%d, flushCount=%d, "
+				+ "appliedChangeCount=%d, totalFlushNanos=%d]", getPendingChanges(), getWriteCount(),
+				getFlushCount(), getAppliedChangeCount(), getTotalFlushNanos());
+	}
+
+	/**
+	 * Called by a list after it enqueued a write request.
+	 *
+	 * @param pendingDelta  how much the number of enqueued changes grew, which is
+	 *                      {@code 0} if the write request was coalesced, or negative if it
+	 *                      discarded earlier changes
+	 * @param pending       the number of changes now enqueued by that list
+	 */
+	void recordWrite(int pendingDelta, int pending) {
+		writeCount.increment();
+		if (pendingDelta != 0) {
+			pendingChanges.add(pendingDelta);
+		}
+		maxPendingChanges.accumulate(pending);
+	}
+
+	/**
+	 * Called by a list when it starts or stops using these metrics.
+	 *
+	 * @param pendingDelta  the number of changes enqueued by that list, negated if it stops
+	 */
+	void recordPending(int pendingDelta) {
+		pendingChanges.add(pendingDelta);
+	}
+
+	/**
+	 * Called by a list after it emptied its change queue, or failed to.
+	 *
+	 * @param list           the list
+	 * @param changeCount    the number of changes that were dequeued
+	 * @param work           the number of changes plus the number of elements they carried
+	 * @param durationNanos  how long applying the changes took
+	 */
+	void recordFlush(LazyRAMList<?> list, int changeCount, int work, long durationNanos) {
+		final String trigger = findTrigger();
+		pendingChanges.add(-changeCount);
+		flushCount.increment();
+		appliedChangeCount.add(changeCount);
+		totalFlushNanos.add(durationNanos);
+		flushNanosHistogram.incrementAndGet(bucket(durationNanos));
+		changesPerFlushHistogram.incrementAndGet(bucket(changeCount));
+		flushTriggers.computeIfAbsent(trigger, t -> new LongAdder()).increment();
+		for (LazyFlushListener listener : listeners) {
+			listener.changesApplied(list, trigger, changeCount, work, durationNanos);
+		}
+	}
+
+	/**
+	 * Returns the name of the outermost list method on the current thread's stack, which
+	 * is the one that its caller invoked.
+	 *
+	 * @return a method name
+	 */
+	private static String findTrigger() {
+		final Optional<String> trigger = WALKER.walk(frames -> frames
+				.dropWhile(frame -> !isListFrame(frame))
+				.takeWhile(LazyRAMListMetrics::isListFrame)
+				.reduce((inner, outer) -> outer)
+				.map(StackFrame::getMethodName));
+		return trigger.orElse("unknown");
+	}
+
+	/**
+	 * Returns whether the specified stack frame belongs to a list class or to a class
+	 * nested in one.
+	 *
+	 * @param frame  the stack frame
+	 * @return {@code true} if the frame's class is a {@link LazyRAMList} or nested in one
+	 */
+	private static boolean isListFrame(StackFrame frame) {
+		for (Class<?> c = frame.getDeclaringClass(); c != null; c = c.getEnclosingClass()) {
+			if (LazyRAMList.class.isAssignableFrom(c)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the histogram bucket of the specified value.
+	 *
+	 * @param value  a nonnegative value
+	 * @return the bit length of the value
+	 */
+	private static int bucket(long value) {
+		return Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(Math.max(0L, value)));
+	}
+
+	/**
+	 * Returns a copy of the specified histogram.
+	 *
+	 * @param histogram  the histogram
+	 * @return a new array
+	 */
+	private static long[] toArray(AtomicLongArray histogram) {
+		final long[] counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = histogram.get(i);
+		}
+		return counts;
+	}
+
+}
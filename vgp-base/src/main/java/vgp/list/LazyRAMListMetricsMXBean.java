@@ -0,0 +1,96 @@
+package vgp.list;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link LazyRAMListMetrics}.
+ * <p>
+ * Each histogram is an array of 64 counts, where the count at index {@code 0} is for the
+ * value {@code 0}, and the count at each index {@code i > 0} is for the values from
+ * {@code 2^(i-1)}, inclusive, to {@code 2^i}, exclusive.
+ *
+ * @author [...]
+ * @version 2.5
+ * @since 2.5
+ */
+public interface LazyRAMListMetricsMXBean {
+
+	/**
+	 * Returns the number of changes currently enqueued by every list using these metrics.
+	 *
+	 * @return a nonnegative integer
+	 */
+	long getPendingChanges();
+
+	/**
+	 * Returns the largest number of changes that a single list using these metrics has had
+	 * enqueued at once.
+	 *
+	 * @return a nonnegative integer
+	 */
+	long getMaxPendingChanges();
+
+	/**
+	 * Returns the number of write requests that were enqueued.
+	 *
+	 * @return a nonnegative integer
+	 */
+	long getWriteCount();
+
+	/**
+	 * Returns the number of times a change queue was emptied.
+	 *
+	 * @return a nonnegative integer
+	 */
+	long getFlushCount();
+
+	/**
+	 * Returns the number of changes that were applied, after coalescing.
+	 *
+	 * @return a nonnegative integer
+	 */
+	long getAppliedChangeCount();
+
+	/**
+	 * Returns the number of write requests per applied change.
+	 *
+	 * @return a number that is at least {@code 1} if any write request was coalesced, or
+	 *         {@code NaN} if no change was applied
+	 */
+	double getCoalescingRatio();
+
+	/**
+	 * Returns how long, in nanoseconds, emptying change queues took in total.
+	 *
+	 * @return a nonnegative integer
+	 */
+	long getTotalFlushNanos();
+
+	/**
+	 * Returns the histogram of how long, in nanoseconds, each emptying of a change queue
+	 * took.
+	 *
+	 * @return a new array of 64 counts
+	 */
+	long[] getFlushNanosHistogram();
+
+	/**
+	 * Returns the histogram of how many changes each emptying of a change queue applied.
+	 *
+	 * @return a new array of 64 counts
+	 */
+	long[] getChangesPerFlushHistogram();
+
+	/**
+	 * Returns how many times each list method caused a change queue to be emptied.
+	 *
+	 * @return a new map from method names to counts
+	 */
+	Map<String, Long> getFlushTriggers();
+
+	/**
+	 * Sets every counter and histogram to zero, except for {@link #getPendingChanges()}.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,68 @@
+package vgp.list;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * An unmodifiable view of the elements that a {@link LazyRAMList} had applied when
+ * {@link LazyRAMList#snapshot()} was called.
+ * <p>
+ * Changes enqueued on, or applied to, the list afterward do not show in this view, even
+ * those made through a view or an iterator of the list that was obtained earlier. Until
+ * the list is about to modify the elements that this view shares, each read request on this
+ * view briefly holds the list's lock; afterward, this view reads its own copy.
+ * <p>
+ * This view can be read on any thread.
+ *
+ * @author [...]
+ * @version 2.5
+ * @param <E> a type shared by each element in this view
+ * @since 2.5
+ */
+public final class LazyRAMListSnapshot<E> extends AbstractList<E> implements RandomAccess {
+
+	/**
+	 * The list that borrows the applied elements, and never has a change enqueued.
+	 */
+	private final LazyRAMList<E> elements;
+
+	/**
+	 * The version of the applied elements.
+	 */
+	private final long version;
+
+	/**
+	 * Constructs a new {@code LazyRAMListSnapshot}.
+	 *
+	 * @param elements  a list that borrows the applied elements
+	 * @param version   the version of the applied elements
+	 */
+	LazyRAMListSnapshot(LazyRAMList<E> elements, long version) {
+		super();
+		this.elements = elements;
+		this.version = version;
+	}
+
+	@Override
+	public E get(int index) {
+		return elements.get(index);
+	}
+
+	/**
+	 * Returns the version that the list's applied elements had when this view was taken.
+	 * <p>
+	 * Subtract it from the list's current {@linkplain LazyRAMList#getVersion() version} to
+	 * tell how many times the list's applied elements have changed since.
+	 *
+	 * @return the version of the elements in this view
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+}
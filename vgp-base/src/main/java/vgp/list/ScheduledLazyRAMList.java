@@ -0,0 +1,573 @@
+package vgp.list;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import vgp.dispose.Disposable;
+
+/**
+ * A {@link LazyRAMList} whose change queue is also emptied in the background, according to
+ * a {@link LazyFlushPolicy}, so that the first read request after a long burst of write
+ * requests does not have to pay for the whole burst.
+ * <p>
+ * The change queue is emptied on a background thread once the work in it reaches the
+ * policy's flush threshold, or once it has gone without new changes for the policy's idle
+ * time. A write request that would make the work in the change queue exceed the policy's
+ * maximum read charge empties the queue itself, so that no read request is ever charged
+ * more than that.
+ * <p>
+ * The background thread only empties a change queue if doing so is certain not to fail. A
+ * change queue that might fail is left for the next read request, which reports the failure
+ * as {@link LazyRAMList} would. A write request that empties the change queue because of
+ * the maximum read charge, however, reports any such failure itself.
+ * <p>
+ * Every method of this list is {@code synchronized}. As with
+ * {@link java.util.Collections#synchronizedList(List)}, the caller must synchronize on
+ * this list while using any iterator, stream, or view obtained from it, because the
+ * background thread may modify this list at any moment.
+ * <p>
+ * All lists of this class share a single daemon thread for emptying their change queues.
+ * Call {@link #dispose()} to stop a list's background work; a list that becomes
+ * unreachable stops it as well.
+ *
+ * @author [...]
+ * @version 2.5
+ * @param <E> a type shared by each element in this list
+ * @since 2.5
+ */
+public class ScheduledLazyRAMList<E> extends LazyRAMList<E> implements Disposable {
+
+	/**
+	 * The executor shared by every {@link ScheduledLazyRAMList}, created on first use.
+	 *
+	 * @version 2.5
+	 * @since 2.5
+	 */
+	private static final class Flusher {
+
+		/**
+		 * The executor that empties change queues in the background.
+		 */
+		static final ScheduledThreadPoolExecutor EXECUTOR = createExecutor();
+
+		/**
+		 * Creates an executor with a single daemon thread.
+		 *
+		 * @return a new executor
+		 */
+		private static ScheduledThreadPoolExecutor createExecutor() {
+			final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+				final Thread thread = new Thread(r, "ScheduledLazyRAMList flusher");
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.setRemoveOnCancelPolicy(true);
+			return executor;
+		}
+	}
+
+	/**
+	 * The background work of one {@link ScheduledLazyRAMList}, which does not keep that
+	 * list reachable.
+	 *
+	 * @version 2.5
+	 * @since 2.5
+	 */
+	private static final class FlushTask implements Runnable {
+
+		/**
+		 * The list whose change queue to empty.
+		 */
+		private final WeakReference<ScheduledLazyRAMList<?>> list;
+
+		/**
+		 * The periodic execution of this task, which is cancelled once the list is gone.
+		 */
+		private volatile Future<?> periodic;
+
+		/**
+		 * Constructs a new {@code FlushTask} for the specified list.
+		 *
+		 * @param list  the list whose change queue to empty
+		 */
+		FlushTask(ScheduledLazyRAMList<?> list) {
+			this.list = new WeakReference<>(list);
+		}
+
+		@Override
+		public void run() {
+			final ScheduledLazyRAMList<?> l = list.get();
+			if (l == null) {
+				final Future<?> p = periodic;
+				if (p != null) {
+					p.cancel(false);
+				}
+				return;
+			}
+			l.flushInBackground();
+		}
+	}
+
+	/**
+	 * The {@code serialVersionUID} of this class, as specified by {@link java.io.Serializable}.
+	 */
+	private static final long serialVersionUID = 8823374904468093615L;
+
+	/**
+	 * When this list's change queue is emptied without waiting for a read request.
+	 */
+	private final LazyFlushPolicy policy;
+
+	/**
+	 * This list's background work.
+	 */
+	private final transient FlushTask flushTask;
+
+	/**
+	 * The value of {@link System#nanoTime()} when a change was last enqueued.
+	 */
+	private long lastWriteNanos;
+
+	/**
+	 * Whether {@link #flushTask} has been submitted because the flush threshold was reached,
+	 * and has not run yet.
+	 */
+	private boolean flushRequested;
+
+	/**
+	 * Must never change from {@code true} to {@code false}.
+	 */
+	private boolean disposed = false;
+
+	/**
+	 * Constructs a new, empty {@code ScheduledLazyRAMList} with the specified policy.
+	 *
+	 * @param policy  when to empty this list's change queue without waiting for a read
+	 *                request
+	 *
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	public ScheduledLazyRAMList(LazyFlushPolicy policy) {
+		super();
+		this.policy = requirePolicy(policy);
+		this.flushTask = schedule();
+	}
+
+	/**
+	 * Constructs a new {@code ScheduledLazyRAMList} with the specified policy whose
+	 * initial elements are copied from the specified collection.
+	 *
+	 * @param c       the collection to clone
+	 * @param policy  when to empty this list's change queue without waiting for a read
+	 *                request
+	 *
+	 * @throws NullPointerException if either parameter is {@code null}
+	 */
+	public ScheduledLazyRAMList(Collection<? extends E> c, LazyFlushPolicy policy) {
+		super(c);
+		this.policy = requirePolicy(policy);
+		this.flushTask = schedule();
+	}
+
+	/**
+	 * Constructs a new, empty {@code ScheduledLazyRAMList} with the specified initial
+	 * capacity and policy.
+	 *
+	 * @param initialCapacity  a nonnegative integer
+	 * @param policy           when to empty this list's change queue without waiting for a
+	 *                         read request
+	 *
+	 * @throws NullPointerException if {@code policy} is {@code null}
+	 */
+	public ScheduledLazyRAMList(int initialCapacity, LazyFlushPolicy policy) {
+		super(initialCapacity);
+		this.policy = requirePolicy(policy);
+		this.flushTask = schedule();
+	}
+
+	/**
+	 * Returns the parameter, making sure that it is not {@code null}.
+	 *
+	 * @param policy  the policy to check
+	 * @return the parameter
+	 *
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	private static LazyFlushPolicy requirePolicy(LazyFlushPolicy policy) {
+		if (policy == null) {
+			throw new NullPointerException("Null policy parameter: " + policy);
+		}
+		return policy;
+	}
+
+	/**
+	 * Start checking this list's idle time in the background.
+	 *
+	 * @return this list's background work
+	 */
+	private FlushTask schedule() {
+		final FlushTask task = new FlushTask(this);
+		final long period = Math.max(policy.getIdleTime(TimeUnit.NANOSECONDS) / 2, TimeUnit.MILLISECONDS.toNanos(1));
+		task.periodic = Flusher.EXECUTOR.scheduleWithFixedDelay(task, period, period, TimeUnit.NANOSECONDS);
+		return task;
+	}
+
+	/**
+	 * Returns when this list's change queue is emptied without waiting for a read request.
+	 *
+	 * @return the policy specified at construction
+	 */
+	public final LazyFlushPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Called by the background thread: empty this list's change queue if the policy says
+	 * to and doing so is certain not to fail.
+	 */
+	private synchronized void flushInBackground() {
+		flushRequested = false;
+		if (disposed) {
+			return;
+		}
+		final int work = getPendingWork();
+		if (work == 0 || !canApplyChangesSafely()) {
+			return;
+		}
+		if (work >= policy.getFlushThreshold()
+				|| System.nanoTime() - lastWriteNanos >= policy.getIdleTime(TimeUnit.NANOSECONDS)) {
+			applyChanges();
+		}
+	}
+
+	/**
+	 * Called after every write request: enforce the maximum read charge, and ask the
+	 * background thread to empty this list's change queue once the flush threshold is
+	 * reached.
+	 */
+	private void afterWrite() {
+		lastWriteNanos = System.nanoTime();
+		final int work = getPendingWork();
+		if (work > policy.getMaxReadCharge()) {
+			applyChanges();
+		} else if (work >= policy.getFlushThreshold() && !flushRequested) {
+			flushRequested = true;
+			Flusher.EXECUTOR.execute(flushTask);
+		}
+	}
+
+	@Override
+	public synchronized boolean add(E e) {
+		verifyNotDisposed();
+		final boolean changed = super.add(e);
+		afterWrite();
+		return changed;
+	}
+
+	@Override
+	public synchronized void add(int index, E element) {
+		verifyNotDisposed();
+		super.add(index, element);
+		afterWrite();
+	}
+
+	@Override
+	public synchronized boolean addAll(Collection<? extends E> c) {
+		verifyNotDisposed();
+		final boolean changed = super.addAll(c);
+		afterWrite();
+		return changed;
+	}
+
+	@Override
+	public synchronized boolean addAll(int index, Collection<? extends E> c) {
+		verifyNotDisposed();
+		final boolean changed = super.addAll(index, c);
+		afterWrite();
+		return changed;
+	}
+
+	@Override
+	public synchronized void clear() {
+		verifyNotDisposed();
+		super.clear();
+		afterWrite();
+	}
+
+	@Override
+	public synchronized ScheduledLazyRAMList<E> clone() {
+		verifyNotDisposed();
+		return new ScheduledLazyRAMList<>(this, policy);
+	}
+
+	@Override
+	public synchronized boolean contains(Object o) {
+		verifyNotDisposed();
+		return super.contains(o);
+	}
+
+	@Override
+	public synchronized boolean containsAll(Collection<?> c) {
+		verifyNotDisposed();
+		return super.containsAll(c);
+	}
+
+	/**
+	 * Stop this list's background work, and then remove every element and every
+	 * enqueued change.
+	 */
+	@Override
+	public synchronized void dispose() {
+		if (isDisposed()) {
+			return;
+		}
+		disposed = true;
+		final Future<?> periodic = flushTask.periodic;
+		if (periodic != null) {
+			periodic.cancel(false);
+		}
+		super.clear();
+		try {
+			applyChanges();
+		} catch (RuntimeException e) {
+			// Every change before the clear was discarded, except for opaque ones,
+			// which have no business failing during disposal.
+		}
+	}
+
+	@Override
+	public synchronized void ensureCapacity(int minCapacity) {
+		verifyNotDisposed();
+		super.ensureCapacity(minCapacity);
+		afterWrite();
+	}
+
+	@Override
+	public synchronized boolean equals(Object o) {
+		verifyNotDisposed();
+		return super.equals(o);
+	}
+
+	@Override
+	public synchronized void forEach(Consumer<? super E> action) {
+		verifyNotDisposed();
+		super.forEach(action);
+	}
+
+	@Override
+	public synchronized E get(int index) {
+		verifyNotDisposed();
+		return super.get(index);
+	}
+
+	@Override
+	public synchronized int hashCode() {
+		verifyNotDisposed();
+		return super.hashCode();
+	}
+
+	@Override
+	public synchronized int indexOf(Object o) {
+		verifyNotDisposed();
+		return super.indexOf(o);
+	}
+
+	@Override
+	public synchronized boolean isDisposed() {
+		return disposed;
+	}
+
+	@Override
+	public synchronized boolean isEmpty() {
+		verifyNotDisposed();
+		return super.isEmpty();
+	}
+
+	@Override
+	public synchronized Iterator<E> iterator() {
+		verifyNotDisposed();
+		return super.iterator();
+	}
+
+	@Override
+	public synchronized int lastIndexOf(Object o) {
+		verifyNotDisposed();
+		return super.lastIndexOf(o);
+	}
+
+	@Override
+	public synchronized ListIterator<E> listIterator() {
+		verifyNotDisposed();
+		return super.listIterator();
+	}
+
+	@Override
+	public synchronized ListIterator<E> listIterator(int index) {
+		verifyNotDisposed();
+		return super.listIterator(index);
+	}
+
+	@Override
+	public synchronized Stream<E> parallelStream() {
+		verifyNotDisposed();
+		return super.parallelStream();
+	}
+
+	@Override
+	public synchronized E remove(int index) {
+		verifyNotDisposed();
+		return super.remove(index);
+	}
+
+	@Override
+	public synchronized boolean remove(Object o) {
+		verifyNotDisposed();
+		return super.remove(o);
+	}
+
+	@Override
+	public synchronized boolean removeAll(Collection<?> c) {
+		verifyNotDisposed();
+		return super.removeAll(c);
+	}
+
+	@Override
+	public synchronized boolean removeIf(Predicate<? super E> filter) {
+		verifyNotDisposed();
+		return super.removeIf(filter);
+	}
+
+	@Override
+	public synchronized void removeIfDeferred(Predicate<? super E> filter) {
+		verifyNotDisposed();
+		super.removeIfDeferred(filter);
+		afterWrite();
+	}
+
+	@Override
+	public synchronized void removeRange(int fromIndex, int toIndex) {
+		verifyNotDisposed();
+		super.removeRange(fromIndex, toIndex);
+		afterWrite();
+	}
+
+	@Override
+	public synchronized void replaceAll(UnaryOperator<E> operator) {
+		verifyNotDisposed();
+		super.replaceAll(operator);
+		afterWrite();
+	}
+
+	@Override
+	public synchronized boolean retainAll(Collection<?> c) {
+		verifyNotDisposed();
+		return super.retainAll(c);
+	}
+
+	@Override
+	public synchronized E set(int index, E element) {
+		verifyNotDisposed();
+		return super.set(index, element);
+	}
+
+	@Override
+	public synchronized int size() {
+		verifyNotDisposed();
+		return super.size();
+	}
+
+	@Override
+	public synchronized void sort(Comparator<? super E> c) {
+		verifyNotDisposed();
+		super.sort(c);
+		afterWrite();
+	}
+
+	@Override
+	public synchronized Spliterator<E> spliterator() {
+		verifyNotDisposed();
+		return super.spliterator();
+	}
+
+	@Override
+	public synchronized Stream<E> stream() {
+		verifyNotDisposed();
+		return super.stream();
+	}
+
+	@Override
+	public synchronized List<E> subList(int fromIndex, int toIndex) {
+		verifyNotDisposed();
+		return super.subList(fromIndex, toIndex);
+	}
+
+	@Override
+	public synchronized Object[] toArray() {
+		verifyNotDisposed();
+		return super.toArray();
+	}
+
+	@Override
+	public synchronized <T> T[] toArray(IntFunction<T[]> generator) {
+		verifyNotDisposed();
+		return super.toArray(generator);
+	}
+
+	@Override
+	public synchronized <T> T[] toArray(T[] a) {
+		verifyNotDisposed();
+		return super.toArray(a);
+	}
+
+	@Override
+	public synchronized String toString() {
+		verifyNotDisposed();
+		return super.toString();
+	}
+
+	@Override
+	public synchronized void trimToSize() {
+		verifyNotDisposed();
+		super.trimToSize();
+		afterWrite();
+	}
+
+	/**
+	 * The entry point for this class to be run from the command line.
+	 *
+	 * @param args the string array passed from the command line
+	 */
+	public static void main(String[] args) {
+		final ScheduledLazyRAMList<Integer> list = new ScheduledLazyRAMList<>(
+				new LazyFlushPolicy(10_000, 5, TimeUnit.MILLISECONDS, 100_000));
+		try {
+			for (int i = 0; i < 1_000_000; i++) {
+				list.add(i);
+			}
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			final long before = System.nanoTime();
+			final Integer last = list.get(999_999);
+			final long after = System.nanoTime();
+			System.out.println(String.format("%d\t%20d ns", last, after - before));
+		} finally {
+			list.dispose();
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package vgp.list;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The codecs returned by {@link ElementCodec}'s factory methods, which also provide the
+ * compact serialized form of {@link LazyRAMList}.
+ * <p>
+ * In that form, a run of elements is written as a count, followed by the {@linkplain #tag()
+ * tag} of the narrowest codec that can encode every element in the run, followed by the
+ * encoded elements.
+ *
+ * @author [...]
+ * @version 2.5
+ * @since 2.5
+ */
+enum StandardCodec implements ElementCodec<Object> {
+
+	/**
+	 * Writes each element with {@link ObjectOutput#writeObject}, which accepts anything that
+	 * is serializable, including {@code null}. This codec is only used for serialization.
+	 */
+	OBJECTS(Object.class) {
+		@Override
+		public void write(DataOutput out, Object e) throws IOException {
+			((ObjectOutput) out).writeObject(e);
+		}
+
+		@Override
+		public Object read(DataInput in) throws IOException {
+			try {
+				return ((ObjectInput) in).readObject();
+			} catch (ClassNotFoundException e) {
+				throw new IOException(e);
+			}
+		}
+	},
+
+	/**
+	 * Writes each {@code Integer} as 4 bytes.
+	 */
+	INTEGERS(Integer.class) {
+		@Override
+		public void write(DataOutput out, Object e) throws IOException {
+			out.writeInt((Integer) e);
+		}
+
+		@Override
+		public Object read(DataInput in) throws IOException {
+			return in.readInt();
+		}
+	},
+
+	/**
+	 * Writes each {@code Long} as 8 bytes.
+	 */
+	LONGS(Long.class) {
+		@Override
+		public void write(DataOutput out, Object e) throws IOException {
+			out.writeLong((Long) e);
+		}
+
+		@Override
+		public Object read(DataInput in) throws IOException {
+			return in.readLong();
+		}
+	},
+
+	/**
+	 * Writes each {@code Double} as 8 bytes.
+	 */
+	DOUBLES(Double.class) {
+		@Override
+		public void write(DataOutput out, Object e) throws IOException {
+			out.writeDouble((Double) e);
+		}
+
+		@Override
+		public Object read(DataInput in) throws IOException {
+			return in.readDouble();
+		}
+	},
+
+	/**
+	 * Writes each {@code String} as its length in UTF-8 bytes, followed by those bytes.
+	 */
+	STRINGS(String.class) {
+		@Override
+		public void write(DataOutput out, Object e) throws IOException {
+			final byte[] bytes = ((String) e).getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		@Override
+		public Object read(DataInput in) throws IOException {
+			final int length = in.readInt();
+			if (length < 0) {
+				throw new StreamCorruptedException("Negative string length: " + length);
+			}
+			final byte[] bytes = new byte[length];
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	/**
+	 * The class of every element that this codec encodes.
+	 */
+	private final Class<?> type;
+
+	/**
+	 * Constructs a new {@code StandardCodec} for elements of exactly the specified class.
+	 *
+	 * @param type  the class of the elements
+	 */
+	StandardCodec(Class<?> type) {
+		this.type = type;
+	}
+
+	/**
+	 * Returns this codec, typed for the elements it encodes.
+	 *
+	 * @param <E> the type of the elements
+	 * @return this codec
+	 */
+	@SuppressWarnings("unchecked")
+	<E> ElementCodec<E> cast() {
+		return (ElementCodec<E>) (ElementCodec<?>) this;
+	}
+
+	/**
+	 * Returns the byte that identifies this codec in a serialized list.
+	 *
+	 * @return the ordinal of this codec
+	 */
+	byte tag() {
+		return (byte) ordinal();
+	}
+
+	/**
+	 * Writes the specified elements as a count, a codec tag, and the encoded elements,
+	 * using the narrowest codec that can encode every element.
+	 *
+	 * @param out       the output to write to
+	 * @param elements  an array containing the elements
+	 * @param count     the number of leading elements in the array to write
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	static void writeRun(ObjectOutput out, Object[] elements, int count) throws IOException {
+		final StandardCodec codec = narrowest(elements, count);
+		out.writeInt(count);
+		out.writeByte(codec.tag());
+		for (int i = 0; i < count; i++) {
+			codec.write(out, elements[i]);
+		}
+	}
+
+	/**
+	 * Reads elements written by {@link #writeRun}.
+	 *
+	 * @param in  the input to read from
+	 * @return a new array of the elements that were written
+	 *
+	 * @throws IOException if an I/O error occurs, or if the input is malformed
+	 */
+	static Object[] readRun(ObjectInput in) throws IOException {
+		final int count = in.readInt();
+		if (count < 0) {
+			throw new StreamCorruptedException("Negative element count: " + count);
+		}
+		final int tag = in.readByte();
+		final StandardCodec[] codecs = values();
+		if (tag < 0 || tag >= codecs.length) {
+			throw new StreamCorruptedException("Unknown codec tag: " + tag);
+		}
+		final StandardCodec codec = codecs[tag];
+		final Object[] elements = new Object[count];
+		for (int i = 0; i < count; i++) {
+			elements[i] = codec.read(in);
+		}
+		return elements;
+	}
+
+	/**
+	 * Returns the codec whose class is the class of every specified element, or
+	 * {@link #OBJECTS} if there is none.
+	 *
+	 * @param elements  an array containing the elements
+	 * @param count     the number of leading elements in the array to consider
+	 * @return a codec that can encode every element
+	 */
+	private static StandardCodec narrowest(Object[] elements, int count) {
+		if (count == 0 || elements[0] == null) {
+			return OBJECTS;
+		}
+		final Class<?> type = elements[0].getClass();
+		for (int i = 1; i < count; i++) {
+			if (elements[i] == null || elements[i].getClass() != type) {
+				return OBJECTS;
+			}
+		}
+		for (StandardCodec codec : values()) {
+			if (codec.type == type) {
+				return codec;
+			}
+		}
+		return OBJECTS;
+	}
+
+}
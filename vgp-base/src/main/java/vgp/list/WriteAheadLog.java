@@ -0,0 +1,777 @@
+package vgp.list;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of a {@link LazyRAMList}'s write requests, from which the list can be
+ * rebuilt after a restart without rewriting every element at each checkpoint.
+ * <p>
+ * Once attached to a list via {@link LazyRAMList#setWriteAheadLog}, this log records each
+ * write request when it is enqueued, and writes its buffered records to the file before the
+ * list applies its enqueued changes. Records are also written when the buffer fills up, and
+ * when {@link #flush()}, {@link #sync()}, or {@link #close()} is called; only
+ * {@link #sync()} and {@link #close()} make sure that they reach the storage device.
+ * <p>
+ * Each record is length-prefixed and checksummed. Opening a log discards an incomplete or
+ * corrupt record at its end, which is what a crash in the middle of a write leaves behind.
+ * Consecutive appends are merged into one record while it is still buffered.
+ * <p>
+ * A typical recovery opens the log, {@linkplain #replay replays} it into a new list, and then
+ * attaches it to that list. {@link #reset(Collection)} replaces the whole log with a single
+ * snapshot record, which bounds the log's length. The snapshot is written to a sibling file,
+ * whose name ends with {@value #TEMP_SUFFIX}, and then moved over the log atomically, so a
+ * crash leaves either the old log or the new one behind.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author [...]
+ * @version 2.5
+ * @param <E> a type shared by each element in the logged list
+ * @since 2.5
+ */
+public final class WriteAheadLog<E> implements Closeable, Flushable {
+
+	/**
+	 * The first four bytes of a log file: {@code "VGPL"} in ASCII.
+	 */
+	private static final int MAGIC = 0x5647504C;
+
+	/**
+	 * The format version written after {@link #MAGIC}.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * The number of bytes before the first record.
+	 */
+	private static final int HEADER_LENGTH = 8;
+
+	/**
+	 * The suffix appended to the log's file name to name the file that a snapshot is written
+	 * to before it replaces the log.
+	 */
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	/**
+	 * The number of bytes before each record's payload: its length and its checksum.
+	 */
+	private static final int RECORD_HEADER_LENGTH = 8;
+
+	/**
+	 * The number of buffered bytes at which the buffer is written to the file.
+	 */
+	private static final int BUFFER_LIMIT = 1 << 16;
+
+	/**
+	 * Appends {@code count} elements to the end of the list.
+	 */
+	private static final byte APPEND = 0;
+
+	/**
+	 * Inserts {@code count} elements at {@code index}.
+	 */
+	private static final byte INSERT = 1;
+
+	/**
+	 * Removes the range from {@code fromIndex}, inclusive, to {@code toIndex}, exclusive.
+	 */
+	private static final byte REMOVE_RANGE = 2;
+
+	/**
+	 * Removes every element.
+	 */
+	private static final byte CLEAR = 3;
+
+	/**
+	 * Replaces the element at {@code index}.
+	 */
+	private static final byte SET = 4;
+
+	/**
+	 * Replaces every element with {@code count} elements.
+	 */
+	private static final byte SNAPSHOT = 5;
+
+	/**
+	 * A byte array output stream whose buffer can be patched and written without copying.
+	 */
+	private static final class Buffer extends ByteArrayOutputStream {
+
+		/**
+		 * Constructs a new, empty {@code Buffer}.
+		 */
+		Buffer() {
+			super(BUFFER_LIMIT + (BUFFER_LIMIT >> 2));
+		}
+
+		/**
+		 * Overwrites four bytes at the specified position with the specified value.
+		 *
+		 * @param position  the index of the first byte to overwrite
+		 * @param value     the value to write, most significant byte first
+		 */
+		void putInt(int position, int value) {
+			buf[position] = (byte) (value >>> 24);
+			buf[position + 1] = (byte) (value >>> 16);
+			buf[position + 2] = (byte) (value >>> 8);
+			buf[position + 3] = (byte) value;
+		}
+
+		/**
+		 * Discards every byte after the specified number of bytes.
+		 *
+		 * @param size  the number of bytes to keep
+		 */
+		void truncate(int size) {
+			count = size;
+		}
+
+		/**
+		 * Returns the checksum of a range of this buffer.
+		 *
+		 * @param from  the index of the first byte
+		 * @param to    the index after the last byte
+		 * @return the CRC-32 of the range
+		 */
+		int checksum(int from, int to) {
+			final CRC32 crc = new CRC32();
+			crc.update(buf, from, to - from);
+			return (int) crc.getValue();
+		}
+
+		/**
+		 * Returns a byte buffer that wraps this buffer's content.
+		 *
+		 * @return a new byte buffer
+		 */
+		ByteBuffer wrap() {
+			return ByteBuffer.wrap(buf, 0, count);
+		}
+
+	}
+
+	/**
+	 * Something that writes a record into the buffer.
+	 */
+	@FunctionalInterface
+	private interface RecordWriter {
+
+		/**
+		 * Writes the record.
+		 *
+		 * @throws IOException if an I/O error occurs
+		 */
+		void write() throws IOException;
+
+	}
+
+	/**
+	 * The path of the log file.
+	 */
+	private final Path path;
+
+	/**
+	 * The file channel that records are written to, which is reopened when the log is
+	 * replaced by a snapshot.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * The encoding of the logged elements.
+	 */
+	private final ElementCodec<E> codec;
+
+	/**
+	 * The buffered records, which have not been written to the file yet.
+	 */
+	private final Buffer buffer = new Buffer();
+
+	/**
+	 * The output that encodes records into {@link #buffer}.
+	 */
+	private final DataOutputStream out = new DataOutputStream(buffer);
+
+	/**
+	 * The position in {@link #buffer} of the record still being written, or {@code -1} if
+	 * every buffered record is complete.
+	 */
+	private int openRecord = -1;
+
+	/**
+	 * The position in {@link #buffer} of the element count of the open record, if that
+	 * record is an append.
+	 */
+	private int openAppendCount = -1;
+
+	/**
+	 * The number of elements in the open record, if that record is an append.
+	 */
+	private int openAppendLength;
+
+	/**
+	 * Constructs a new {@code WriteAheadLog} on the specified channel, positioned at the end
+	 * of its last complete record.
+	 *
+	 * @param path     the path of the log file
+	 * @param channel  the file channel
+	 * @param codec    the encoding of the logged elements
+	 */
+	private WriteAheadLog(Path path, FileChannel channel, ElementCodec<E> codec) {
+		super();
+		this.path = path;
+		this.channel = channel;
+		this.codec = codec;
+	}
+
+	/**
+	 * Opens the log at the specified path, creating it if it does not exist.
+	 * <p>
+	 * An incomplete or corrupt record at the end of the log is discarded.
+	 *
+	 * @param <E>    a type shared by each element in the logged list
+	 * @param path   the path of the log file
+	 * @param codec  the encoding of the logged elements
+	 * @return an open log, positioned after its last complete record
+	 *
+	 * @throws IOException          if an I/O error occurs, or if the file is not a log
+	 * @throws NullPointerException if either parameter is {@code null}
+	 */
+	public static <E> WriteAheadLog<E> open(Path path, ElementCodec<E> codec) throws IOException {
+		if (path == null) {
+			throw new NullPointerException("Null path parameter: " + path);
+		}
+		if (codec == null) {
+			throw new NullPointerException("Null codec parameter: " + codec);
+		}
+		final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			final WriteAheadLog<E> log = new WriteAheadLog<>(path, channel, codec);
+			if (channel.size() == 0) {
+				writeHeader(channel);
+			} else {
+				final long end = log.scan(null);
+				channel.truncate(end);
+				channel.position(end);
+			}
+			return log;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Enqueues every change recorded in this log onto the specified list, in order.
+	 * <p>
+	 * The list should be empty, and must not be attached to this log. Because replayed
+	 * changes are merely enqueued, they are coalesced like any other write requests.
+	 *
+	 * @param list  the list to rebuild
+	 *
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalStateException    if the list is attached to this log
+	 * @throws NullPointerException     if the parameter is {@code null}
+	 */
+	public void replay(LazyRAMList<E> list) throws IOException {
+		if (list == null) {
+			throw new NullPointerException("Null list parameter: " + list);
+		}
+		if (list.getWriteAheadLog() == this) {
+			throw new IllegalStateException("Cannot replay a log into the list it is attached to");
+		}
+		flush();
+		scan(list);
+	}
+
+	/**
+	 * Replaces every record in this log with a single record of the specified elements.
+	 * <p>
+	 * Call this method with the list's elements to keep the log short, or after changing
+	 * the list in ways that are not recorded.
+	 * <p>
+	 * The buffered records are first written to the log. The snapshot is then written and
+	 * forced to a sibling file, which is atomically moved over the log, so that the log is
+	 * never left without either its earlier records or the snapshot. If writing the snapshot
+	 * fails, the log keeps its earlier records.
+	 *
+	 * @param elements  the elements that the logged list now contains, in order
+	 *
+	 * @throws IOException          if an I/O error occurs
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	public void reset(Collection<? extends E> elements) throws IOException {
+		if (elements == null) {
+			throw new NullPointerException("Null elements parameter: " + elements);
+		}
+		flush();
+		final Path temp = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+		try {
+			writeSnapshot(elements);
+			sealRecord();
+			try (FileChannel snapshot = FileChannel.open(temp, StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+				writeHeader(snapshot);
+				final ByteBuffer bytes = buffer.wrap();
+				while (bytes.hasRemaining()) {
+					snapshot.write(bytes);
+				}
+				snapshot.force(true);
+			}
+		} catch (IOException | RuntimeException e) {
+			try {
+				Files.deleteIfExists(temp);
+			} catch (IOException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+			throw e;
+		} finally {
+			buffer.reset();
+			openRecord = openAppendCount = -1;
+		}
+		// Some platforms cannot replace a file that is still open.
+		channel.close();
+		try {
+			Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			channel.position(channel.size());
+		}
+	}
+
+	/**
+	 * Writes the buffered records to the file, without forcing them to the storage device.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Override
+	public void flush() throws IOException {
+		sealRecord();
+		if (buffer.size() == 0) {
+			return;
+		}
+		final ByteBuffer bytes = buffer.wrap();
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		buffer.reset();
+	}
+
+	/**
+	 * Writes the buffered records to the file, and forces them to the storage device.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void sync() throws IOException {
+		flush();
+		channel.force(false);
+	}
+
+	/**
+	 * Synchronizes and closes this log.
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!channel.isOpen()) {
+			return;
+		}
+		try {
+			sync();
+		} finally {
+			channel.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "WriteAheadLog [codec=" + codec + ", open=" + channel.isOpen() + "]";
+	}
+
+	/**
+	 * Records an append of the specified element.
+	 *
+	 * @param e  the appended element
+	 *
+	 * @throws UncheckedIOException if an I/O error occurs
+	 */
+	void append(E e) {
+		record(() -> writeAppend(e));
+	}
+
+	/**
+	 * Records an insert of a range of the specified array at the specified index, or an
+	 * append if the index is {@code -1}.
+	 *
+	 * @param index     the index of the first inserted element, or {@code -1}
+	 * @param elements  an array containing the elements
+	 * @param count     the number of leading elements in the array
+	 *
+	 * @throws UncheckedIOException if an I/O error occurs
+	 */
+	void insertAll(int index, Object[] elements, int count) {
+		record(() -> {
+			if (index < 0) {
+				for (int i = 0; i < count; i++) {
+					writeAppend(elementOf(elements[i]));
+				}
+				return;
+			}
+			beginRecord(INSERT);
+			out.writeInt(index);
+			writeElements(elements, count);
+		});
+	}
+
+	/**
+	 * Records a removal of a range.
+	 *
+	 * @param fromIndex  the index of the first removed element
+	 * @param toIndex    the index after the last removed element
+	 *
+	 * @throws UncheckedIOException if an I/O error occurs
+	 */
+	void removeRange(int fromIndex, int toIndex) {
+		record(() -> {
+			beginRecord(REMOVE_RANGE);
+			out.writeInt(fromIndex);
+			out.writeInt(toIndex);
+		});
+	}
+
+	/**
+	 * Records a removal of every element.
+	 *
+	 * @throws UncheckedIOException if an I/O error occurs
+	 */
+	void clear() {
+		record(() -> beginRecord(CLEAR));
+	}
+
+	/**
+	 * Records a replacement of the element at the specified index.
+	 *
+	 * @param index  the index of the replaced element
+	 * @param e      the new element
+	 *
+	 * @throws UncheckedIOException if an I/O error occurs
+	 */
+	void set(int index, E e) {
+		record(() -> {
+			beginRecord(SET);
+			out.writeInt(index);
+			codec.write(out, e);
+		});
+	}
+
+	/**
+	 * Records a replacement of every element.
+	 *
+	 * @param elements  the new elements, in order
+	 *
+	 * @throws UncheckedIOException if an I/O error occurs
+	 */
+	void snapshot(Collection<? extends E> elements) {
+		record(() -> writeSnapshot(elements));
+	}
+
+	/**
+	 * Writes the buffered records to the file, before the logged list applies its enqueued
+	 * changes.
+	 *
+	 * @throws UncheckedIOException if an I/O error occurs
+	 */
+	void writeAhead() {
+		try {
+			flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Buffer a record, or nothing at all if writing it fails, and then write the buffer to
+	 * the file if it has grown past its limit.
+	 *
+	 * @param writer  the writer of the record
+	 *
+	 * @throws UncheckedIOException if an I/O error occurs
+	 */
+	private void record(RecordWriter writer) {
+		final int mark = buffer.size();
+		final int openRecordMark = openRecord;
+		final int openAppendCountMark = openAppendCount;
+		final int openAppendLengthMark = openAppendLength;
+		boolean written = false;
+		try {
+			writer.write();
+			written = true;
+			if (buffer.size() >= BUFFER_LIMIT) {
+				flush();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			if (!written) {
+				// A codec failed halfway through; a partial record must never be sealed.
+				buffer.truncate(mark);
+				openRecord = openRecordMark;
+				openAppendCount = openAppendCountMark;
+				openAppendLength = openAppendLengthMark;
+			}
+		}
+	}
+
+	/**
+	 * Add the specified element to the open append record, starting one if there is none.
+	 *
+	 * @param e  the appended element
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void writeAppend(E e) throws IOException {
+		if (openAppendCount < 0) {
+			beginRecord(APPEND);
+			openAppendCount = buffer.size();
+			openAppendLength = 0;
+			out.writeInt(0);
+		}
+		codec.write(out, e);
+		openAppendLength++;
+	}
+
+	/**
+	 * Record a replacement of every element.
+	 *
+	 * @param elements  the new elements, in order
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void writeSnapshot(Collection<? extends E> elements) throws IOException {
+		final Object[] a = elements.toArray();
+		beginRecord(SNAPSHOT);
+		writeElements(a, a.length);
+	}
+
+	/**
+	 * Write the file header to the specified channel, and position it after the header.
+	 *
+	 * @param channel  the file channel of an empty log file
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static void writeHeader(FileChannel channel) throws IOException {
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).putInt(VERSION);
+		header.flip();
+		while (header.hasRemaining()) {
+			channel.write(header, header.position());
+		}
+		channel.position(HEADER_LENGTH);
+	}
+
+	/**
+	 * Read every complete record in the file, enqueuing its change onto the specified list
+	 * if there is one, and return the position after the last complete record.
+	 *
+	 * @param list  the list to rebuild, or {@code null} to only find the last record
+	 * @return the position in the file after the last complete, intact record
+	 *
+	 * @throws IOException if an I/O error occurs, or if the file is not a log
+	 */
+	private long scan(LazyRAMList<E> list) throws IOException {
+		final long size = channel.size();
+		final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_LENGTH);
+		readFully(header, 0L);
+		if (header.getInt(0) != MAGIC) {
+			throw new StreamCorruptedException("Not a WriteAheadLog file");
+		}
+		if (header.getInt(4) != VERSION) {
+			throw new StreamCorruptedException("Unsupported WriteAheadLog version: " + header.getInt(4));
+		}
+		long position = HEADER_LENGTH;
+		while (size - position >= RECORD_HEADER_LENGTH) {
+			header.clear();
+			readFully(header, position);
+			final int length = header.getInt(0);
+			if (length <= 0 || length > size - position - RECORD_HEADER_LENGTH) {
+				break;
+			}
+			final byte[] payload = new byte[length];
+			readFully(ByteBuffer.wrap(payload), position + RECORD_HEADER_LENGTH);
+			final CRC32 crc = new CRC32();
+			crc.update(payload);
+			if ((int) crc.getValue() != header.getInt(4)) {
+				break;
+			}
+			if (list != null) {
+				apply(list, new DataInputStream(new ByteArrayInputStream(payload)));
+			}
+			position += RECORD_HEADER_LENGTH + length;
+		}
+		return position;
+	}
+
+	/**
+	 * Fill the specified buffer with bytes from the file.
+	 *
+	 * @param bytes     the buffer to fill
+	 * @param position  the position in the file of the first byte to read
+	 *
+	 * @throws IOException if an I/O error occurs, or if the file ends first
+	 */
+	private void readFully(ByteBuffer bytes, long position) throws IOException {
+		while (bytes.hasRemaining()) {
+			final int n = channel.read(bytes, position);
+			if (n < 0) {
+				throw new StreamCorruptedException("Unexpected end of WriteAheadLog file");
+			}
+			position += n;
+		}
+	}
+
+	/**
+	 * Enqueue the change described by a record's payload onto the specified list.
+	 *
+	 * @param list  the list to rebuild
+	 * @param in    the record's payload
+	 *
+	 * @throws IOException if the payload is malformed
+	 */
+	private void apply(LazyRAMList<E> list, DataInputStream in) throws IOException {
+		final byte kind = in.readByte();
+		switch (kind) {
+		case APPEND:
+			list.addAll(readElements(in));
+			break;
+		case INSERT:
+			final int index = in.readInt();
+			list.addAll(index, readElements(in));
+			break;
+		case REMOVE_RANGE:
+			final int fromIndex = in.readInt();
+			list.removeRange(fromIndex, in.readInt());
+			break;
+		case CLEAR:
+			list.clear();
+			break;
+		case SET:
+			final int setIndex = in.readInt();
+			list.set(setIndex, codec.read(in));
+			break;
+		case SNAPSHOT:
+			list.clear();
+			list.addAll(readElements(in));
+			break;
+		default:
+			throw new StreamCorruptedException("Unknown record kind: " + kind);
+		}
+	}
+
+	/**
+	 * Read a count followed by that many elements.
+	 *
+	 * @param in  the input to read from
+	 * @return the elements that were read
+	 *
+	 * @throws IOException if the input is malformed
+	 */
+	private List<E> readElements(DataInputStream in) throws IOException {
+		final int count = in.readInt();
+		if (count < 0) {
+			throw new StreamCorruptedException("Negative element count: " + count);
+		}
+		final Object[] elements = new Object[count];
+		for (int i = 0; i < count; i++) {
+			elements[i] = codec.read(in);
+		}
+		return elementsOf(elements);
+	}
+
+	/**
+	 * Write a count followed by that many leading elements of the specified array.
+	 *
+	 * @param elements  an array containing the elements
+	 * @param count     the number of leading elements to write
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void writeElements(Object[] elements, int count) throws IOException {
+		out.writeInt(count);
+		for (int i = 0; i < count; i++) {
+			codec.write(out, elementOf(elements[i]));
+		}
+	}
+
+	/**
+	 * Complete the open record, if any, and start a new one.
+	 *
+	 * @param kind  the kind of record to start
+	 *
+	 * @throws IOException if an I/O error occurs
+	 */
+	private void beginRecord(byte kind) throws IOException {
+		sealRecord();
+		openRecord = buffer.size();
+		out.writeLong(0L);
+		out.writeByte(kind);
+	}
+
+	/**
+	 * Fill in the length and checksum of the open record, if any.
+	 */
+	private void sealRecord() {
+		if (openRecord < 0) {
+			return;
+		}
+		if (openAppendCount >= 0) {
+			buffer.putInt(openAppendCount, openAppendLength);
+			openAppendCount = -1;
+		}
+		final int payload = openRecord + RECORD_HEADER_LENGTH;
+		buffer.putInt(openRecord, buffer.size() - payload);
+		buffer.putInt(openRecord + 4, buffer.checksum(payload, buffer.size()));
+		openRecord = -1;
+	}
+
+	/**
+	 * Cast an element of a list using this log to the element type.
+	 *
+	 * @param e  the element
+	 * @return the parameter
+	 */
+	@SuppressWarnings("unchecked")
+	private E elementOf(Object e) {
+		return (E) e;
+	}
+
+	/**
+	 * Wrap decoded elements as a list, without copying them.
+	 *
+	 * @param elements  the elements
+	 * @return a fixed-size list backed by the parameter
+	 */
+	@SuppressWarnings("unchecked")
+	private List<E> elementsOf(Object[] elements) {
+		return (List<E>) Arrays.asList(elements);
+	}
+
+}
@@ -0,0 +1,579 @@
+package vgp.map;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamException;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import vgp.clone.CloneableBase;
+
+/**
+ * A hash map that uses lazy evaluation to postpone its write requests, in the same way
+ * as {@link vgp.list.LazyRAMList}.
+ * <p>
+ * {@link #put}, {@link #putAll}, {@link #remove(Object)}, and {@link #clear()} are enqueued
+ * instead of being applied. Since only the last write to a key matters, the queue holds
+ * at most one change per key: a later write to the same key replaces the earlier one, so
+ * repeated writes to the same keys between reads never reach the table. A {@link #clear()}
+ * discards every change enqueued before it.
+ * <p>
+ * {@link #get}, {@link #getOrDefault}, and {@link #containsKey} look a key up in the
+ * queue, and then in the table, without emptying the queue; so do {@link #put} and
+ * {@link #remove(Object)}, to return the previous value. Any other read request, including
+ * a traversal of {@link #keySet()}, {@link #values()}, or {@link #entrySet()}, empties the
+ * queue first.
+ * <p>
+ * When the queue is emptied, every removal is applied, and then every put is applied in
+ * one bulk insert, which grows the table at most once, before inserting any key.
+ * <p>
+ * The iterators over this map's views are fail-fast, including with respect to enqueued
+ * writes. This map is not thread-safe.
+ *
+ * @author [...]
+ * @version 2.5
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * @since 2.5
+ */
+public class LazyRAMMap<K, V> extends HashMap<K, V> implements CloneableBase {
+
+	/**
+	 * A view of this map whose read requests empty the change queue first.
+	 *
+	 * @param <T> the type of the view's elements
+	 */
+	private class View<T> extends AbstractCollection<T> {
+
+		/**
+		 * The superclass's view.
+		 */
+		final Collection<T> view;
+
+		/**
+		 * Constructs a new {@code View}.
+		 *
+		 * @param view  the superclass's view
+		 */
+		View(Collection<T> view) {
+			super();
+			this.view = view;
+		}
+
+		@Override
+		public void clear() {
+			LazyRAMMap.this.clear();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			applyChanges();
+			return view.contains(o);
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			applyChanges();
+			final Iterator<T> iterator = view.iterator();
+			return new Iterator<T>() {
+
+				/**
+				 * The number of write requests that this iterator expects.
+				 */
+				private final int expectedWriteCount = writeCount;
+
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public T next() {
+					if (writeCount != expectedWriteCount) {
+						throw new ConcurrentModificationException();
+					}
+					return iterator.next();
+				}
+
+				@Override
+				public void remove() {
+					if (writeCount != expectedWriteCount) {
+						throw new ConcurrentModificationException();
+					}
+					iterator.remove();
+				}
+			};
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			applyChanges();
+			return view.remove(o);
+		}
+
+		@Override
+		public int size() {
+			applyChanges();
+			return view.size();
+		}
+
+		@Override
+		public Object[] toArray() {
+			applyChanges();
+			return view.toArray();
+		}
+
+		@Override
+		public <A> A[] toArray(A[] a) {
+			applyChanges();
+			return view.toArray(a);
+		}
+	}
+
+	/**
+	 * A set view of this map whose read requests empty the change queue first.
+	 *
+	 * @param <T> the type of the view's elements
+	 */
+	private final class SetView<T> extends View<T> implements Set<T> {
+
+		/**
+		 * Constructs a new {@code SetView}.
+		 *
+		 * @param view  the superclass's view
+		 */
+		SetView(Set<T> view) {
+			super(view);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			applyChanges();
+			return view.equals(o);
+		}
+
+		@Override
+		public int hashCode() {
+			applyChanges();
+			return view.hashCode();
+		}
+	}
+
+	/**
+	 * This class's serial version UID.
+	 */
+	private static final long serialVersionUID = 4270837710263128458L;
+
+	/**
+	 * The value that an enqueued removal maps its key to.
+	 */
+	private static final Object REMOVED = new Object();
+
+	/**
+	 * The enqueued changes: each key is mapped to its last put value, or to
+	 * {@link #REMOVED}.
+	 */
+	private transient HashMap<Object, Object> changes = new HashMap<>();
+
+	/**
+	 * Whether a {@link #clear()} is enqueued before {@link #changes}.
+	 */
+	private transient boolean clearEnqueued;
+
+	/**
+	 * The number of write requests made on this map, which the views' iterators use to
+	 * detect enqueued writes.
+	 */
+	private transient int writeCount;
+
+	/**
+	 * Constructs a new, empty {@code LazyRAMMap} with the default initial capacity and load
+	 * factor.
+	 */
+	public LazyRAMMap() {
+		super();
+	}
+
+	/**
+	 * Constructs a new, empty {@code LazyRAMMap} with the specified initial capacity and the
+	 * default load factor.
+	 *
+	 * @param initialCapacity  the initial capacity
+	 *
+	 * @throws IllegalArgumentException if the initial capacity is negative
+	 */
+	public LazyRAMMap(int initialCapacity) {
+		super(initialCapacity);
+	}
+
+	/**
+	 * Constructs a new, empty {@code LazyRAMMap} with the specified initial capacity and load
+	 * factor.
+	 *
+	 * @param initialCapacity  the initial capacity
+	 * @param loadFactor       the load factor
+	 *
+	 * @throws IllegalArgumentException if the initial capacity is negative or the load factor
+	 *                                  is nonpositive
+	 */
+	public LazyRAMMap(int initialCapacity, float loadFactor) {
+		super(initialCapacity, loadFactor);
+	}
+
+	/**
+	 * Constructs a new {@code LazyRAMMap} with the same mappings as the parameter.
+	 *
+	 * @param m  the map whose mappings are to be placed in this map
+	 *
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	public LazyRAMMap(Map<? extends K, ? extends V> m) {
+		super(checkMap(m));
+	}
+
+	/**
+	 * Returns the parameter, unless it is {@code null}.
+	 *
+	 * @param m  a map
+	 * @return the parameter
+	 *
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	private static <M extends Map<?, ?>> M checkMap(M m) {
+		if (m == null) {
+			throw new NullPointerException("Null map parameter: " + m);
+		}
+		return m;
+	}
+
+	/**
+	 * Empty this map's change queue, and then apply each dequeued change.
+	 * <p>
+	 * An enqueued {@link #clear()} is applied first, then every removal, and then every put
+	 * in one bulk insert, for which the table is grown once.
+	 */
+	protected final void applyChanges() {
+		if (clearEnqueued) {
+			clearEnqueued = false;
+			super.clear();
+		}
+		if (changes.isEmpty()) {
+			return;
+		}
+		final HashMap<Object, Object> dequeued = changes;
+		changes = new HashMap<>();
+		for (Iterator<Map.Entry<Object, Object>> i = dequeued.entrySet().iterator(); i.hasNext();) {
+			final Map.Entry<Object, Object> change = i.next();
+			if (change.getValue() == REMOVED) {
+				super.remove(change.getKey());
+				i.remove();
+			}
+		}
+		if (dequeued.isEmpty()) {
+			return;
+		}
+		// Reporting the largest size that the puts can reach grows the table only once.
+		final int peakSize = super.size() + dequeued.size();
+		super.putAll(new AbstractMap<K, V>() {
+
+			@Override
+			public Set<Map.Entry<K, V>> entrySet() {
+				return mapOf(dequeued).entrySet();
+			}
+
+			@Override
+			public int size() {
+				return peakSize;
+			}
+		});
+	}
+
+	/**
+	 * Returns the value that the specified key would be mapped to if this map's change
+	 * queue were emptied, without emptying it.
+	 *
+	 * @param key  the key whose value is to be returned
+	 * @return the key's value, or {@link #REMOVED} if the key would not be mapped
+	 */
+	private Object lookUp(Object key) {
+		final Object value = changes.getOrDefault(key, REMOVED);
+		if (value != REMOVED || changes.containsKey(key) || clearEnqueued) {
+			return value;
+		}
+		return super.containsKey(key) ? super.get(key) : REMOVED;
+	}
+
+	@Override
+	public void clear() {
+		changes.clear();
+		clearEnqueued = true;
+		writeCount++;
+	}
+
+	/**
+	 * Returns a shallow copy of this map, once its change queue has been emptied.
+	 */
+	@Override
+	public LazyRAMMap<K, V> clone() {
+		applyChanges();
+		@SuppressWarnings("unchecked")
+		final LazyRAMMap<K, V> clone = (LazyRAMMap<K, V>) super.clone();
+		clone.changes = new HashMap<>();
+		clone.clearEnqueued = false;
+		clone.writeCount = 0;
+		return clone;
+	}
+
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		applyChanges();
+		return super.compute(key, remappingFunction);
+	}
+
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		applyChanges();
+		return super.computeIfAbsent(key, mappingFunction);
+	}
+
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		applyChanges();
+		return super.computeIfPresent(key, remappingFunction);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This map's change queue is not emptied.
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return lookUp(key) != REMOVED;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		applyChanges();
+		return super.containsValue(value);
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new SetView<>(super.entrySet());
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		applyChanges();
+		super.forEach(action);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This map's change queue is not emptied.
+	 */
+	@Override
+	public V get(Object key) {
+		final Object value = lookUp(key);
+		return value == REMOVED ? null : valueOf(value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This map's change queue is not emptied.
+	 */
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		final Object value = lookUp(key);
+		return value == REMOVED ? defaultValue : valueOf(value);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		applyChanges();
+		return super.isEmpty();
+	}
+
+	@Override
+	public Set<K> keySet() {
+		return new SetView<>(super.keySet());
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		applyChanges();
+		return super.merge(key, value, remappingFunction);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The put is enqueued, replacing any change enqueued for the same key.
+	 */
+	@Override
+	public V put(K key, V value) {
+		final V previous = get(key);
+		changes.put(key, value);
+		writeCount++;
+		return previous;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Each put is enqueued, replacing any change enqueued for the same key.
+	 *
+	 * @throws NullPointerException if the parameter is {@code null}
+	 */
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		changes.putAll(checkMap(m));
+		writeCount++;
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		applyChanges();
+		return super.putIfAbsent(key, value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The removal is enqueued, replacing any change enqueued for the same key.
+	 */
+	@Override
+	public V remove(Object key) {
+		final Object previous = lookUp(key);
+		if (previous == REMOVED) {
+			return null;
+		}
+		if (clearEnqueued || !super.containsKey(key)) {
+			// Only an enqueued put maps the key.
+			changes.remove(key);
+		} else {
+			changes.put(key, REMOVED);
+		}
+		writeCount++;
+		return valueOf(previous);
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		applyChanges();
+		return super.remove(key, value);
+	}
+
+	@Override
+	public V replace(K key, V value) {
+		applyChanges();
+		return super.replace(key, value);
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		applyChanges();
+		return super.replace(key, oldValue, newValue);
+	}
+
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+		applyChanges();
+		super.replaceAll(function);
+	}
+
+	@Override
+	public int size() {
+		applyChanges();
+		return super.size();
+	}
+
+	@Override
+	public Collection<V> values() {
+		return new View<>(super.values());
+	}
+
+	/**
+	 * Returns this map, once its change queue has been emptied, so that only applied
+	 * mappings are serialized.
+	 *
+	 * @return this map
+	 *
+	 * @throws ObjectStreamException never, but a subclass may throw it
+	 */
+	protected Object writeReplace() throws ObjectStreamException {
+		applyChanges();
+		return this;
+	}
+
+	/**
+	 * Reads this map from the specified stream, with an empty change queue.
+	 *
+	 * @param in  the stream to read from
+	 *
+	 * @throws IOException            if an I/O error occurs
+	 * @throws ClassNotFoundException if a key's or value's class cannot be found
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		changes = new HashMap<>();
+	}
+
+	/**
+	 * Returns the parameter, cast to this map's value type.
+	 *
+	 * @param value  a value that is not {@link #REMOVED}
+	 * @return the parameter
+	 */
+	@SuppressWarnings("unchecked")
+	private V valueOf(Object value) {
+		return (V) value;
+	}
+
+	/**
+	 * Returns the parameter, cast to a map of this map's key and value types.
+	 *
+	 * @param m  a map of dequeued puts
+	 * @return the parameter
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<K, V> mapOf(Map<Object, Object> m) {
+		return (Map<K, V>) (Map<?, ?>) m;
+	}
+
+	/**
+	 * The entry point for this class to be run from the command line.
+	 *
+	 * @param args  the string array passed from the command line
+	 */
+	public static void main(String[] args) {
+		final int keys = 1_000;
+		final int writes = 10_000_000;
+		final LazyRAMMap<Integer, Long> lazy = new LazyRAMMap<>();
+		final HashMap<Integer, Long> eager = new HashMap<>();
+		long start = System.nanoTime();
+		for (int i = 0; i < writes; i++) {
+			eager.put(i % keys, (long) i);
+		}
+		System.out.println("HashMap:    " + (System.nanoTime() - start) / 1_000_000 + " ms");
+		start = System.nanoTime();
+		for (int i = 0; i < writes; i++) {
+			lazy.put(i % keys, (long) i);
+		}
+		lazy.applyChanges();
+		System.out.println("LazyRAMMap: " + (System.nanoTime() - start) / 1_000_000 + " ms");
+		System.out.println("Equal: " + lazy.equals(eager));
+	}
+}
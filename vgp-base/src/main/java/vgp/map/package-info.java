@@ -0,0 +1,8 @@
+/**
+ * Container for implementations of {@link java.util.Map}.
+ *
+ * @author [...]
+ * @version 2.5
+ * @since 2.5
+ */
+package vgp.map;
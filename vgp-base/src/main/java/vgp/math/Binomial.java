@@ -0,0 +1,283 @@
+package vgp.math;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import vgp.dispose.Disposable;
+
+/**
+ * A means to calculate binomial coefficients, multinomial coefficients, and
+ * Catalan numbers, without calculating any factorial.
+ * <p>
+ * Each of these numbers is a quotient of factorials, so the exponent of each
+ * prime p in it follows from Legendre's formula, by which the exponent of p in
+ * n! is n / p + n / p^2 + n / p^3 + ... The prime powers whose exponents are
+ * positive are then multiplied as a balanced product tree on a
+ * {@link ForkJoinPool}, so no intermediate product exceeds the result, and the
+ * power of 2 is applied with a single shift.
+ * <p>
+ * The primes are listed by a sieve, which is kept for later calls and only
+ * sieved again when a larger bound is needed.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+public final class Binomial implements Disposable {
+
+    /**
+     * Every prime up to {@link #sievedUpTo}, in increasing order.
+     */
+    private int[] primes = new int[0];
+
+    /**
+     * The bound up to which {@link #primes} lists every prime.
+     */
+    private int sievedUpTo = 1;
+
+    /**
+     * Must never change from {@code true} to {@code false}.
+     */
+    private boolean disposed = false;
+
+    /**
+     * The pool on which to multiply prime powers.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a new object of this class with default characteristics, which
+     * multiplies prime powers on the {@linkplain ForkJoinPool#commonPool()
+     * common pool}.
+     */
+    public Binomial() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new object of this class, which multiplies prime powers on the
+     * given pool.
+     *
+     * @param pool the pool on which to multiply prime powers
+     *
+     * @throws NullPointerException if the given pool is {@code null}
+     */
+    public Binomial(ForkJoinPool pool) {
+        super();
+        if (pool == null) {
+            throw new NullPointerException("Null pool parameter: " + pool);
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the binomial coefficient of n and k, which is the number of ways
+     * to choose k of n items.
+     *
+     * @param n a nonnegative integer
+     * @param k any integer
+     * @return n! / (k! * (n - k)!), or 0 if {@code k} is negative or exceeds
+     *         {@code n}
+     *
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @throws IllegalStateException    if this object is disposed
+     */
+    public BigInteger getBinomialCoefficient(int n, int k) {
+        verifyNotDisposed();
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative value of n: " + n);
+        } else if (k < 0 || k > n) {
+            return BigInteger.ZERO;
+        }
+        return getMultinomialCoefficient(k, n - k);
+    }
+
+    /**
+     * Returns the multinomial coefficient of the given values of k, which is the
+     * number of ways to divide n items, where n is their sum, into groups of
+     * those sizes.
+     *
+     * @param ks nonnegative integers, whose sum does not exceed
+     *           {@link Integer#MAX_VALUE}
+     * @return n! / (k<sub>1</sub>! * k<sub>2</sub>! * ...), which is 1 if
+     *         {@code ks} is empty
+     *
+     * @throws IllegalArgumentException if any value of k is negative, or if
+     *                                  their sum exceeds
+     *                                  {@link Integer#MAX_VALUE}
+     * @throws IllegalStateException    if this object is disposed
+     * @throws NullPointerException     if {@code ks} is {@code null}
+     */
+    public BigInteger getMultinomialCoefficient(int... ks) {
+        verifyNotDisposed();
+        if (ks == null) {
+            throw new NullPointerException("Null ks parameter: " + ks);
+        }
+        long sum = 0;
+        for (int k : ks) {
+            if (k < 0) {
+                throw new IllegalArgumentException("Negative value of k: " + k);
+            }
+            sum += k;
+        }
+        if (sum > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Sum of ks exceeds Integer.MAX_VALUE: " + sum);
+        }
+        final int n = (int) sum;
+        // 0! and 1! have no prime factors.
+        final int[] denominators = new int[ks.length];
+        int count = 0;
+        for (int k : ks) {
+            if (k > 1) {
+                denominators[count++] = k;
+            }
+        }
+        return primePowerProduct(n, Arrays.copyOf(denominators, count));
+    }
+
+    /**
+     * Returns the nth Catalan number, which is the number of ways to match n
+     * pairs of parentheses.
+     *
+     * @param n a nonnegative integer, at most {@code Integer.MAX_VALUE / 2}
+     * @return (2n)! / (n! * (n + 1)!)
+     *
+     * @throws IllegalArgumentException if {@code n} is negative, or if 2n
+     *                                  exceeds {@link Integer#MAX_VALUE}
+     * @throws IllegalStateException    if this object is disposed
+     */
+    public BigInteger getNthCatalanNumber(int n) {
+        verifyNotDisposed();
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative value of n: " + n);
+        } else if (n > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Too large value of n: " + n);
+        }
+        return primePowerProduct(2 * n, new int[] {n, n + 1});
+    }
+
+    /**
+     * Returns the quotient of n! by the product of the factorials of the given
+     * denominators, which must be an integer.
+     *
+     * @param n            a nonnegative integer
+     * @param denominators nonnegative integers whose factorials' product divides
+     *                     n!
+     * @return n! / (d<sub>1</sub>! * d<sub>2</sub>! * ...)
+     */
+    private BigInteger primePowerProduct(int n, int[] denominators) {
+        ensureSievedUpTo(n);
+        final int primeCount = PrimeSieve.countUpTo(primes, n);
+        long[] primePowers = new long[primeCount];
+        int count = 0;
+        int exponentOfTwo = 0;
+        for (int i = 0; i < primeCount; i++) {
+            final int p = primes[i];
+            int exponent = legendre(n, p);
+            for (int d : denominators) {
+                exponent -= legendre(d, p);
+            }
+            if (exponent == 0) {
+                continue;
+            } else if (p == 2) {
+                exponentOfTwo = exponent;
+                continue;
+            }
+            // Powers of p that fit in a long, of which a multinomial may need several.
+            long power = p;
+            int powerExponent = 1;
+            while (powerExponent < exponent && power <= Long.MAX_VALUE / p) {
+                power *= p;
+                powerExponent++;
+            }
+            final int repeats = exponent / powerExponent;
+            final int remainder = exponent % powerExponent;
+            if (count + repeats + 1 > primePowers.length) {
+                primePowers = Arrays.copyOf(primePowers,
+                        Math.max(count + repeats + 1, primePowers.length + (primePowers.length >> 1)));
+            }
+            for (int r = 0; r < repeats; r++) {
+                primePowers[count++] = power;
+            }
+            if (remainder > 0) {
+                long remainderPower = 1;
+                for (int r = 0; r < remainder; r++) {
+                    remainderPower *= p;
+                }
+                primePowers[count++] = remainderPower;
+            }
+        }
+        return ProductTree.product(primePowers, 0, count, pool).shiftLeft(exponentOfTwo);
+    }
+
+    /**
+     * Returns the exponent of the given prime in n!, by Legendre's formula.
+     *
+     * @param n a nonnegative integer
+     * @param p a prime
+     * @return n / p + n / p^2 + n / p^3 + ...
+     */
+    private static int legendre(int n, int p) {
+        int exponent = 0;
+        for (int quotient = n / p; quotient > 0; quotient /= p) {
+            exponent += quotient;
+        }
+        return exponent;
+    }
+
+    /**
+     * Sieve the primes up to at least n, unless they are already listed.
+     *
+     * @param n a nonnegative integer
+     */
+    private void ensureSievedUpTo(int n) {
+        if (n <= sievedUpTo) {
+            return;
+        }
+        final int bound = (int) Math.min(Integer.MAX_VALUE, Math.max(n, sievedUpTo + ((long) sievedUpTo >> 1)));
+        primes = PrimeSieve.primesUpTo(bound);
+        sievedUpTo = bound;
+    }
+
+    @Override
+    public void dispose() {
+        if (isDisposed()) {
+            return;
+        }
+        disposed = true;
+        primes = new int[0];
+        sievedUpTo = 1;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    public static void main(String[] args) {
+        final Binomial binomial = new Binomial();
+        final Factorial factorial = new Factorial();
+        try {
+            System.out.println("n\tk\tBinomial ns\tFactorial ns\tMatches Factorial");
+            for (int n = 10; n <= 100_000; n *= 10) {
+                final int k = n / 3;
+                final long before = System.nanoTime();
+                final BigInteger coefficient = binomial.getBinomialCoefficient(n, k);
+                final long middle = System.nanoTime();
+                final BigInteger quotient = factorial.getFactorialOfN(n)
+                        .divide(factorial.getFactorialOfN(k).multiply(factorial.getFactorialOfN(n - k)));
+                final long after = System.nanoTime();
+                System.out.println(String.format("%d\t%d\t%d ns\t%d ns\t%b", n, k, middle - before,
+                        after - middle, coefficient.equals(quotient)));
+            }
+            System.out.println("Catalan numbers: " + binomial.getNthCatalanNumber(0) + ", "
+                    + binomial.getNthCatalanNumber(1) + ", " + binomial.getNthCatalanNumber(2) + ", "
+                    + binomial.getNthCatalanNumber(3) + ", " + binomial.getNthCatalanNumber(4) + ", "
+                    + binomial.getNthCatalanNumber(5));
+        } finally {
+            binomial.dispose();
+            factorial.dispose();
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package vgp.math;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A disk-backed cache of factorials or Fibonacci numbers. It keeps checkpoints
+ * in a file and keeps none of its numbers on the heap, so a later run can reuse
+ * them instead of recalculating them.
+ * <p>
+ * The file holds a checkpoint for some of the multiples of an interval. A
+ * factorial checkpoint holds c!. A Fibonacci checkpoint holds the cth and
+ * (c + 1)th numbers, indexed as in {@link Fibonacci}. The file begins with a
+ * header and an index of each checkpoint's offset, which stay memory-mapped
+ * while the cache is open. Each checkpoint's two's-complement bytes follow, as
+ * written by {@link BigInteger#toByteArray()}, and a lookup maps only the
+ * checkpoint it needs.
+ * <p>
+ * A lookup of n starts from the checkpoint at the largest multiple of the
+ * interval up to n, and calculates forward from it with at most one interval of
+ * multiplications or additions. If that checkpoint is missing, it is
+ * calculated and appended first. A factorial checkpoint is calculated from the
+ * nearest earlier one, whose successors up to it are appended too. If that
+ * checkpoint is more than {@value Factorial#PRIME_SWING_THRESHOLD} away, the
+ * prime swing algorithm is used instead. A Fibonacci checkpoint is calculated
+ * by fast doubling.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+public final class CheckpointCache implements Closeable {
+
+    /**
+     * The sequences whose numbers a {@link CheckpointCache} can hold.
+     */
+    public enum Sequence {
+
+        /**
+         * Factorials, where the nth number is n!.
+         */
+        FACTORIAL,
+
+        /**
+         * Fibonacci numbers, where the 0th and 1st numbers are both 1.
+         */
+        FIBONACCI
+    }
+
+    /**
+     * The first four bytes of a checkpoint file: {@code "VGPM"} in ASCII.
+     */
+    private static final int MAGIC = 0x5647504D;
+
+    /**
+     * The format version written after {@link #MAGIC}.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The number of bytes before the index: the magic number, the version, the
+     * sequence, the interval, the capacity, the number of checkpoints, and the
+     * end of the last checkpoint.
+     */
+    private static final int HEADER_LENGTH = 32;
+
+    /**
+     * The position in the header of the number of checkpoints.
+     */
+    private static final int COUNT_POSITION = 20;
+
+    /**
+     * The position in the header of the end of the last checkpoint.
+     */
+    private static final int END_POSITION = 24;
+
+    /**
+     * The file channel.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The sequence whose numbers this cache holds.
+     */
+    private final Sequence sequence;
+
+    /**
+     * The distance between consecutive checkpoints.
+     */
+    private final int interval;
+
+    /**
+     * The number of checkpoints the index can hold, which are those at 0,
+     * {@link #interval}, ..., {@code (capacity - 1) * interval}.
+     */
+    private final int capacity;
+
+    /**
+     * The header and the index, mapped from the file. Index k holds the offset
+     * of the checkpoint at {@code k * interval}, or 0 if it is missing.
+     */
+    private final MappedByteBuffer index;
+
+    /**
+     * Constructs a new {@code CheckpointCache} on the specified channel and
+     * mapped index.
+     *
+     * @param channel  the file channel
+     * @param sequence the sequence whose numbers this cache holds
+     * @param interval the distance between consecutive checkpoints
+     * @param capacity the number of checkpoints the index can hold
+     * @param index    the header and the index, mapped from the file
+     */
+    private CheckpointCache(FileChannel channel, Sequence sequence, int interval, int capacity,
+            MappedByteBuffer index) {
+        super();
+        this.channel = channel;
+        this.sequence = sequence;
+        this.interval = interval;
+        this.capacity = capacity;
+        this.index = index;
+    }
+
+    /**
+     * Opens the cache at the specified path, creating it if it does not exist.
+     * <p>
+     * The interval and capacity only apply to a new file; an existing file keeps
+     * its own. A checkpoint that was not completely written, which is what a
+     * crash in the middle of a write leaves behind, is discarded.
+     *
+     * @param path     the path of the cache file
+     * @param sequence the sequence whose numbers the cache holds
+     * @param interval the distance between consecutive checkpoints, such as 1000
+     * @param capacity the number of checkpoints the index can hold
+     * @return an open cache
+     *
+     * @throws IOException              if an I/O error occurs, or if the file is
+     *                                  not a cache of the given sequence
+     * @throws IllegalArgumentException if the interval or the capacity is not
+     *                                  positive
+     * @throws NullPointerException     if the path or the sequence is
+     *                                  {@code null}
+     */
+    public static CheckpointCache open(Path path, Sequence sequence, int interval, int capacity)
+            throws IOException {
+        if (path == null) {
+            throw new NullPointerException("Null path parameter: " + path);
+        }
+        if (sequence == null) {
+            throw new NullPointerException("Null sequence parameter: " + sequence);
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Nonpositive interval: " + interval);
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Nonpositive capacity: " + capacity);
+        }
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                final long end = HEADER_LENGTH + 8L * capacity;
+                final MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_WRITE, 0, end);
+                index.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, sequence.ordinal()).putInt(12, interval)
+                        .putInt(16, capacity).putInt(COUNT_POSITION, 0).putLong(END_POSITION, end);
+                index.force();
+                return new CheckpointCache(channel, sequence, interval, capacity, index);
+            }
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // Keep reading until the header is full or the file ends.
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new StreamCorruptedException("Not a CheckpointCache file");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new StreamCorruptedException("Unsupported CheckpointCache version: " + header.getInt(4));
+            }
+            if (header.getInt(8) != sequence.ordinal()) {
+                throw new StreamCorruptedException("Not a " + sequence + " CheckpointCache file");
+            }
+            final int fileInterval = header.getInt(12);
+            final int fileCapacity = header.getInt(16);
+            final long end = header.getLong(END_POSITION);
+            if (fileInterval <= 0 || fileCapacity <= 0 || end < HEADER_LENGTH + 8L * fileCapacity
+                    || end > channel.size()) {
+                throw new StreamCorruptedException("Corrupt CheckpointCache header");
+            }
+            final MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_LENGTH + 8L * fileCapacity);
+            int count = 0;
+            for (int k = 0; k < fileCapacity; k++) {
+                final long offset = index.getLong(HEADER_LENGTH + 8 * k);
+                if (offset >= end) {
+                    index.putLong(HEADER_LENGTH + 8 * k, 0);
+                } else if (offset != 0) {
+                    count++;
+                }
+            }
+            index.putInt(COUNT_POSITION, count);
+            channel.truncate(end);
+            return new CheckpointCache(channel, sequence, fileInterval, fileCapacity, index);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the sequence whose numbers this cache holds.
+     *
+     * @return the sequence
+     */
+    public Sequence getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the distance between consecutive checkpoints.
+     *
+     * @return the interval
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Returns the number of checkpoints the index can hold.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of checkpoints in the file.
+     *
+     * @return the number of checkpoints
+     */
+    public int getCheckpointCount() {
+        return index.getInt(COUNT_POSITION);
+    }
+
+    /**
+     * Returns the nth number of this cache's sequence, appending any checkpoint
+     * that the lookup calculates.
+     *
+     * @param n a nonnegative integer
+     * @return n! or the nth Fibonacci number
+     *
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @throws IllegalStateException    if this cache is closed
+     * @throws UncheckedIOException     if an I/O error occurs
+     */
+    public BigInteger get(int n) {
+        if (!channel.isOpen()) {
+            throw new IllegalStateException("Closed CheckpointCache");
+        }
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative value of n: " + n);
+        }
+        final int k = Math.min(n / interval, capacity - 1);
+        try {
+            return sequence == Sequence.FACTORIAL ? factorial(n, k) : fibonacci(n, k);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns n!, starting from the checkpoint at {@code k * interval}.
+     *
+     * @param n a nonnegative integer
+     * @param k the index of the checkpoint to start from
+     * @return n!
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private BigInteger factorial(int n, int k) throws IOException {
+        final int c = k * interval;
+        BigInteger factorialOfI;
+        if (offsetOf(k) != 0) {
+            factorialOfI = read(k)[0];
+        } else {
+            int j = k - 1;
+            while (j >= 0 && offsetOf(j) == 0) {
+                j--;
+            }
+            if (j < 0 ? c > Factorial.PRIME_SWING_THRESHOLD
+                    : (long) (k - j) * interval > Factorial.PRIME_SWING_THRESHOLD) {
+                factorialOfI = Factorial.primeSwingFactorial(c, null);
+            } else {
+                factorialOfI = j < 0 ? BigInteger.ONE : read(j)[0];
+                for (int i = Math.max(j, 0) * interval + 1; i <= c; i++) {
+                    factorialOfI = factorialOfI.multiply(BigInteger.valueOf(i));
+                    if (i % interval == 0 && i < c) {
+                        write(i / interval, factorialOfI);
+                    }
+                }
+            }
+            write(k, factorialOfI);
+        }
+        for (int i = c + 1; i <= n; i++) {
+            factorialOfI = factorialOfI.multiply(BigInteger.valueOf(i));
+        }
+        return factorialOfI;
+    }
+
+    /**
+     * Returns the nth Fibonacci number, starting from the checkpoint at
+     * {@code k * interval}.
+     *
+     * @param n a nonnegative integer
+     * @param k the index of the checkpoint to start from
+     * @return the nth Fibonacci number
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private BigInteger fibonacci(int n, int k) throws IOException {
+        final int c = k * interval;
+        BigInteger a;
+        BigInteger b;
+        if (offsetOf(k) != 0) {
+            final BigInteger[] pair = read(k);
+            a = pair[0];
+            b = pair[1];
+        } else {
+            a = Fibonacci.fastDoubling(c + 1L);
+            b = Fibonacci.fastDoubling(c + 2L);
+            write(k, a, b);
+        }
+        for (int i = c; i < n; i++) {
+            final BigInteger sum = a.add(b);
+            a = b;
+            b = sum;
+        }
+        return a;
+    }
+
+    /**
+     * Returns the offset of the checkpoint at {@code k * interval}.
+     *
+     * @param k the index of the checkpoint
+     * @return its offset in the file, or 0 if it is missing
+     */
+    private long offsetOf(int k) {
+        return index.getLong(HEADER_LENGTH + 8 * k);
+    }
+
+    /**
+     * Reads the checkpoint at {@code k * interval}, mapping only the bytes of
+     * each of its numbers.
+     *
+     * @param k the index of a checkpoint that is in the file
+     * @return its numbers
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private BigInteger[] read(int k) throws IOException {
+        final BigInteger[] numbers = new BigInteger[sequence == Sequence.FACTORIAL ? 1 : 2];
+        final ByteBuffer lengthBytes = ByteBuffer.allocate(4);
+        long position = offsetOf(k);
+        for (int i = 0; i < numbers.length; i++) {
+            lengthBytes.clear();
+            while (lengthBytes.hasRemaining()) {
+                if (channel.read(lengthBytes, position + lengthBytes.position()) < 0) {
+                    throw new StreamCorruptedException("Unexpected end of CheckpointCache file");
+                }
+            }
+            final int length = lengthBytes.getInt(0);
+            final byte[] magnitude = new byte[length];
+            channel.map(FileChannel.MapMode.READ_ONLY, position + 4, length).get(magnitude);
+            numbers[i] = new BigInteger(magnitude);
+            position += 4 + length;
+        }
+        return numbers;
+    }
+
+    /**
+     * Appends the checkpoint at {@code k * interval} to the file, and then
+     * records it in the index.
+     *
+     * @param k       the index of the checkpoint
+     * @param numbers its numbers
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void write(int k, BigInteger... numbers) throws IOException {
+        final byte[][] magnitudes = new byte[numbers.length][];
+        long length = 0;
+        for (int i = 0; i < numbers.length; i++) {
+            magnitudes[i] = numbers[i].toByteArray();
+            length += 4 + magnitudes[i].length;
+        }
+        final long offset = index.getLong(END_POSITION);
+        final MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_WRITE, offset, length);
+        for (byte[] magnitude : magnitudes) {
+            bytes.putInt(magnitude.length).put(magnitude);
+        }
+        bytes.force();
+        index.putLong(END_POSITION, offset + length);
+        index.putLong(HEADER_LENGTH + 8 * k, offset);
+        index.putInt(COUNT_POSITION, index.getInt(COUNT_POSITION) + 1);
+    }
+
+    /**
+     * Forces the header and the index to the storage device.
+     */
+    public void sync() {
+        index.force();
+    }
+
+    /**
+     * Synchronizes and closes this cache.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CheckpointCache [sequence=" + sequence + ", interval=" + interval + ", capacity=" + capacity
+                + ", open=" + channel.isOpen() + "]";
+    }
+
+    public static void main(String[] args) throws IOException {
+        final Path path = Files.createTempFile("factorials", ".vgpm");
+        try {
+            for (int run = 1; run <= 2; run++) {
+                try (final CheckpointCache cache = open(path, Sequence.FACTORIAL, 1000, 1000)) {
+                    final long before = System.nanoTime();
+                    final int bitLength = cache.get(200_500).bitLength();
+                    final long after = System.nanoTime();
+                    System.out.println("Run " + run + ": 200500! has " + bitLength + " bits and took "
+                            + (after - before) + " ns; " + cache.getCheckpointCount() + " checkpoints");
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
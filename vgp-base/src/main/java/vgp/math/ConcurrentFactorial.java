@@ -0,0 +1,120 @@
+package vgp.math;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import vgp.dispose.Disposable;
+
+/**
+ * A thread-safe means to calculate the factorial of n, which one object can
+ * serve to every thread.
+ * <p>
+ * Each factorial is calculated by the prime swing algorithm, like a large
+ * factorial of {@link Factorial}, and then cached by its value of n. Threads
+ * that request the same uncached factorial at the same time share a single
+ * calculation, and a request for a cached factorial takes no lock. Factorials
+ * of n up to {@value Factorial#MAX_LONG_N} come from a shared table instead.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+public final class ConcurrentFactorial implements Disposable {
+
+    /**
+     * Keys are values of n. Value for each key is the factorial of that key.
+     */
+    private final FutureCache factorialOfNCache;
+
+    /**
+     * Must never change from {@code true} to {@code false}.
+     */
+    private volatile boolean disposed = false;
+
+    /**
+     * Create a new object of this class with default characteristics, which
+     * calculates prime swings on the {@linkplain ForkJoinPool#commonPool()
+     * common pool}.
+     */
+    public ConcurrentFactorial() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new object of this class, which calculates prime swings on the
+     * given pool.
+     *
+     * @param pool the pool on which to calculate prime swings
+     *
+     * @throws NullPointerException if the given pool is {@code null}
+     */
+    public ConcurrentFactorial(ForkJoinPool pool) {
+        super();
+        if (pool == null) {
+            throw new NullPointerException("Null pool parameter: " + pool);
+        }
+        factorialOfNCache = new FutureCache(n -> Factorial.primeSwingFactorial(n, pool));
+    }
+
+    /**
+     * Returns the factorial of n.
+     *
+     * @param n a nonnegative integer
+     * @return n!
+     *
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @throws IllegalStateException    if this object is disposed
+     */
+    public BigInteger getFactorialOfN(int n) {
+        verifyNotDisposed();
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative value of n: " + n);
+        } else if (n <= Factorial.MAX_LONG_N) {
+            return Factorial.primeSwingFactorial(n, null);
+        } else {
+            return factorialOfNCache.get(n);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (isDisposed()) {
+            return;
+        }
+        disposed = true;
+        factorialOfNCache.clear();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        final ConcurrentFactorial factorial = new ConcurrentFactorial();
+        final AtomicInteger calls = new AtomicInteger();
+        try {
+            final Thread[] threads = new Thread[8];
+            final long before = System.nanoTime();
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    for (int n = 0; n < 2000; n += 7) {
+                        factorial.getFactorialOfN(n);
+                        calls.incrementAndGet();
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            final long after = System.nanoTime();
+            System.out.println(calls.get() + " calls from " + threads.length + " threads took "
+                    + (after - before) + " ns; " + factorial.factorialOfNCache.size()
+                    + " factorials were calculated");
+        } finally {
+            factorial.dispose();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package vgp.math;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import vgp.dispose.Disposable;
+
+/**
+ * A thread-safe means to calculate the nth Fibonacci number, which one object
+ * can serve to every thread.
+ * <p>
+ * Each number is calculated by fast doubling, like those of {@link Fibonacci},
+ * and then cached by its value of n. Threads that request the same uncached
+ * number at the same time share a single calculation, and a request for a
+ * cached number takes no lock.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+public final class ConcurrentFibonacci implements Disposable {
+
+    /**
+     * Keys are values of n. Value for each key is that key's Fibonacci number.
+     */
+    private final FutureCache fibonacciNthNumberCache = new FutureCache(n -> Fibonacci.fastDoubling(n + 1L));
+
+    /**
+     * Must never change from {@code true} to {@code false}.
+     */
+    private volatile boolean disposed = false;
+
+    /**
+     * Create a new object of this class with default characteristics.
+     */
+    public ConcurrentFibonacci() {
+        super();
+    }
+
+    /**
+     * Returns the nth Fibonacci number, where the 0th and 1st numbers are both 1.
+     *
+     * @param n the index of the number, which is at least 0
+     * @return the nth Fibonacci number, which is the (n + 1)th number of the
+     *         sequence that starts with 0
+     *
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @throws IllegalStateException    if this object is disposed
+     */
+    public BigInteger getNthNumber(int n) {
+        verifyNotDisposed();
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative value of n: " + n);
+        } else if (n < 2) {
+            return BigInteger.ONE;
+        } else {
+            return fibonacciNthNumberCache.get(n);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (isDisposed()) {
+            return;
+        }
+        disposed = true;
+        fibonacciNthNumberCache.clear();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        final ConcurrentFibonacci fibonacci = new ConcurrentFibonacci();
+        final AtomicInteger calls = new AtomicInteger();
+        try {
+            final Thread[] threads = new Thread[8];
+            final long before = System.nanoTime();
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    for (int n = 0; n < 100_000; n += 97) {
+                        fibonacci.getNthNumber(n);
+                        calls.incrementAndGet();
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            final long after = System.nanoTime();
+            System.out.println(calls.get() + " calls from " + threads.length + " threads took "
+                    + (after - before) + " ns; " + fibonacci.fibonacciNthNumberCache.size()
+                    + " numbers were calculated");
+        } finally {
+            fibonacci.dispose();
+        }
+    }
+}
@@ -2,23 +2,98 @@ package vgp.math;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import vgp.dispose.Disposable;
 
 /**
  * A means to calculate the factorial of n.
+ * <p>
+ * Factorials are cached in an array indexed by n, which holds the factorial of
+ * every n up to the largest one calculated so far. Therefore, a cached
+ * factorial is returned in constant time, and an uncached one is calculated
+ * from the largest cached one. Factorials of n up to {@value #MAX_LONG_N}
+ * are also available as {@code long} values, from a shared table.
+ * <p>
+ * A factorial far beyond the largest cached one is calculated by Luschny's
+ * prime swing algorithm: n! = ((n / 2)!)^2 * swing(n), where swing(n) is the
+ * product of the powers of the primes up to n that divide n! / ((n / 2)!)^2.
+ * Each swing is calculated on a {@link ForkJoinPool}, as a balanced product
+ * tree of its prime powers. Such a factorial is kept in a sparse cache beside
+ * the array, from which it is returned again, and from which a factorial
+ * slightly above it is calculated.
+ * <p>
+ * Consecutive factorials are available as a {@linkplain #getRange(int, int)
+ * list} or a {@linkplain #stream(int) stream}, each of whose factorials takes a
+ * single multiplication by n.
  * 
  * @author (to be added)
- * @version 2.4
+ * @version 2.5
  * @since 2.4
  */
 public final class Factorial implements Disposable {
 
     /**
-     * Keys are values of n. Value for each key is the factorial of that key.
+     * The largest value of n whose factorial fits in a {@code long}.
      */
-    private final LinkedHashMap<Integer, BigInteger> factorialOfNCache = new LinkedHashMap<>();
+    public static final int MAX_LONG_N = 20;
+
+    /**
+     * How far beyond the largest cached value of n a factorial must be for it
+     * to be calculated by the prime swing algorithm, rather than by extending
+     * the cache.
+     */
+    static final int PRIME_SWING_THRESHOLD = 512;
+
+    /**
+     * Index n holds the factorial of n, for each n up to {@link #MAX_LONG_N}.
+     */
+    private static final long[] LONG_FACTORIALS = new long[MAX_LONG_N + 1];
+
+    /**
+     * Index n holds the factorial of n, for each n up to {@link #MAX_LONG_N}.
+     */
+    private static final BigInteger[] SMALL_FACTORIALS = new BigInteger[MAX_LONG_N + 1];
+
+    static {
+        LONG_FACTORIALS[0] = 1;
+        SMALL_FACTORIALS[0] = BigInteger.ONE;
+        for (int n = 1; n <= MAX_LONG_N; n++) {
+            LONG_FACTORIALS[n] = LONG_FACTORIALS[n - 1] * n;
+            SMALL_FACTORIALS[n] = BigInteger.valueOf(LONG_FACTORIALS[n]);
+        }
+    }
+
+    /**
+     * Index n holds the factorial of n, for each n up to {@link #largestCachedN}.
+     * The array's length may exceed {@code largestCachedN + 1}.
+     */
+    private BigInteger[] factorialOfNCache = Arrays.copyOf(SMALL_FACTORIALS, SMALL_FACTORIALS.length);
+
+    /**
+     * The largest value of n whose factorial is cached.
+     */
+    private int largestCachedN = MAX_LONG_N;
+
+    /**
+     * Maps values of n greater than {@link #largestCachedN} to their
+     * factorials, for factorials calculated too far beyond it to extend
+     * {@link #factorialOfNCache}.
+     */
+    private final TreeMap<Integer, BigInteger> sparseFactorialCache = new TreeMap<>();
 
     /**
      * Must never change from {@code true} to {@code false}.
@@ -26,41 +101,312 @@ public final class Factorial implements Disposable {
     private boolean disposed = false;
 
     /**
-     * Create a new object of this class with default characteristics.
+     * The pool on which to calculate prime swings.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a new object of this class with default characteristics, which
+     * calculates prime swings on the {@linkplain ForkJoinPool#commonPool()
+     * common pool}.
      */
     public Factorial() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new object of this class, which calculates prime swings on the
+     * given pool.
+     * 
+     * @param pool the pool on which to calculate prime swings
+     * 
+     * @throws NullPointerException if the given pool is {@code null}
+     */
+    public Factorial(ForkJoinPool pool) {
         super();
+        if (pool == null) {
+            throw new NullPointerException("Null pool parameter: " + pool);
+        }
+        this.pool = pool;
     }
 
+    /**
+     * Returns the factorial of n.
+     * <p>
+     * If n is not greater than the largest value of n whose factorial is cached,
+     * this takes constant time. Otherwise, if n exceeds it by more than
+     * {@value #PRIME_SWING_THRESHOLD}, n! is looked up in the sparse cache, or
+     * calculated from the largest factorial in it that is at most
+     * {@value #PRIME_SWING_THRESHOLD} below n, or else calculated by the prime
+     * swing algorithm, and then kept in the sparse cache. Otherwise, the
+     * factorial of each value of n from there up to this one is calculated and
+     * cached.
+     * 
+     * @param n a nonnegative integer
+     * @return n!
+     * 
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @throws IllegalStateException    if this object is disposed
+     */
     public BigInteger getFactorialOfN(int n) {
         verifyNotDisposed();
         if (n < 0) {
             throw new IllegalArgumentException("Negative value of n: " + n);
-        } else if (n < 2) {
-            return BigInteger.ONE;
+        } else if (n <= MAX_LONG_N) {
+            return SMALL_FACTORIALS[n];
+        } else if (n <= largestCachedN) {
+            return factorialOfNCache[n];
+        } else if (n - largestCachedN > PRIME_SWING_THRESHOLD) {
+            return sparseFactorialOfN(n);
         } else {
-            int i = 2;
-            BigInteger factorialOfI = BigInteger.TWO;
-            while (i < n) {
-                i++;
-                if (factorialOfNCache.containsKey(i)) {
-                    factorialOfI = factorialOfNCache.get(i);
-                } else {
-                    factorialOfI = factorialOfI.multiply(BigInteger.valueOf(i));
-                    factorialOfNCache.put(i, factorialOfI);
-                }
+            if (n >= factorialOfNCache.length) {
+                final int newLength = (int) Math.min(Integer.MAX_VALUE - 8,
+                        Math.max(n + 1L, factorialOfNCache.length + (factorialOfNCache.length >> 1)));
+                factorialOfNCache = Arrays.copyOf(factorialOfNCache, newLength);
+            }
+            BigInteger factorialOfI = factorialOfNCache[largestCachedN];
+            for (int i = largestCachedN + 1; i <= n; i++) {
+                factorialOfI = factorialOfI.multiply(BigInteger.valueOf(i));
+                factorialOfNCache[i] = factorialOfI;
+                largestCachedN = i;
+            }
+            if (!sparseFactorialCache.isEmpty()) {
+                sparseFactorialCache.headMap(largestCachedN, true).clear();
             }
             return factorialOfI;
         }
     }
 
+    /**
+     * Returns the factorial of n from the sparse cache, calculating and keeping
+     * it there if it is missing.
+     * 
+     * @param n an integer more than {@value #PRIME_SWING_THRESHOLD} greater
+     *          than {@link #largestCachedN}
+     * @return n!
+     */
+    private BigInteger sparseFactorialOfN(int n) {
+        final Map.Entry<Integer, BigInteger> floor = sparseFactorialCache.floorEntry(n);
+        final BigInteger factorialOfN;
+        if (floor == null || n - floor.getKey() > PRIME_SWING_THRESHOLD) {
+            factorialOfN = primeSwingFactorial(n, pool);
+        } else if (floor.getKey() == n) {
+            return floor.getValue();
+        } else {
+            BigInteger factorialOfI = floor.getValue();
+            for (int i = floor.getKey() + 1; i <= n; i++) {
+                factorialOfI = factorialOfI.multiply(BigInteger.valueOf(i));
+            }
+            factorialOfN = factorialOfI;
+        }
+        sparseFactorialCache.put(n, factorialOfN);
+        return factorialOfN;
+    }
+
+    /**
+     * Returns the factorials of every n from {@code fromN} (inclusive) to
+     * {@code toN} (exclusive), in order.
+     * <p>
+     * If {@code toN - 1} is within {@value #PRIME_SWING_THRESHOLD} of the largest
+     * cached value of n, the cache is extended up to it and the range is copied
+     * from it. Otherwise, the factorial of {@code fromN} is calculated by
+     * {@link #getFactorialOfN(int)}, and each later one from its predecessor, so
+     * the time taken is linear in the length of the range, and no factorial in
+     * the range but the first is cached.
+     * 
+     * @param fromN the first value of n, which is at least 0
+     * @param toN   the value of n after the last one, which is at least
+     *              {@code fromN}
+     * @return an unmodifiable list of {@code toN - fromN} factorials, whose
+     *         element i is (fromN + i)!
+     * 
+     * @throws IllegalArgumentException if {@code fromN} is negative, or if
+     *                                  {@code toN} is less than {@code fromN}
+     * @throws IllegalStateException    if this object is disposed
+     */
+    public List<BigInteger> getRange(int fromN, int toN) {
+        verifyNotDisposed();
+        if (fromN < 0) {
+            throw new IllegalArgumentException("Negative value of fromN: " + fromN);
+        } else if (toN < fromN) {
+            throw new IllegalArgumentException("toN parameter (" + toN + ") is less than fromN parameter (" + fromN + ")");
+        } else if (toN == fromN) {
+            return Collections.emptyList();
+        }
+        final int lastN = toN - 1;
+        if (lastN - largestCachedN <= PRIME_SWING_THRESHOLD) {
+            getFactorialOfN(lastN);
+            return Collections.unmodifiableList(Arrays.asList(Arrays.copyOfRange(factorialOfNCache, fromN, toN)));
+        }
+        final BigInteger[] range = new BigInteger[toN - fromN];
+        BigInteger factorialOfI = getFactorialOfN(fromN);
+        range[0] = factorialOfI;
+        for (int i = fromN + 1; i < toN; i++) {
+            factorialOfI = factorialOfI.multiply(BigInteger.valueOf(i));
+            range[i - fromN] = factorialOfI;
+        }
+        return Collections.unmodifiableList(Arrays.asList(range));
+    }
+
+    /**
+     * Returns a sequential stream of the factorials of every n from
+     * {@code fromN}, in order.
+     * <p>
+     * The factorial of {@code fromN} is calculated by
+     * {@link #getFactorialOfN(int)} when this method is called, and each later
+     * one from its predecessor, with a single multiplication, when the stream
+     * reaches it. Factorials reached by the stream are not cached.
+     * 
+     * @param fromN the first value of n, which is at least 0
+     * @return a stream of the factorials of {@code fromN}, {@code fromN + 1},
+     *         ..., up to {@link Integer#MAX_VALUE}
+     * 
+     * @throws IllegalArgumentException if {@code fromN} is negative
+     * @throws IllegalStateException    if this object is disposed
+     */
+    public Stream<BigInteger> stream(int fromN) {
+        final BigInteger first = getFactorialOfN(fromN);
+        final Spliterator<BigInteger> spliterator = new Spliterators.AbstractSpliterator<BigInteger>(
+                Integer.MAX_VALUE - (long) fromN + 1,
+                Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL) {
+
+            /**
+             * The value of n whose factorial is next, or -1 if the stream is exhausted.
+             */
+            private int n = fromN;
+
+            /**
+             * The factorial of {@code n - 1}, or {@code null} before the first one.
+             */
+            private BigInteger factorialOfPreviousN = null;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super BigInteger> action) {
+                if (n < 0) {
+                    return false;
+                }
+                factorialOfPreviousN = factorialOfPreviousN == null ? first
+                        : factorialOfPreviousN.multiply(BigInteger.valueOf(n));
+                n = n == Integer.MAX_VALUE ? -1 : n + 1;
+                action.accept(factorialOfPreviousN);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Returns the factorial of n, calculated by the prime swing algorithm.
+     * 
+     * @param n    a nonnegative integer
+     * @param pool the pool on which to calculate the swings, or {@code null} to
+     *             calculate them on the current thread
+     * @return n!
+     */
+    static BigInteger primeSwingFactorial(int n, ForkJoinPool pool) {
+        if (n <= MAX_LONG_N) {
+            return SMALL_FACTORIALS[n];
+        }
+        final int[] primes = PrimeSieve.primesUpTo(n);
+        int levels = 0;
+        while (n >> levels > MAX_LONG_N) {
+            levels++;
+        }
+        // The swings of n, n / 2, n / 4, ... are independent of each other.
+        final BigInteger[] swings = new BigInteger[levels];
+        if (pool == null) {
+            for (int k = 0; k < levels; k++) {
+                swings[k] = swing(n >> k, primes, null);
+            }
+        } else {
+            final List<ForkJoinTask<BigInteger>> tasks = new ArrayList<>(levels);
+            for (int k = 0; k < levels; k++) {
+                final int m = n >> k;
+                tasks.add(pool.submit(() -> swing(m, primes, pool)));
+            }
+            for (int k = 0; k < levels; k++) {
+                swings[k] = tasks.get(k).join();
+            }
+        }
+        BigInteger factorial = SMALL_FACTORIALS[n >> levels];
+        for (int k = levels - 1; k >= 0; k--) {
+            factorial = factorial.multiply(factorial).multiply(swings[k]);
+        }
+        return factorial;
+    }
+
+    /**
+     * Returns the swing of n, which is n! / ((n / 2)!)^2.
+     * <p>
+     * The exponent of each prime p in the swing of n is the number of odd
+     * quotients among n / p, n / p^2, n / p^3, ..., so the prime's power
+     * never exceeds n.
+     * 
+     * @param n      a nonnegative integer
+     * @param primes every prime up to at least n, in increasing order
+     * @param pool   the pool on which to multiply the prime powers, or
+     *               {@code null} to multiply them on the current thread
+     * @return the swing of n
+     */
+    private static BigInteger swing(int n, int[] primes, ForkJoinPool pool) {
+        final int primeCount = PrimeSieve.countUpTo(primes, n);
+        final long[] primePowers = new long[primeCount];
+        int count = 0;
+        for (int i = 0; i < primeCount; i++) {
+            final int p = primes[i];
+            long power = 1;
+            for (int quotient = n / p; quotient > 0; quotient /= p) {
+                if ((quotient & 1) == 1) {
+                    power *= p;
+                }
+            }
+            if (power > 1) {
+                primePowers[count++] = power;
+            }
+        }
+        return ProductTree.product(primePowers, 0, count, pool);
+    }
+
+    /**
+     * Returns the factorial of n as a {@code long}, from a table shared by every
+     * object of this class.
+     * 
+     * @param n an integer from 0 to {@value #MAX_LONG_N}
+     * @return n!
+     * 
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @throws ArithmeticException      if {@code n} exceeds {@value #MAX_LONG_N},
+     *                                  since n! would overflow a {@code long}
+     */
+    public static long getFactorialOfNAsLong(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative value of n: " + n);
+        } else if (n > MAX_LONG_N) {
+            throw new ArithmeticException("long overflow: " + n + "! exceeds Long.MAX_VALUE");
+        }
+        return LONG_FACTORIALS[n];
+    }
+
+    /**
+     * Returns a stream of the factorials of every n from 0 to
+     * {@value #MAX_LONG_N}, as {@code long} values, from a table shared by every
+     * object of this class.
+     * 
+     * @return a stream of {@value #MAX_LONG_N} + 1 factorials, in order of n
+     */
+    public static LongStream longStream() {
+        return Arrays.stream(LONG_FACTORIALS);
+    }
+
     @Override
     public void dispose() {
         if (isDisposed()) {
             return;
         }
         disposed = true;
-        factorialOfNCache.clear();
+        factorialOfNCache = SMALL_FACTORIALS;
+        largestCachedN = MAX_LONG_N;
+        sparseFactorialCache.clear();
     }
 
     @Override
@@ -71,13 +417,13 @@ public final class Factorial implements Disposable {
     public static void main(String[] args) {
         final Factorial factorial = new Factorial();
         try {
-            System.out.println("n\tgetFactorial(n)\tNanoseconds");
-            for (int n = 0; n < 1000; n++) {
-                final long before = System.nanoTime();
-                final BigInteger nthNumber = factorial.getFactorialOfN(n);
-                final long after = System.nanoTime();
-                final long timeItTook = after - before;
-                System.out.println(String.format("%d\t%e\t%20d ns", n, new BigDecimal(nthNumber), timeItTook));
+            final long before = System.nanoTime();
+            final List<BigInteger> range = factorial.getRange(0, 1000);
+            final long after = System.nanoTime();
+            System.out.println("getRange(0, 1000) took " + (after - before) + " ns");
+            System.out.println("n\tgetFactorial(n)");
+            for (int n = 0; n < range.size(); n++) {
+                System.out.println(String.format("%d\t%e", n, new BigDecimal(range.get(n))));
             }
         } finally {
             factorial.dispose();
@@ -2,21 +2,61 @@ package vgp.math;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import vgp.dispose.Disposable;
 
 /**
  * A means to calculate the nth Fibonacci number.
+ * <p>
+ * Numbers are calculated by fast doubling, which takes O(log n) big-number
+ * multiplications and no recursion, so n can be in the millions. Optionally,
+ * each number returned is cached by its value of n.
+ * <p>
+ * Consecutive numbers are available as a {@linkplain #getRange(int, int) list}
+ * or a {@linkplain #stream(int) stream}, each of whose numbers takes a single
+ * addition, and numbers of n up to {@value #MAX_LONG_N} are also available as
+ * {@code long} values, from a shared table.
  * 
  * @author (to be added)
- * @version 2.4
+ * @version 2.5
  * @since 2.4
  */
 public final class Fibonacci implements Disposable {
 
+    /**
+     * The largest value of n whose Fibonacci number fits in a {@code long}.
+     */
+    public static final int MAX_LONG_N = 91;
+
+    /**
+     * Index n holds the nth Fibonacci number, for each n up to
+     * {@link #MAX_LONG_N}.
+     */
+    private static final long[] LONG_NUMBERS = new long[MAX_LONG_N + 1];
+
+    static {
+        LONG_NUMBERS[0] = 1;
+        LONG_NUMBERS[1] = 1;
+        for (int n = 2; n <= MAX_LONG_N; n++) {
+            LONG_NUMBERS[n] = LONG_NUMBERS[n - 1] + LONG_NUMBERS[n - 2];
+        }
+    }
+
     /**
      * Keys are values of n. Value for each key is that key's Fibonacci number.
+     * <p>
+     * Only values of n passed to {@link #getNthNumber(int)} are cached, and only
+     * if {@link #cacheEnabled} is {@code true}.
      */
     private final LinkedHashMap<Integer, BigInteger> fibonnacciNthNumberCache = new LinkedHashMap<>();
 
@@ -26,26 +66,209 @@ public final class Fibonacci implements Disposable {
     private boolean disposed = false;
 
     /**
-     * Create a new object of this class with default characteristics.
+     * Whether {@link #getNthNumber(int)} caches what it returns.
+     */
+    private final boolean cacheEnabled;
+
+    /**
+     * Create a new object of this class with default characteristics, which
+     * caches each number it returns.
      */
     public Fibonacci() {
+        this(true);
+    }
+
+    /**
+     * Create a new object of this class.
+     * 
+     * @param cacheEnabled whether to cache each number returned by
+     *                     {@link #getNthNumber(int)}
+     */
+    public Fibonacci(boolean cacheEnabled) {
         super();
+        this.cacheEnabled = cacheEnabled;
     }
 
+    /**
+     * Returns the nth Fibonacci number, where the 0th and 1st numbers are both 1.
+     * 
+     * @param n the index of the number, which is at least 0
+     * @return the nth Fibonacci number, which is the (n + 1)th number of the
+     *         sequence that starts with 0
+     * 
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @throws IllegalStateException    if this object is disposed
+     */
     public BigInteger getNthNumber(int n) {
         verifyNotDisposed();
         if (n < 0) {
             throw new IllegalArgumentException("Negative value of n: " + n);
         } else if (n < 2) {
             return BigInteger.ONE;
+        } else if (!cacheEnabled) {
+            return fastDoubling(n + 1L);
         } else {
-            if (!fibonnacciNthNumberCache.containsKey(n)) {
-                BigInteger nthNumber = getNthNumber(n - 1);
-                nthNumber = nthNumber.add(getNthNumber(n - 2));
+            BigInteger nthNumber = fibonnacciNthNumberCache.get(n);
+            if (nthNumber == null) {
+                nthNumber = fastDoubling(n + 1L);
                 fibonnacciNthNumberCache.put(n, nthNumber);
             }
-            return fibonnacciNthNumberCache.get(n);
+            return nthNumber;
+        }
+    }
+
+    /**
+     * Returns the Fibonacci numbers of every n from {@code fromN} (inclusive) to
+     * {@code toN} (exclusive), in order.
+     * <p>
+     * The first two numbers are calculated by fast doubling, and each later one
+     * by adding its two predecessors, so the time taken is linear in the length
+     * of the range. The range is not cached.
+     * 
+     * @param fromN the first value of n, which is at least 0
+     * @param toN   the value of n after the last one, which is at least
+     *              {@code fromN}
+     * @return an unmodifiable list of {@code toN - fromN} numbers, whose element
+     *         i is the (fromN + i)th Fibonacci number
+     * 
+     * @throws IllegalArgumentException if {@code fromN} is negative, or if
+     *                                  {@code toN} is less than {@code fromN}
+     * @throws IllegalStateException    if this object is disposed
+     */
+    public List<BigInteger> getRange(int fromN, int toN) {
+        verifyNotDisposed();
+        if (fromN < 0) {
+            throw new IllegalArgumentException("Negative value of fromN: " + fromN);
+        } else if (toN < fromN) {
+            throw new IllegalArgumentException("toN parameter (" + toN + ") is less than fromN parameter (" + fromN + ")");
+        } else if (toN == fromN) {
+            return Collections.emptyList();
+        }
+        final BigInteger[] range = new BigInteger[toN - fromN];
+        range[0] = getNthNumber(fromN);
+        if (range.length > 1) {
+            range[1] = fastDoubling(fromN + 2L);
+            for (int i = 2; i < range.length; i++) {
+                range[i] = range[i - 1].add(range[i - 2]);
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(range));
+    }
+
+    /**
+     * Returns a sequential stream of the Fibonacci numbers of every n from
+     * {@code fromN}, in order.
+     * <p>
+     * The first two numbers are calculated by fast doubling when this method is
+     * called, and each later one by adding its two predecessors when the stream
+     * reaches it. Numbers reached by the stream are not cached.
+     * 
+     * @param fromN the first value of n, which is at least 0
+     * @return a stream of the Fibonacci numbers of {@code fromN},
+     *         {@code fromN + 1}, ..., up to {@link Integer#MAX_VALUE}
+     * 
+     * @throws IllegalArgumentException if {@code fromN} is negative
+     * @throws IllegalStateException    if this object is disposed
+     */
+    public Stream<BigInteger> stream(int fromN) {
+        final BigInteger first = getNthNumber(fromN);
+        final BigInteger second = fastDoubling(fromN + 2L);
+        final Spliterator<BigInteger> spliterator = new Spliterators.AbstractSpliterator<BigInteger>(
+                Integer.MAX_VALUE - (long) fromN + 1,
+                Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL) {
+
+            /**
+             * The value of n whose number is next, or -1 if the stream is exhausted.
+             */
+            private int n = fromN;
+
+            /**
+             * The nth number.
+             */
+            private BigInteger nthNumber = first;
+
+            /**
+             * The (n + 1)th number.
+             */
+            private BigInteger nextNumber = second;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super BigInteger> action) {
+                if (n < 0) {
+                    return false;
+                }
+                final BigInteger number = nthNumber;
+                nthNumber = nextNumber;
+                nextNumber = n == Integer.MAX_VALUE ? null : number.add(nextNumber);
+                n = n == Integer.MAX_VALUE ? -1 : n + 1;
+                action.accept(number);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Returns the nth Fibonacci number as a {@code long}, from a table shared by
+     * every object of this class.
+     * 
+     * @param n an integer from 0 to {@value #MAX_LONG_N}
+     * @return the nth Fibonacci number
+     * 
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @throws ArithmeticException      if {@code n} exceeds {@value #MAX_LONG_N},
+     *                                  since the number would overflow a
+     *                                  {@code long}
+     */
+    public static long getNthNumberAsLong(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative value of n: " + n);
+        } else if (n > MAX_LONG_N) {
+            throw new ArithmeticException("long overflow: Fibonacci number " + n + " exceeds Long.MAX_VALUE");
+        }
+        return LONG_NUMBERS[n];
+    }
+
+    /**
+     * Returns a stream of the Fibonacci numbers of every n from 0 to
+     * {@value #MAX_LONG_N}, as {@code long} values, from a table shared by every
+     * object of this class.
+     * 
+     * @return a stream of {@value #MAX_LONG_N} + 1 numbers, in order of n
+     */
+    public static LongStream longStream() {
+        return Arrays.stream(LONG_NUMBERS);
+    }
+
+    /**
+     * Returns the mth number of the Fibonacci sequence that starts with 0 and 1.
+     * <p>
+     * Starting from F(0) = 0 and F(1) = 1, the bits of m are read from the most
+     * significant one down, and each one turns F(k) and F(k + 1) into F(2k) and
+     * F(2k + 1), and then, if the bit is set, into F(2k + 1) and F(2k + 2):
+     * <ul>
+     * <li>F(2k) = F(k) * (2 * F(k + 1) - F(k))
+     * <li>F(2k + 1) = F(k)^2 + F(k + 1)^2
+     * </ul>
+     * 
+     * @param m the index of the number, which is at least 0
+     * @return F(m)
+     */
+    static BigInteger fastDoubling(long m) {
+        BigInteger a = BigInteger.ZERO;
+        BigInteger b = BigInteger.ONE;
+        for (int bit = 63 - Long.numberOfLeadingZeros(m); bit >= 0; bit--) {
+            final BigInteger c = a.multiply(b.shiftLeft(1).subtract(a));
+            final BigInteger d = a.multiply(a).add(b.multiply(b));
+            if ((m >>> bit & 1) == 0) {
+                a = c;
+                b = d;
+            } else {
+                a = d;
+                b = c.add(d);
+            }
         }
+        return a;
     }
 
     @Override
@@ -65,13 +288,13 @@ public final class Fibonacci implements Disposable {
     public static void main(String[] args) {
         final Fibonacci fibonacci = new Fibonacci();
         try {
-            System.out.println("n\tgetNthNumber(n)\tNanoseconds");
-            for (int n = 0; n < 1000; n++) {
-                final long before = System.nanoTime();
-                final BigInteger nthNumber = fibonacci.getNthNumber(n);
-                final long after = System.nanoTime();
-                final long timeItTook = after - before;
-                System.out.println(String.format("%d\t%e\t%20d ns", n, new BigDecimal(nthNumber), timeItTook));
+            final long before = System.nanoTime();
+            final List<BigInteger> range = fibonacci.getRange(0, 1000);
+            final long after = System.nanoTime();
+            System.out.println("getRange(0, 1000) took " + (after - before) + " ns");
+            System.out.println("n\tgetNthNumber(n)");
+            for (int n = 0; n < range.size(); n++) {
+                System.out.println(String.format("%d\t%e", n, new BigDecimal(range.get(n))));
             }
         } finally {
             fibonacci.dispose();
@@ -0,0 +1,104 @@
+package vgp.math;
+
+import java.math.BigInteger;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.IntFunction;
+
+/**
+ * A thread-safe cache of numbers by index, in which concurrent requests for the
+ * same index share a single calculation.
+ * <p>
+ * The first thread to request an index that is not cached calculates its
+ * number; any other thread requesting it meanwhile waits for that calculation.
+ * A request for a cached number takes no lock. A calculation that fails is not
+ * cached, so the next request for its index calculates it again.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+final class FutureCache {
+
+    /**
+     * Keys are indices. Value for each key is the calculation of that key's
+     * number, which may still be running.
+     */
+    private final ConcurrentHashMap<Integer, Future<BigInteger>> futures = new ConcurrentHashMap<>();
+
+    /**
+     * Calculates the number at each index.
+     */
+    private final IntFunction<BigInteger> function;
+
+    /**
+     * Create an empty cache.
+     *
+     * @param function calculates the number at each index
+     */
+    FutureCache(IntFunction<BigInteger> function) {
+        super();
+        this.function = function;
+    }
+
+    /**
+     * Returns the number at the given index, calculating it on the current
+     * thread unless it is cached or being calculated by another thread.
+     *
+     * @param index the index of the number
+     * @return the number at that index
+     *
+     * @throws CancellationException if the current thread is interrupted while
+     *                               waiting for another thread's calculation,
+     *                               in which case its interrupt status is set
+     */
+    BigInteger get(int index) {
+        final Integer key = index;
+        Future<BigInteger> future = futures.get(key);
+        if (future == null) {
+            final FutureTask<BigInteger> task = new FutureTask<>(() -> function.apply(index));
+            future = futures.putIfAbsent(key, task);
+            if (future == null) {
+                future = task;
+                task.run();
+            }
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final CancellationException cancellation = new CancellationException(
+                    "Interrupted while waiting for the number at index " + index);
+            cancellation.initCause(e);
+            throw cancellation;
+        } catch (ExecutionException e) {
+            futures.remove(key, future);
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Remove every cached number.
+     */
+    void clear() {
+        futures.clear();
+    }
+
+    /**
+     * Returns the number of indices that are cached or being calculated.
+     *
+     * @return the number of entries in this cache
+     */
+    int size() {
+        return futures.size();
+    }
+}
@@ -0,0 +1,253 @@
+package vgp.math;
+
+/**
+ * Arithmetic on residues modulo a positive {@code long}, without allocation.
+ * <p>
+ * Residues are kept in an internal form that depends on the modulus:
+ * <ul>
+ * <li>up to 2<sup>31</sup>, a residue is its own value, and products are
+ *     reduced with {@code %}, since they fit in a {@code long};
+ * <li>above that, for an odd modulus, a residue is kept in Montgomery form,
+ *     x * 2<sup>64</sup> mod m, so that products are reduced with two
+ *     multiplications instead of a 128-bit division;
+ * <li>above that, for an even modulus, a residue is its own value, and
+ *     products are formed by doubling and adding.
+ * </ul>
+ * Convert values with {@link #toResidue(long)} and {@link #toLong(long)}.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+final class ModularArithmetic {
+
+    /**
+     * The largest modulus for which products are reduced with {@code %}.
+     */
+    private static final long PLAIN_LIMIT = 1L << 31;
+
+    /**
+     * Bases for which the Miller-Rabin test is deterministic below
+     * 3.3 * 10<sup>24</sup>, and thus for every {@code long}.
+     */
+    private static final long[] MILLER_RABIN_BASES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+
+    /**
+     * The modulus.
+     */
+    final long modulus;
+
+    /**
+     * Whether residues are kept in Montgomery form.
+     */
+    private final boolean montgomery;
+
+    /**
+     * If {@link #montgomery}, the negated inverse of the modulus, modulo
+     * 2<sup>64</sup>.
+     */
+    private final long negatedInverse;
+
+    /**
+     * If {@link #montgomery}, 2<sup>128</sup> mod m, which converts a value to
+     * Montgomery form.
+     */
+    private final long rSquared;
+
+    /**
+     * The residue of 1.
+     */
+    private final long one;
+
+    /**
+     * Create arithmetic modulo the given modulus.
+     *
+     * @param modulus a positive integer
+     *
+     * @throws IllegalArgumentException if the modulus is not positive
+     */
+    ModularArithmetic(long modulus) {
+        super();
+        if (modulus <= 0) {
+            throw new IllegalArgumentException("Nonpositive modulus: " + modulus);
+        }
+        this.modulus = modulus;
+        montgomery = modulus > PLAIN_LIMIT && (modulus & 1) == 1;
+        if (montgomery) {
+            // Newton's iteration doubles the correct low bits of the inverse, starting from 3.
+            long inverse = modulus;
+            for (int i = 0; i < 5; i++) {
+                inverse *= 2 - modulus * inverse;
+            }
+            negatedInverse = -inverse;
+            final long r = Long.remainderUnsigned(-modulus, modulus);
+            rSquared = shiftAddMultiply(r, r);
+            one = r;
+        } else {
+            negatedInverse = 0;
+            rSquared = 0;
+            one = 1 % modulus;
+        }
+    }
+
+    /**
+     * Returns the residue of 1.
+     *
+     * @return the residue of 1
+     */
+    long one() {
+        return one;
+    }
+
+    /**
+     * Returns the residue of the given value.
+     *
+     * @param value any {@code long}
+     * @return the residue of {@code value}
+     */
+    long toResidue(long value) {
+        final long reduced = Math.floorMod(value, modulus);
+        return montgomery ? multiply(reduced, rSquared) : reduced;
+    }
+
+    /**
+     * Returns the value of the given residue.
+     *
+     * @param residue a residue
+     * @return the value, from 0 (inclusive) to the modulus (exclusive)
+     */
+    long toLong(long residue) {
+        return montgomery ? reduce(0, residue) : residue;
+    }
+
+    /**
+     * Returns the residue of a sum.
+     *
+     * @param a a residue
+     * @param b a residue
+     * @return the residue of a + b
+     */
+    long add(long a, long b) {
+        final long sum = a + b;
+        return Long.compareUnsigned(sum, modulus) >= 0 ? sum - modulus : sum;
+    }
+
+    /**
+     * Returns the residue of a difference.
+     *
+     * @param a a residue
+     * @param b a residue
+     * @return the residue of a - b
+     */
+    long subtract(long a, long b) {
+        final long difference = a - b;
+        return difference < 0 ? difference + modulus : difference;
+    }
+
+    /**
+     * Returns the residue of a product.
+     *
+     * @param a a residue
+     * @param b a residue
+     * @return the residue of a * b
+     */
+    long multiply(long a, long b) {
+        if (montgomery) {
+            return reduce(Math.multiplyHigh(a, b), a * b);
+        } else if (modulus <= PLAIN_LIMIT) {
+            return a * b % modulus;
+        } else {
+            return shiftAddMultiply(a, b);
+        }
+    }
+
+    /**
+     * Returns the residue of a power.
+     *
+     * @param base     a residue
+     * @param exponent a nonnegative exponent
+     * @return the residue of base<sup>exponent</sup>
+     */
+    long pow(long base, long exponent) {
+        long result = one;
+        for (long e = exponent; e != 0; e >>>= 1) {
+            if ((e & 1) == 1) {
+                result = multiply(result, base);
+            }
+            base = multiply(base, base);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a * b mod m, by doubling and adding, for values below the
+     * modulus.
+     *
+     * @param a a value below the modulus
+     * @param b a value below the modulus
+     * @return a * b mod m
+     */
+    private long shiftAddMultiply(long a, long b) {
+        long result = 0;
+        for (int bit = 63 - Long.numberOfLeadingZeros(b); bit >= 0; bit--) {
+            result = add(result, result);
+            if ((b >>> bit & 1) == 1) {
+                result = add(result, a);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Montgomery reduction: returns t / 2<sup>64</sup> mod m, for a 128-bit t
+     * below m * 2<sup>64</sup>.
+     *
+     * @param high the high 64 bits of t
+     * @param low  the low 64 bits of t
+     * @return t / 2<sup>64</sup> mod m
+     */
+    private long reduce(long high, long low) {
+        final long u = low * negatedInverse;
+        // low + (u * m mod 2^64) is 0 mod 2^64, and carries unless low is 0.
+        final long uTimesModulusHigh = Math.multiplyHigh(u, modulus) + (u >> 63 & modulus);
+        final long result = high + uTimesModulusHigh + (low != 0 ? 1 : 0);
+        return Long.compareUnsigned(result, modulus) >= 0 ? result - modulus : result;
+    }
+
+    /**
+     * Returns whether the given value is prime, by a Miller-Rabin test that is
+     * deterministic for every {@code long}.
+     *
+     * @param n any {@code long}
+     * @return {@code true} if {@code n} is prime; {@code false} otherwise
+     */
+    static boolean isPrime(long n) {
+        if (n < 2) {
+            return false;
+        }
+        for (long p : MILLER_RABIN_BASES) {
+            if (n % p == 0) {
+                return n == p;
+            }
+        }
+        final ModularArithmetic arithmetic = new ModularArithmetic(n);
+        final int s = Long.numberOfTrailingZeros(n - 1);
+        final long d = (n - 1) >>> s;
+        final long minusOne = arithmetic.toResidue(-1);
+        for (long base : MILLER_RABIN_BASES) {
+            long x = arithmetic.pow(arithmetic.toResidue(base), d);
+            if (x == arithmetic.one || x == minusOne) {
+                continue;
+            }
+            boolean composite = true;
+            for (int i = 1; i < s && composite; i++) {
+                x = arithmetic.multiply(x, x);
+                composite = x != minusOne;
+            }
+            if (composite) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
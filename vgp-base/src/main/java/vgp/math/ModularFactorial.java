@@ -0,0 +1,232 @@
+package vgp.math;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import vgp.dispose.Disposable;
+
+/**
+ * A means to calculate the factorial of n modulo a positive {@code long}, on
+ * primitives and without allocation once its table covers n.
+ * <p>
+ * This object keeps a table of checkpoints, the factorials of every multiple of
+ * {@value #BLOCK_SIZE} that it has reached so far, so each factorial costs at
+ * most {@value #BLOCK_SIZE} modular multiplications past its checkpoint, and
+ * the table only grows when a larger n is requested. Factorials of n at least
+ * the modulus are 0. For a prime modulus p, Wilson's theorem, (p - 1)! = -1
+ * mod p, reflects each n above (p - 1) / 2 to p - 1 - n, so the table never
+ * needs to pass (p - 1) / 2.
+ * <p>
+ * The cost is linear in n: the table is filled one modular multiplication per
+ * integer, so the first factorial of n costs n multiplications. The table holds
+ * at most {@value #MAX_CHECKPOINTS} checkpoints, covering n up to
+ * {@value #BLOCK_SIZE} * {@value #MAX_CHECKPOINTS} = 2^30; a factorial past
+ * that costs one multiplication per integer past the last checkpoint each time
+ * it is requested. This is practical for n up to about 2^34, which is far
+ * below a modulus near 2^62.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+public final class ModularFactorial implements Disposable {
+
+    /**
+     * The distance between consecutive checkpoints.
+     */
+    public static final int BLOCK_SIZE = 1 << 10;
+
+    /**
+     * The largest number of checkpoints kept, which take 8 bytes each.
+     */
+    public static final int MAX_CHECKPOINTS = 1 << 20;
+
+    /**
+     * The arithmetic modulo the modulus.
+     */
+    private final ModularArithmetic arithmetic;
+
+    /**
+     * Whether the modulus is prime.
+     */
+    private final boolean prime;
+
+    /**
+     * Index k holds the residue of (k * {@link #BLOCK_SIZE})!, for k below
+     * {@link #checkpointCount}.
+     */
+    private long[] checkpoints = new long[16];
+
+    /**
+     * The number of valid entries in {@link #checkpoints}, which is at least 1.
+     */
+    private int checkpointCount = 1;
+
+    /**
+     * Must never change from {@code true} to {@code false}.
+     */
+    private boolean disposed = false;
+
+    /**
+     * Create a new object of this class, which calculates factorials modulo the
+     * given modulus.
+     *
+     * @param modulus a positive integer
+     *
+     * @throws IllegalArgumentException if the modulus is not positive
+     */
+    public ModularFactorial(long modulus) {
+        super();
+        arithmetic = new ModularArithmetic(modulus);
+        prime = ModularArithmetic.isPrime(modulus);
+        checkpoints[0] = arithmetic.one();
+    }
+
+    /**
+     * Returns the modulus.
+     *
+     * @return the modulus
+     *
+     * @throws IllegalStateException if this object is disposed
+     */
+    public long getModulus() {
+        verifyNotDisposed();
+        return arithmetic.modulus;
+    }
+
+    /**
+     * Returns whether the modulus is prime, in which case factorials above half
+     * the modulus are calculated by Wilson's theorem.
+     *
+     * @return {@code true} if the modulus is prime; {@code false} otherwise
+     *
+     * @throws IllegalStateException if this object is disposed
+     */
+    public boolean isModulusPrime() {
+        verifyNotDisposed();
+        return prime;
+    }
+
+    /**
+     * Returns the factorial of n modulo the modulus.
+     *
+     * @param n a nonnegative integer
+     * @return n! mod m, from 0 (inclusive) to the modulus (exclusive)
+     *
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @throws IllegalStateException    if this object is disposed
+     */
+    public long getFactorialOfN(long n) {
+        verifyNotDisposed();
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative value of n: " + n);
+        }
+        final ModularArithmetic arithmetic = this.arithmetic;
+        final long modulus = arithmetic.modulus;
+        if (n >= modulus) {
+            return 0;
+        } else if (prime && n > (modulus - 1) / 2) {
+            // (p - 1)! = n! * (n + 1) * ... * (p - 1) = n! * (-1)^(p - 1 - n) * (p - 1 - n)! = -1
+            final long reflected = factorialResidue(modulus - 1 - n);
+            final long inverse = arithmetic.pow(reflected, modulus - 2);
+            final long result = arithmetic.toLong(inverse);
+            return ((modulus - n) & 1) == 0 || result == 0 ? result : modulus - result;
+        } else {
+            return arithmetic.toLong(factorialResidue(n));
+        }
+    }
+
+    /**
+     * Returns the residue of n!, extending the table of checkpoints up to n, or
+     * to its largest size.
+     *
+     * @param n a nonnegative integer below the modulus
+     * @return the residue of n!
+     */
+    private long factorialResidue(long n) {
+        final long block = Math.min(n / BLOCK_SIZE, MAX_CHECKPOINTS - 1);
+        ensureCheckpoints((int) block + 1);
+        return multiplyRange(checkpoints[(int) block], block * BLOCK_SIZE, n);
+    }
+
+    /**
+     * Extend the table of checkpoints to at least the given number of entries.
+     *
+     * @param count the number of checkpoints needed
+     */
+    private void ensureCheckpoints(int count) {
+        if (count <= checkpointCount) {
+            return;
+        }
+        if (count > checkpoints.length) {
+            final int grown = checkpoints.length + (checkpoints.length >> 1);
+            checkpoints = Arrays.copyOf(checkpoints, Math.max(count, grown));
+        }
+        for (int k = checkpointCount; k < count; k++) {
+            final long from = (long) (k - 1) * BLOCK_SIZE;
+            checkpoints[k] = multiplyRange(checkpoints[k - 1], from, from + BLOCK_SIZE);
+        }
+        checkpointCount = count;
+    }
+
+    /**
+     * Returns the residue of from! * (from + 1) * ... * to, given that of from!.
+     *
+     * @param residue the residue of from!
+     * @param from    a nonnegative integer
+     * @param to      an integer from {@code from} (inclusive) to the modulus
+     *                (exclusive)
+     * @return the residue of to!
+     */
+    private long multiplyRange(long residue, long from, long to) {
+        final ModularArithmetic arithmetic = this.arithmetic;
+        final long one = arithmetic.one();
+        long factor = arithmetic.toResidue(from);
+        for (long i = from + 1; i <= to; i++) {
+            factor = arithmetic.add(factor, one);
+            residue = arithmetic.multiply(residue, factor);
+        }
+        return residue;
+    }
+
+    @Override
+    public void dispose() {
+        if (isDisposed()) {
+            return;
+        }
+        disposed = true;
+        checkpoints = null;
+        checkpointCount = 0;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    public static void main(String[] args) {
+        final long[] moduli = {1_000, 1_000_003L, 1_000_000_007L, (1L << 61) - 1, 1L << 40};
+        final Factorial factorial = new Factorial();
+        try {
+            System.out.println("m\tn\tgetFactorialOfN(n)\tNanoseconds\tMatches Factorial");
+            for (long modulus : moduli) {
+                final ModularFactorial modularFactorial = new ModularFactorial(modulus);
+                try {
+                    for (int n = 10; n <= 1_000_000; n *= 10) {
+                        final long before = System.nanoTime();
+                        final long factorialOfN = modularFactorial.getFactorialOfN(n);
+                        final long after = System.nanoTime();
+                        final boolean matches = factorial.getFactorialOfN(n).mod(BigInteger.valueOf(modulus))
+                                .longValueExact() == factorialOfN;
+                        System.out.println(String.format("%d\t%d\t%d\t%d ns\t%b", modulus, n, factorialOfN,
+                                after - before, matches));
+                    }
+                } finally {
+                    modularFactorial.dispose();
+                }
+            }
+        } finally {
+            factorial.dispose();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package vgp.math;
+
+import java.math.BigInteger;
+
+import vgp.dispose.Disposable;
+
+/**
+ * A means to calculate the nth Fibonacci number modulo a positive
+ * {@code long}, on primitives and without allocation.
+ * <p>
+ * Numbers are indexed as in {@link Fibonacci}: the 0th and 1st numbers are
+ * both 1.
+ * <p>
+ * For a modulus up to {@value #PISANO_TABLE_LIMIT}, the Fibonacci sequence
+ * modulo m repeats with a period, its Pisano period, of at most 6m, so one
+ * period is tabulated when this object is created, and each number is looked
+ * up by reducing n modulo the period. For a larger modulus, each number is
+ * calculated by fast doubling, in at most 64 steps of three modular
+ * multiplications each, which use Montgomery reduction for an odd modulus
+ * above 2<sup>31</sup>.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+public final class ModularFibonacci implements Disposable {
+
+    /**
+     * The largest modulus for which a Pisano period is tabulated.
+     */
+    public static final int PISANO_TABLE_LIMIT = 1 << 12;
+
+    /**
+     * The arithmetic modulo the modulus.
+     */
+    private final ModularArithmetic arithmetic;
+
+    /**
+     * Index i holds F(i) mod m, starting from F(0) = 0, for one Pisano period,
+     * or {@code null} if the modulus exceeds {@link #PISANO_TABLE_LIMIT}.
+     */
+    private int[] pisanoPeriod;
+
+    /**
+     * Must never change from {@code true} to {@code false}.
+     */
+    private boolean disposed = false;
+
+    /**
+     * Create a new object of this class, which calculates Fibonacci numbers
+     * modulo the given modulus.
+     *
+     * @param modulus a positive integer
+     *
+     * @throws IllegalArgumentException if the modulus is not positive
+     */
+    public ModularFibonacci(long modulus) {
+        super();
+        arithmetic = new ModularArithmetic(modulus);
+        if (modulus <= PISANO_TABLE_LIMIT) {
+            pisanoPeriod = tabulatePisanoPeriod((int) modulus);
+        }
+    }
+
+    /**
+     * Returns the Fibonacci sequence modulo m, starting from F(0) = 0, for one
+     * Pisano period.
+     *
+     * @param m a positive integer
+     * @return a new array, whose length is the Pisano period of m
+     */
+    private static int[] tabulatePisanoPeriod(int m) {
+        if (m == 1) {
+            return new int[] {0};
+        }
+        final int[] sequence = new int[6 * m + 2];
+        sequence[0] = 0;
+        sequence[1] = 1;
+        int period = 2;
+        while (!(sequence[period - 1] == 1 && sequence[period - 2] == 0) || period == 2) {
+            sequence[period] = (sequence[period - 1] + sequence[period - 2]) % m;
+            period++;
+        }
+        // The last two entries restart the period.
+        final int[] table = new int[period - 2];
+        System.arraycopy(sequence, 0, table, 0, table.length);
+        return table;
+    }
+
+    /**
+     * Returns the modulus.
+     *
+     * @return the modulus
+     *
+     * @throws IllegalStateException if this object is disposed
+     */
+    public long getModulus() {
+        verifyNotDisposed();
+        return arithmetic.modulus;
+    }
+
+    /**
+     * Returns the nth Fibonacci number modulo the modulus, where the 0th and 1st
+     * numbers are both 1.
+     *
+     * @param n the index of the number, which is at least 0
+     * @return the nth Fibonacci number, reduced from 0 (inclusive) to the
+     *         modulus (exclusive)
+     *
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @throws IllegalStateException    if this object is disposed
+     */
+    public long getNthNumber(long n) {
+        verifyNotDisposed();
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative value of n: " + n);
+        }
+        // n + 1 is read as unsigned, so that it cannot overflow.
+        final long m = n + 1;
+        if (pisanoPeriod != null) {
+            return pisanoPeriod[(int) Long.remainderUnsigned(m, pisanoPeriod.length)];
+        }
+        final ModularArithmetic arithmetic = this.arithmetic;
+        long a = 0;
+        long b = arithmetic.one();
+        for (int bit = 63 - Long.numberOfLeadingZeros(m); bit >= 0; bit--) {
+            final long c = arithmetic.multiply(a, arithmetic.subtract(arithmetic.add(b, b), a));
+            final long d = arithmetic.add(arithmetic.multiply(a, a), arithmetic.multiply(b, b));
+            if ((m >>> bit & 1) == 0) {
+                a = c;
+                b = d;
+            } else {
+                a = d;
+                b = arithmetic.add(c, d);
+            }
+        }
+        return arithmetic.toLong(a);
+    }
+
+    @Override
+    public void dispose() {
+        if (isDisposed()) {
+            return;
+        }
+        disposed = true;
+        pisanoPeriod = null;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    public static void main(String[] args) {
+        final long[] moduli = {1_000, 1_000_000_007L, (1L << 61) - 1, 1L << 40};
+        final Fibonacci fibonacci = new Fibonacci(false);
+        try {
+            System.out.println("m\tn\tgetNthNumber(n)\tNanoseconds\tMatches Fibonacci");
+            for (long modulus : moduli) {
+                final ModularFibonacci modularFibonacci = new ModularFibonacci(modulus);
+                try {
+                    for (int n = 10; n <= 1_000_000; n *= 10) {
+                        final long before = System.nanoTime();
+                        final long nthNumber = modularFibonacci.getNthNumber(n);
+                        final long after = System.nanoTime();
+                        final boolean matches = fibonacci.getNthNumber(n).mod(BigInteger.valueOf(modulus))
+                                .longValueExact() == nthNumber;
+                        System.out.println(String.format("%d\t%d\t%d\t%d ns\t%b", modulus, n, nthNumber,
+                                after - before, matches));
+                    }
+                } finally {
+                    modularFibonacci.dispose();
+                }
+            }
+        } finally {
+            fibonacci.dispose();
+        }
+    }
+}
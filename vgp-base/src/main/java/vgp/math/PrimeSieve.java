@@ -0,0 +1,88 @@
+package vgp.math;
+
+import java.util.Arrays;
+
+/**
+ * A sieve of Eratosthenes over the odd numbers, which lists the primes up to a
+ * bound.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+final class PrimeSieve {
+
+    /**
+     * Do not instantiate this class.
+     */
+    private PrimeSieve() {
+        super();
+    }
+
+    /**
+     * Returns every prime up to the specified bound, in increasing order.
+     * <p>
+     * Only odd numbers are sieved, one bit each, so the sieve for a bound of n
+     * takes n / 16 bytes.
+     *
+     * @param n the bound, which may be negative
+     * @return a new array of the primes that do not exceed {@code n}
+     */
+    static int[] primesUpTo(int n) {
+        if (n < 2) {
+            return new int[0];
+        }
+        // Bit i stands for the odd number 2i + 1, and is set once that number is known to be composite.
+        final int bitCount = (n - 1) / 2 + 1;
+        final long[] composite = new long[(bitCount + 63) >>> 6];
+        for (long p = 3; p * p <= n; p += 2) {
+            final int i = (int) (p >>> 1);
+            if ((composite[i >>> 6] & 1L << i) != 0) {
+                continue;
+            }
+            for (long multiple = p * p; multiple <= n; multiple += 2 * p) {
+                final int j = (int) (multiple >>> 1);
+                composite[j >>> 6] |= 1L << j;
+            }
+        }
+        int[] primes = new int[estimateCount(n)];
+        primes[0] = 2;
+        int count = 1;
+        for (int i = 1; i < bitCount; i++) {
+            if ((composite[i >>> 6] & 1L << i) == 0) {
+                if (count == primes.length) {
+                    primes = Arrays.copyOf(primes, count + (count >> 1) + 1);
+                }
+                primes[count++] = 2 * i + 1;
+            }
+        }
+        return count == primes.length ? primes : Arrays.copyOf(primes, count);
+    }
+
+    /**
+     * Returns the number of primes in the specified array that do not exceed
+     * the specified bound.
+     *
+     * @param primes the primes, in increasing order
+     * @param n      the bound
+     * @return the index in {@code primes} of the first prime above {@code n}
+     */
+    static int countUpTo(int[] primes, int n) {
+        final int index = Arrays.binarySearch(primes, n);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Returns an upper bound on the number of primes up to the specified bound.
+     *
+     * @param n the bound, which is at least 2
+     * @return an upper bound on the number of primes that do not exceed
+     *         {@code n}, by the Rosser-Schoenfeld bound
+     */
+    private static int estimateCount(int n) {
+        if (n < 17) {
+            return 6;
+        }
+        return (int) Math.min(n, 1.25506 * n / Math.log(n)) + 1;
+    }
+}
@@ -0,0 +1,142 @@
+package vgp.math;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A means to multiply many small factors together by binary splitting.
+ * <p>
+ * Multiplying a growing product by one small factor at a time is quadratic in
+ * the product's length, whereas splitting the factors into two balanced halves
+ * keeps the operands of each multiplication about the same length, which lets
+ * {@link BigInteger#multiply(BigInteger)} use its subquadratic algorithms. The
+ * two halves are independent, so they are multiplied on a
+ * {@link ForkJoinPool}.
+ *
+ * @author (to be added)
+ * @version 2.5
+ * @since 2.5
+ */
+final class ProductTree {
+
+    /**
+     * The number of packed factors below which a subtree is multiplied on the
+     * current thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    /**
+     * A task that multiplies a range of packed factors.
+     *
+     * @version 2.5
+     * @since 2.5
+     */
+    private static final class ProductTask extends RecursiveTask<BigInteger> {
+
+        private static final long serialVersionUID = -2903842207618914727L;
+
+        private final long[] factors;
+        private final int from;
+        private final int to;
+
+        private ProductTask(long[] factors, int from, int to) {
+            super();
+            this.factors = factors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                return multiply(factors, from, to);
+            }
+            final int middle = (from + to) >>> 1;
+            final ProductTask upper = new ProductTask(factors, middle, to);
+            upper.fork();
+            final BigInteger lower = new ProductTask(factors, from, middle).compute();
+            return lower.multiply(upper.join());
+        }
+    }
+
+    /**
+     * Do not instantiate this class.
+     */
+    private ProductTree() {
+        super();
+    }
+
+    /**
+     * Returns the product of the specified nonnegative factors.
+     *
+     * @param factors the factors, which are not modified
+     * @param from    the index of the first factor
+     * @param to      the index after the last factor
+     * @param pool    the pool on which to multiply independent subtrees, or
+     *                {@code null} to multiply everything on the current thread
+     * @return the product, which is 1 if the range is empty
+     */
+    static BigInteger product(long[] factors, int from, int to, ForkJoinPool pool) {
+        final long[] packed = new long[to - from];
+        final int count = pack(factors, from, to, packed);
+        if (count == 0) {
+            return BigInteger.ONE;
+        }
+        if (pool == null || count < PARALLEL_THRESHOLD) {
+            return multiply(packed, 0, count);
+        }
+        final ProductTask task = new ProductTask(packed, 0, count);
+        return ForkJoinTask.inForkJoinPool() ? task.invoke() : pool.invoke(task);
+    }
+
+    /**
+     * Multiply runs of consecutive factors together while their product fits in
+     * a {@code long}, and store the products.
+     *
+     * @param factors the factors
+     * @param from    the index of the first factor
+     * @param to      the index after the last factor
+     * @param packed  where to store the products
+     * @return the number of products stored
+     */
+    private static int pack(long[] factors, int from, int to, long[] packed) {
+        int count = 0;
+        long product = 1;
+        for (int i = from; i < to; i++) {
+            final long factor = factors[i];
+            if (factor != 0 && product > Long.MAX_VALUE / factor) {
+                packed[count++] = product;
+                product = factor;
+            } else {
+                product *= factor;
+            }
+        }
+        if (product != 1 || count == 0 && to > from) {
+            packed[count++] = product;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the product of a nonempty range of factors, multiplied on the
+     * current thread by binary splitting.
+     *
+     * @param factors the factors
+     * @param from    the index of the first factor
+     * @param to      the index after the last factor, which exceeds
+     *                {@code from}
+     * @return the product
+     */
+    private static BigInteger multiply(long[] factors, int from, int to) {
+        final int length = to - from;
+        if (length == 1) {
+            return BigInteger.valueOf(factors[from]);
+        } else if (length == 2) {
+            return BigInteger.valueOf(factors[from]).multiply(BigInteger.valueOf(factors[from + 1]));
+        }
+        final int middle = (from + to) >>> 1;
+        return multiply(factors, from, middle).multiply(multiply(factors, middle, to));
+    }
+}
@@ -19,7 +19,7 @@ import vgp.dispose.Disposable;
  * of Representatives.
  * 
  * @author (to be added)
- * @version 2.3
+ * @version 2.5
  * @since 2.2
  */
 public final class USHouseIdealSize implements Disposable {
@@ -135,6 +135,48 @@ public final class USHouseIdealSize implements Disposable {
         }
     }
 
+    /**
+     * Returns a new object of this class, which has read the apportionment
+     * population of each state.
+     * 
+     * @return a new object of this class
+     * @throws IOException if the table of state populations cannot be read
+     */
+    public static USHouseIdealSize newInstance() throws IOException {
+        return new USHouseIdealSize();
+    }
+
+    /**
+     * Returns, for each House size in a range, the quotient of the largest by
+     * the smallest ratio of a state's population to its number of
+     * Representatives.
+     * 
+     * @param fromSize the smallest House size, which is at least the number of
+     *                 states
+     * @param toSize   the House size after the largest one, which is at least
+     *                 {@code fromSize}
+     * @return an array whose element i is the quotient for a House of
+     *         {@code fromSize + i} Representatives
+     * 
+     * @throws IllegalArgumentException if {@code fromSize} is less than the
+     *                                  number of states, or if {@code toSize}
+     *                                  is less than {@code fromSize}
+     * @throws IllegalStateException    if this object is disposed
+     */
+    public double[] getMaxMinQuotients(int fromSize, int toSize) {
+        verifyNotDisposed();
+        if (fromSize < TOTAL_NUMBER_OF_STATES) {
+            throw new IllegalArgumentException("fromSize < " + TOTAL_NUMBER_OF_STATES);
+        } else if (toSize < fromSize) {
+            throw new IllegalArgumentException("toSize parameter (" + toSize + ") is less than fromSize parameter (" + fromSize + ")");
+        }
+        final double[] quotients = new double[toSize - fromSize];
+        for (int size = fromSize; size < toSize; size++) {
+            quotients[size - fromSize] = getMaxMinQuotientOfRatiosOfStatePopulationToNumReps(size);
+        }
+        return quotients;
+    }
+
     // https://constitution.congress.gov/constitution/
     // "The Number of Representatives shall not exceed one for every thirty
     // Thousand"
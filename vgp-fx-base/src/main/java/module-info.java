@@ -632,6 +632,10 @@
  *     <li>Rewrote {@code ListEditorViewSkin.insertButton_onAction.handle(ActionEvent)}
  *     <li>Rewrote {@code ListEditorViewSkin.removeButton_onAction.handle(ActionEvent)}
  *     </ul>
+ * <li>Version 6.20
+ *     <ul>
+ *     <li>Class {@code vgp.fx.collections.LazyObservableList} created
+ *     </ul>
  * </ol>
  * 
  * 
@@ -0,0 +1,582 @@
+package vgp.fx.collections;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import vgp.clone.CloneableBase;
+import vgp.dispose.Disposable;
+import vgp.list.LazyRAMList;
+import vgp.list.LazyRAMListSnapshot;
+
+/**
+ * An implementation of {@link ObservableList} that postpones its write requests
+ * the way {@link LazyRAMList} does, and describes each batch of them with a
+ * single {@link ListChangeListener.Change}.
+ * <p>
+ * A batch is flushed when {@link #flush()} is called, when a read request is
+ * made (so that what is read has always been reported to listeners), and, in
+ * {@link FlushMode#PULSE} mode, once the JavaFX Application Thread gets around
+ * to it, which is before the next pulse lays out the scene.
+ * <p>
+ * When a batch is flushed, listeners receive one change:
+ * <ul>
+ * <li>if the batch only appended elements, an addition of those elements;
+ * <li>otherwise, a replacement of the smallest window of elements outside of
+ * which this list is unchanged (an addition or a removal if one side of that
+ * window is empty).
+ * </ul>
+ * Therefore, a bulk model update makes a {@code ListView} or {@code TableView}
+ * skin lay itself out once, not once per element. A {@link #sort} is reported
+ * as a replacement, not as a permutation.
+ * <p>
+ * Unless a batch only appends elements, flushing it copies the elements that
+ * this list had before the batch, in order to report the replaced ones.
+ * <p>
+ * As with {@link LazyRAMList}, whether an index parameter is out-of-bounds is
+ * only calculated when the batch is flushed, unless said index is negative.
+ * <p>
+ * Like other JavaFX collections, this list is not thread-safe: in
+ * {@link FlushMode#PULSE} mode, use it on the JavaFX Application Thread.
+ * <p>
+ * Listeners are not removed when {@link #dispose()} is called. Either manually
+ * remove them when you need to, or just use weak listeners.
+ * <p>
+ * Call {@link #verifyNotDisposed()} at the start of every method in this class,
+ * except for {@link #dispose()}, {@link #isDisposed()}, and {@code static}
+ * methods.
+ *
+ * @author (to be added)
+ * @version 6.20
+ * @param <E> a type shared by each element in this list
+ * @since 6.20
+ */
+public class LazyObservableList<E> extends ObservableListBase<E>
+        implements RandomAccess, Disposable, CloneableBase {
+
+    /**
+     * When a {@link LazyObservableList} flushes its write requests on its own.
+     * <p>
+     * Either way, a read request or a call to {@link LazyObservableList#flush()}
+     * flushes them.
+     *
+     * @version 6.20
+     * @since 6.20
+     */
+    public enum FlushMode {
+        /**
+         * Never.
+         */
+        EXPLICIT,
+        /**
+         * Once per batch, via {@link Platform#runLater(Runnable)}.
+         */
+        PULSE
+    }
+
+    /**
+     * @version 6.20
+     * @since 6.20
+     */
+    private final class BackingLazyRAMList extends LazyRAMList<E> {
+        private void flush() {
+            applyChanges();
+        }
+    }
+
+    private boolean disposed = false;
+    private final BackingLazyRAMList backingList = new BackingLazyRAMList();
+    private final FlushMode flushMode;
+
+    /**
+     * Whether write requests were made since the last flush.
+     */
+    private boolean dirty = false;
+
+    /**
+     * Whether every write request made since the last flush is an append.
+     */
+    private boolean appendOnly = true;
+
+    /**
+     * Whether a flush is waiting to be run on the JavaFX Application Thread.
+     */
+    private boolean flushScheduled = false;
+
+    /**
+     * The size of this list at the last flush.
+     */
+    private int flushedSize = 0;
+
+    /**
+     * The elements of this list at the last flush, or {@code null} if every
+     * write request made since then is an append.
+     */
+    private LazyRAMListSnapshot<E> flushedElements = null;
+
+    /**
+     * Create an empty list that only flushes its write requests when
+     * {@link #flush()} or a read request is called.
+     */
+    public LazyObservableList() {
+        this(FlushMode.EXPLICIT);
+    }
+
+    /**
+     * Create an empty list that flushes its write requests in the given mode.
+     *
+     * @param flushMode when to flush write requests
+     *
+     * @throws NullPointerException if the given mode is {@code null}
+     */
+    public LazyObservableList(FlushMode flushMode) {
+        super();
+        this.flushMode = Objects.requireNonNull(flushMode);
+    }
+
+    /**
+     * Copy the given collection's contents to this list, which only flushes its
+     * write requests when {@link #flush()} or a read request is called.
+     * <p>
+     * (Perform a shallow copy.)
+     *
+     * @param c what to make a shallow copy of
+     *
+     * @throws NullPointerException if the given collection is {@code null}
+     */
+    public LazyObservableList(Collection<? extends E> c) {
+        this(c, FlushMode.EXPLICIT);
+    }
+
+    /**
+     * Copy the given collection's contents to this list, which flushes its
+     * write requests in the given mode.
+     * <p>
+     * (Perform a shallow copy.)
+     *
+     * @param c         what to make a shallow copy of
+     * @param flushMode when to flush write requests
+     *
+     * @throws NullPointerException if either parameter is {@code null}
+     */
+    public LazyObservableList(Collection<? extends E> c, FlushMode flushMode) {
+        this(flushMode);
+        backingList.addAll(Objects.requireNonNull(c));
+        backingList.flush();
+        flushedSize = backingList.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The clone flushes its write requests in the same mode as this list.
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     */
+    @Override
+    public LazyObservableList<E> clone() {
+        verifyNotDisposed();
+        flush();
+        return new LazyObservableList<>(backingList, flushMode);
+    }
+
+    @Override
+    public void dispose() {
+        if (this.isDisposed()) {
+            return;
+        }
+        disposed = true;
+        flushedElements = null;
+        backingList.clear();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Returns when this list flushes its write requests on its own.
+     *
+     * @return this list's flush mode
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     */
+    public FlushMode getFlushMode() {
+        verifyNotDisposed();
+        return flushMode;
+    }
+
+    /**
+     * Apply every write request made since the last flush, and then notify
+     * listeners of their combined effect with a single change.
+     * <p>
+     * If no write request was made since the last flush, do nothing.
+     * <p>
+     * Should a write request fail (for instance, because of an out-of-bounds
+     * index), listeners are still notified of the requests applied before it.
+     *
+     * @throws IllegalStateException     if this list is {@link #isDisposed()
+     *                                   disposed}
+     * @throws IndexOutOfBoundsException if a postponed index was out-of-bounds
+     */
+    public void flush() {
+        verifyNotDisposed();
+        if (!dirty) {
+            return;
+        }
+        final LazyRAMListSnapshot<E> oldElements = flushedElements;
+        final int oldSize = flushedSize;
+        dirty = false;
+        appendOnly = true;
+        flushedElements = null;
+        try {
+            backingList.flush();
+        } finally {
+            flushedSize = backingList.size();
+            fireBatchChange(oldElements, oldSize);
+        }
+    }
+
+    /**
+     * Notify listeners of the difference between the given elements and this
+     * list's elements.
+     *
+     * @param oldElements the elements before the batch, or {@code null} if the
+     *                    batch only appended elements
+     * @param oldSize     the size before the batch
+     */
+    private void fireBatchChange(LazyRAMListSnapshot<E> oldElements, int oldSize) {
+        final int newSize = backingList.size();
+        if (oldElements == null) {
+            if (newSize > oldSize) {
+                beginChange();
+                nextAdd(oldSize, newSize);
+                endChange();
+            }
+            return;
+        }
+        final int minSize = Math.min(oldSize, newSize);
+        int prefix = 0;
+        while (prefix < minSize && oldElements.get(prefix) == backingList.get(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < minSize - prefix
+                && oldElements.get(oldSize - 1 - suffix) == backingList.get(newSize - 1 - suffix)) {
+            suffix++;
+        }
+        final int oldTo = oldSize - suffix;
+        final int newTo = newSize - suffix;
+        if (prefix == oldTo && prefix == newTo) {
+            return;
+        }
+        beginChange();
+        try {
+            if (prefix == oldTo) {
+                nextAdd(prefix, newTo);
+            } else if (prefix == newTo) {
+                nextRemove(prefix, oldElements.subList(prefix, oldTo));
+            } else {
+                nextReplace(prefix, newTo, oldElements.subList(prefix, oldTo));
+            }
+        } finally {
+            endChange();
+        }
+    }
+
+    /**
+     * Record that a write request is about to be made, and make sure that the
+     * elements of this list at the last flush can still be reported.
+     *
+     * @param append whether the write request only appends elements
+     */
+    private void beforeWrite(boolean append) {
+        if (!dirty) {
+            dirty = true;
+            flushedSize = backingList.size();
+            if (flushMode == FlushMode.PULSE && !flushScheduled) {
+                flushScheduled = true;
+                Platform.runLater(this::scheduledFlush);
+            }
+        }
+        if (!append && appendOnly) {
+            // Nothing but appends is pending, so the applied elements are the flushed ones.
+            appendOnly = false;
+            flushedElements = backingList.snapshot();
+        }
+    }
+
+    /**
+     * Run on the JavaFX Application Thread by {@link FlushMode#PULSE} mode.
+     */
+    private void scheduledFlush() {
+        flushScheduled = false;
+        if (!disposed) {
+            flush();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Every write request made since the last flush is flushed first.
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     */
+    @Override
+    public E get(int index) {
+        flush();
+        return backingList.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Every write request made since the last flush is flushed first.
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     */
+    @Override
+    public int size() {
+        flush();
+        return backingList.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     */
+    @Override
+    public boolean add(E e) {
+        verifyNotDisposed();
+        beforeWrite(true);
+        modCount++;
+        return backingList.add(e);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     */
+    @Override
+    public void add(int index, E element) {
+        verifyNotDisposed();
+        beforeWrite((!dirty || appendOnly) && index == backingList.size());
+        modCount++;
+        backingList.add(index, element);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     * @throws NullPointerException  if the given collection is {@code null}
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        verifyNotDisposed();
+        Objects.requireNonNull(c);
+        beforeWrite(true);
+        modCount++;
+        return backingList.addAll(c);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     * @throws NullPointerException  if the given collection is {@code null}
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        verifyNotDisposed();
+        Objects.requireNonNull(c);
+        beforeWrite((!dirty || appendOnly) && index == backingList.size());
+        modCount++;
+        return backingList.addAll(index, c);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     */
+    @Override
+    public E set(int index, E element) {
+        verifyNotDisposed();
+        beforeWrite(false);
+        return backingList.set(index, element);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     */
+    @Override
+    public E remove(int index) {
+        verifyNotDisposed();
+        beforeWrite(false);
+        modCount++;
+        return backingList.remove(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     */
+    @Override
+    public void removeRange(int fromIndex, int toIndex) {
+        verifyNotDisposed();
+        beforeWrite(false);
+        modCount++;
+        backingList.removeRange(fromIndex, toIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     */
+    @Override
+    public void clear() {
+        verifyNotDisposed();
+        beforeWrite(false);
+        modCount++;
+        backingList.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     * @throws NullPointerException  if the given collection is {@code null}
+     */
+    @Override
+    public boolean setAll(Collection<? extends E> col) {
+        verifyNotDisposed();
+        Objects.requireNonNull(col);
+        beforeWrite(false);
+        modCount++;
+        backingList.clear();
+        backingList.addAll(col);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     * @throws NullPointerException  if the given collection is {@code null}
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        verifyNotDisposed();
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     * @throws NullPointerException  if the given collection is {@code null}
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        verifyNotDisposed();
+        Objects.requireNonNull(c);
+        return removeIf(element -> !c.contains(element));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     * @throws NullPointerException  if the parameter is {@code null}
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        verifyNotDisposed();
+        Objects.requireNonNull(filter);
+        beforeWrite(false);
+        final boolean wasAnythingRemoved = backingList.removeIf(filter);
+        if (wasAnythingRemoved) {
+            modCount++;
+        }
+        return wasAnythingRemoved;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     * @throws NullPointerException  if the parameter is {@code null}
+     */
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) {
+        verifyNotDisposed();
+        Objects.requireNonNull(operator);
+        beforeWrite(false);
+        backingList.replaceAll(operator);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this list is {@link #isDisposed() disposed}
+     */
+    @Override
+    public void sort(Comparator<? super E> c) {
+        verifyNotDisposed();
+        beforeWrite(false);
+        backingList.sort(c);
+    }
+
+    @Override
+    public String toString() {
+        return disposed ? "{Disposed LazyObservableList}" : super.toString();
+    }
+
+    /**
+     * The entry point for this class to be run from the command line.
+     *
+     * @param args the string array passed from the command line
+     */
+    public static void main(String[] args) {
+        final LazyObservableList<Integer> list = new LazyObservableList<>();
+        list.addListener((ListChangeListener<Integer>) c -> {
+            while (c.next()) {
+                System.out.println("change: " + c);
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+        list.flush();
+
+        for (int i = 0; i < 10; i += 2) {
+            list.set(i, -i);
+        }
+        list.remove(9);
+        list.flush();
+
+        final List<Integer> copy = list.clone();
+        System.out.println("list is " + list);
+        System.out.println("clone is " + copy);
+    }
+
+}